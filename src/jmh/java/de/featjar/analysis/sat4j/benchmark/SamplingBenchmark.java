@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.benchmark;
+
+import de.featjar.Common;
+import de.featjar.analysis.sat4j.cli.CardinalitySamplingCommand;
+import de.featjar.analysis.sat4j.cli.ClusterInteractionSamplingCommand;
+import de.featjar.analysis.sat4j.cli.PrioritizedSamplingCommand;
+import de.featjar.analysis.sat4j.cli.WeightedSamplingCommand;
+import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.analysis.sat4j.sampling.ASamplingAddition;
+import de.featjar.analysis.sat4j.sampling.CardinalitySampling;
+import de.featjar.analysis.sat4j.sampling.ClusterInteractionSampling;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.CombinedSampling;
+import de.featjar.analysis.sat4j.sampling.ComputeCardinalityCompletion;
+import de.featjar.analysis.sat4j.sampling.ComputeIndexedRankedSample;
+import de.featjar.analysis.sat4j.sampling.PrioritizedSampling;
+import de.featjar.analysis.sat4j.sampling.WeightedSampling;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.io.IO;
+import de.featjar.base.io.input.StringInputMapper;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.assignment.ComputeBooleanClauseList;
+import de.featjar.formula.combination.ICombinationSpecification;
+import de.featjar.formula.computation.ComputeCNFFormula;
+import de.featjar.formula.computation.ComputeNNFFormula;
+import de.featjar.formula.computation.ComputeRankedSample;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import de.featjar.formula.io.xml.XMLFeatureModelFormulaFormat;
+import de.featjar.formula.structure.IFormula;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every phase of the sampling additions separately for all strategies.
+ * Models are either paths on disk or names of test models (e.g., {@code GPL/model.xml}).
+ * Maps are generated randomly with a fixed seed from the variables of the model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SamplingBenchmark {
+
+    public enum Strategy {
+        PRIORITIZED,
+        CARDINALITY,
+        CLUSTER_INTERACTION,
+        WEIGHTED,
+        COMBINED
+    }
+
+    @Param({"GPL/model.xml"})
+    public String model;
+
+    @Param({"PRIORITIZED", "CARDINALITY", "CLUSTER_INTERACTION", "WEIGHTED", "COMBINED"})
+    public Strategy strategy;
+
+    @Param({"1", "2"})
+    public int t;
+
+    @Param({"1", "5"})
+    public int iterations;
+
+    @Param({"10", "100"})
+    public int mapSize;
+
+    private IFormula formula;
+    private BooleanAssignmentList featureModel;
+    private BooleanAssignmentValueMap priorityMap;
+    private BooleanAssignmentValueMap cardinalityMap;
+    private BooleanAssignmentValueMap clusterInteractionMap;
+    private BooleanAssignmentValueMap weightMap;
+
+    private BooleanAssignmentList adaptedFeatureModel;
+    private CombinationSpecificationOptimizer optimizer;
+    private BooleanAssignmentList rawSample;
+    private BooleanAssignmentList completedSample;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FeatJAR.initialize();
+        formula = loadFormula();
+        featureModel = transform(formula);
+
+        Random random = new Random(0);
+        VariableMap variableMap = featureModel.getVariableMap();
+        priorityMap = createMap(variableMap, random, 3, 10);
+        cardinalityMap = createMap(variableMap, random, 2, 4);
+        clusterInteractionMap = createMap(variableMap, random, 2, 3);
+        weightMap = createMap(variableMap, random, 4, 3);
+
+        optimizer = constructSpecifications();
+        rawSample = Computations.of(adaptedFeatureModel)
+                .map(YASA::new)
+                .set(YASA.COMBINATION_SET, optimizer.getCombinationSpecification())
+                .set(YASA.ITERATIONS, iterations)
+                .compute();
+        completedSample = complete(rawSample);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FeatJAR.deinitialize();
+    }
+
+    @Benchmark
+    public IFormula loadModel() {
+        return loadFormula();
+    }
+
+    @Benchmark
+    public BooleanAssignmentList transformModel() {
+        return transform(formula);
+    }
+
+    @Benchmark
+    public CombinationSpecificationOptimizer constructSpecifications() {
+        BooleanAssignmentList model = new BooleanAssignmentList(featureModel);
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(model.getVariableMap());
+        switch (strategy) {
+            case PRIORITIZED:
+                optimizer.setGlobalT(t);
+                PrioritizedSamplingCommand.addPriorityCombinationSpecification(optimizer, priorityMap);
+                break;
+            case CARDINALITY:
+                optimizer.setGlobalT(t);
+                CardinalitySamplingCommand.addCardinalityCombinationSpecifications(optimizer, cardinalityMap);
+                break;
+            case CLUSTER_INTERACTION:
+                optimizer.setGlobalT(t);
+                ClusterInteractionSamplingCommand.addClusterInteractionCombinationSpecifications(
+                        optimizer, clusterInteractionMap);
+                break;
+            case WEIGHTED:
+                WeightedSamplingCommand.addWeightCombinationSpecifications(optimizer, weightMap);
+                break;
+            case COMBINED:
+                optimizer.setGlobalT(t);
+                ClusterInteractionSamplingCommand.addClusterInteractionCombinationSpecifications(
+                        optimizer, clusterInteractionMap);
+                PrioritizedSamplingCommand.addPriorityCombinationSpecification(optimizer, priorityMap);
+                WeightedSamplingCommand.addWeightCombinationSpecifications(optimizer, weightMap);
+                CardinalitySamplingCommand.addCardinalityCombinationSpecifications(optimizer, cardinalityMap);
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(strategy));
+        }
+        optimizer.getCombinationSpecifications();
+        adaptedFeatureModel = model;
+        return optimizer;
+    }
+
+    @Benchmark
+    public BooleanAssignmentList sample() {
+        ICombinationSpecification combinationSpecification = optimizer.getCombinationSpecification();
+        return Computations.of(adaptedFeatureModel)
+                .map(YASA::new)
+                .set(YASA.COMBINATION_SET, combinationSpecification)
+                .set(YASA.ITERATIONS, iterations)
+                .compute();
+    }
+
+    @Benchmark
+    public BooleanAssignmentList completeCardinalities() {
+        return complete(rawSample);
+    }
+
+    @Benchmark
+    public BooleanAssignmentList rankSample() {
+        return Computations.of(completedSample)
+                .map(ComputeRankedSample::new)
+                .set(ComputeRankedSample.RANK_VALUES, priorityMap.toValuedBooleanAssignmentList())
+                .compute();
+    }
+
+    @Benchmark
+    public BooleanAssignmentList rankSampleIndexed() {
+        return Computations.of(completedSample)
+                .map(c -> new ComputeIndexedRankedSample(c, priorityMap))
+                .compute();
+    }
+
+    @Benchmark
+    public BooleanAssignmentList computeSample() {
+        ASamplingAddition samplingAddition;
+        switch (strategy) {
+            case PRIORITIZED:
+                samplingAddition = new PrioritizedSampling(t, priorityMap);
+                break;
+            case CARDINALITY:
+                samplingAddition = new CardinalitySampling(t, cardinalityMap);
+                break;
+            case CLUSTER_INTERACTION:
+                samplingAddition = new ClusterInteractionSampling(t, clusterInteractionMap);
+                break;
+            case WEIGHTED:
+                samplingAddition = new WeightedSampling(weightMap);
+                break;
+            case COMBINED:
+                samplingAddition = new CombinedSampling.CombinedSamplingBuilder()
+                        .setT(t)
+                        .setPriorityMap(priorityMap)
+                        .setCardinalityMap(cardinalityMap)
+                        .setClusterInteractionMap(clusterInteractionMap)
+                        .setWeightMap(weightMap)
+                        .build();
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(strategy));
+        }
+        samplingAddition.setIterations(iterations);
+        return samplingAddition
+                .computeSample(new BooleanAssignmentList(featureModel))
+                .orElseThrow();
+    }
+
+    private BooleanAssignmentList complete(BooleanAssignmentList sample) {
+        return Computations.of(sample)
+                .map(c -> new ComputeCardinalityCompletion(c, adaptedFeatureModel, optimizer))
+                .compute();
+    }
+
+    private IFormula loadFormula() {
+        Path path = Paths.get(model);
+        if (Files.exists(path)) {
+            return IO.load(path, new XMLFeatureModelFormulaFormat()).orElseThrow();
+        }
+        return Common.loadFormula(model);
+    }
+
+    private static BooleanAssignmentList transform(IFormula formula) {
+        return Computations.of(formula)
+                .map(ComputeNNFFormula::new)
+                .map(ComputeCNFFormula::new)
+                .map(ComputeBooleanClauseList::new)
+                .compute();
+    }
+
+    /**
+     * Creates a map with {@link #mapSize} random clusters of up to {@code maxClusterSize} literals and values in
+     * [1, maxValue].
+     */
+    private BooleanAssignmentValueMap createMap(
+            VariableMap variableMap, Random random, int maxClusterSize, int maxValue) {
+        StringBuilder sb = new StringBuilder();
+        int variableCount = variableMap.size();
+        for (int i = 0; i < mapSize; i++) {
+            int clusterSize = 1 + random.nextInt(Math.min(maxClusterSize, variableCount));
+            LinkedHashSet<Integer> variables = new LinkedHashSet<>();
+            while (variables.size() < clusterSize) {
+                variables.add(1 + random.nextInt(variableCount));
+            }
+            boolean first = true;
+            for (int variable : variables) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                if (random.nextBoolean()) {
+                    sb.append('-');
+                }
+                sb.append(variableMap.get(variable).orElseThrow());
+            }
+            sb.append('=').append(1 + random.nextInt(maxValue)).append('\n');
+        }
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMapFormat()
+                .parse(new StringInputMapper(sb.toString(), StandardCharsets.UTF_8, ".txt"))
+                .orElseThrow();
+        map.adapt(variableMap, true);
+        return map;
+    }
+}
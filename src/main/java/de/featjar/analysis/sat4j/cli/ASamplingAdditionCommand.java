@@ -21,12 +21,38 @@
 package de.featjar.analysis.sat4j.cli;
 
 import de.featjar.analysis.AAnalysisCommand;
+import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapBinaryFormat;
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapReader;
+import de.featjar.analysis.sat4j.io.CNFCache;
+import de.featjar.analysis.sat4j.io.ConfigurationListFormat;
+import de.featjar.analysis.sat4j.io.SampleCache;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.ComputeCachedSample;
+import de.featjar.analysis.sat4j.sampling.ComputeCardinalityCompletion;
+import de.featjar.analysis.sat4j.sampling.ComputeCoverageReport;
+import de.featjar.analysis.sat4j.sampling.ComputeExpandedSample;
+import de.featjar.analysis.sat4j.sampling.ComputeMinimizedSample;
+import de.featjar.analysis.sat4j.sampling.ComputeParallelSample;
+import de.featjar.analysis.sat4j.sampling.ComputeStreamedSample;
+import de.featjar.analysis.sat4j.sampling.ConfigurationRepair;
+import de.featjar.analysis.sat4j.sampling.ISampleSink;
+import de.featjar.analysis.sat4j.sampling.ISamplingListener;
+import de.featjar.analysis.sat4j.sampling.InteractionCoverage;
+import de.featjar.analysis.sat4j.sampling.ReducedModel;
+import de.featjar.analysis.sat4j.sampling.SamplingContext;
+import de.featjar.analysis.sat4j.sampling.SamplingEvent;
 import de.featjar.base.FeatJAR;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.io.IO;
+import de.featjar.base.log.Log;
 import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
 import de.featjar.formula.assignment.ComputeBooleanClauseList;
@@ -34,7 +60,21 @@ import de.featjar.formula.computation.ComputeCNFFormula;
 import de.featjar.formula.computation.ComputeNNFFormula;
 import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
 import de.featjar.formula.io.xml.XMLFeatureModelFormulaFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 // Todo: Combine all sampling additions
 public abstract class ASamplingAdditionCommand extends AAnalysisCommand<BooleanAssignmentList> {
@@ -46,13 +86,684 @@ public abstract class ASamplingAdditionCommand extends AAnalysisCommand<BooleanA
             .setDescription("Feature model to sample.")
             .setDefaultValue(null);
 
+    public static final Option<Path> CNF_CACHE_OPTION = Option.newOption("cnf-cache", Option.PathParser)
+            .setDescription("Directory for caching the clause lists of parsed feature models.")
+            .setDefaultValue(null);
+
     public static final Option<Integer> ITERATIONS_OPTION = Option.newOption("i", Option.IntegerParser) //
             .setDescription("Number of iterations.") //
             .setDefaultValue(1);
 
+    public static final Option<Integer> THREADS_OPTION = Option.newOption("threads", Option.IntegerParser) //
+            .setDescription("Number of threads running the iterations as independent YASA runs. The smallest sample "
+                    + "is kept. Has no effect with -i 1. For a fixed seed, the sample is the same for every number "
+                    + "of threads above 1.") //
+            .setDefaultValue(1);
+
+    public static final Option<Long> SEED_OPTION = Option.newOption("seed", Option.LongParser) //
+            .setDescription("Random seed for YASA.") //
+            .setDefaultValue(null);
+
+    public static final Option<Path> INITIAL_SAMPLE_OPTION = Option.newOption("initial-sample", Option.PathParser) //
+            .setDescription("Existing sample whose valid configurations are kept and counted as covered.") //
+            .setDefaultValue(null);
+
+    public static final Option<Path> STREAM_OUTPUT_OPTION = Option.newOption("stream-output", Option.PathParser) //
+            .setDescription("File to which configurations are appended as soon as they are generated.") //
+            .setDefaultValue(null);
+
+    public static final Option<Integer> BATCH_SIZE_OPTION = Option.newOption("batch-size", Option.IntegerParser) //
+            .setDescription("Maximum number of configurations generated per round when streaming or sampling with a "
+                    + "budget. Every round reruns YASA on all configurations so far, so a small batch size makes "
+                    + "sampling quadratic in the sample size. 0 lets the batch grow with the sample.") //
+            .setDefaultValue(0);
+
+    public static final Option<Path> REPORT_OPTION = Option.newOption("report", Option.PathParser) //
+            .setDescription("File for a per-specification coverage report (JSON if it ends with .json, else CSV).") //
+            .setDefaultValue(null);
+
+    public static final Option<Integer> TIME_LIMIT_OPTION = Option.newOption("time-limit", Option.IntegerParser) //
+            .setDescription("Seconds after which no further round is started and the configurations found so far are "
+                    + "returned.") //
+            .setDefaultValue(null);
+
+    public static final Option<Double> TARGET_COVERAGE_OPTION = Option.newOption(
+                    "target-coverage", Option.DoubleParser) //
+            .setDescription("Coverage between 0 and 1 at which sampling stops.") //
+            .setDefaultValue(null);
+
+    public static final Option<Boolean> MINIMIZE_OPTION = Option.newFlag("minimize") //
+            .setDescription("Remove configurations whose interactions are all covered by other configurations. "
+                    + "With several threads, the samples of all runs are merged and minimized.");
+
+    public static final Option<Boolean> REDUCE_MODEL_OPTION = Option.newFlag("reduce-model") //
+            .setDescription("Remove core and dead features and variables that no specification references before "
+                    + "sampling, and add them to the configurations afterwards.");
+
+    public static final Option<Boolean> COLLAPSE_ATOMIC_SETS_OPTION = Option.newFlag("collapse-atomic-sets") //
+            .setDescription("Replace features that always have the same value by one representative before sampling.");
+
+    public static final Option<Integer> MAX_MEMORY_OPTION = Option.newOption("max-memory", Option.IntegerParser) //
+            .setDescription("Megabytes for recording covered interactions when measuring coverage or minimizing. "
+                    + "Beyond it, interactions are enumerated on the fly. "
+                    + "Defaults to half of the free direct memory. "
+                    + "Does not bound the memory of YASA itself, which depends on the heap size (-Xmx).") //
+            .setDefaultValue(null);
+
+    public static final Option<Boolean> REPAIR_INITIAL_SAMPLE_OPTION = Option.newFlag("repair-initial-sample") //
+            .setDescription("Repair configurations of the initial sample that violate the feature model with few "
+                    + "changes instead of dropping them, e.g., to carry a sample over to a new version of the model.");
+
+    public static final Option<Path> SAMPLE_CACHE_OPTION = Option.newOption("sample-cache", Option.PathParser) //
+            .setDescription("Directory for caching finished samples across runs with the same inputs.") //
+            .setDefaultValue(null);
+
+    protected int threads = 1;
+    protected Long randomSeed = null;
+    protected BooleanAssignmentList initialSample = null;
+    protected boolean repairInitialSample = false;
+    protected ISampleSink sampleSink = null;
+    protected int batchSize = 0;
+    protected Path reportPath = null;
+    protected Duration timeLimit = null;
+    protected double targetCoverage = 0;
+    protected boolean minimize = false;
+    protected boolean reduceModel = false;
+    protected boolean collapseAtomicSets = false;
+    protected BooleanSupplier cancellation = null;
+    protected ISamplingListener samplingListener = null;
+    protected long maxMemory = 0;
+    protected SampleCache sampleCache = null;
+    // contexts of clause lists are only weakly shared, so the command keeps the context of its last model
+    private SamplingContext samplingContext = null;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public BooleanAssignmentList getInitialSample() {
+        return initialSample;
+    }
+
+    /**
+     * Sets a sample to start from. Its valid configurations are part of the result and only interactions that they
+     * do not cover lead to new configurations.
+     */
+    public void setInitialSample(BooleanAssignmentList initialSample) {
+        this.initialSample = initialSample;
+    }
+
+    public boolean isRepairInitialSample() {
+        return repairInitialSample;
+    }
+
+    /**
+     * Sets whether invalid configurations of the initial sample are repaired instead of dropped, see
+     * {@link ConfigurationRepair}.
+     */
+    public void setRepairInitialSample(boolean repairInitialSample) {
+        this.repairInitialSample = repairInitialSample;
+    }
+
+    public ISampleSink getSampleSink() {
+        return sampleSink;
+    }
+
+    /**
+     * Sets a sink that receives the configurations in batches while the sample is computed.
+     * The sink receives the configurations after the same post-processing as the final sample.
+     */
+    public void setSampleSink(ISampleSink sampleSink) {
+        this.sampleSink = sampleSink;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Path getReportPath() {
+        return reportPath;
+    }
+
+    /**
+     * Sets the file to which a {@link de.featjar.analysis.sat4j.sampling.CoverageReport} of the sample is written.
+     */
+    public void setReportPath(Path reportPath) {
+        this.reportPath = reportPath;
+    }
+
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets the time after which sampling stops and returns the configurations found so far, {@code null} for no
+     * limit.
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public double getTargetCoverage() {
+        return targetCoverage;
+    }
+
+    /**
+     * Sets the coverage between 0 and 1 at which sampling stops, 0 for no target.
+     */
+    public void setTargetCoverage(double targetCoverage) {
+        this.targetCoverage = targetCoverage;
+    }
+
+    public boolean isMinimize() {
+        return minimize;
+    }
+
+    /**
+     * Sets whether redundant configurations are removed from the sample, see {@link ComputeMinimizedSample}.
+     */
+    public void setMinimize(boolean minimize) {
+        this.minimize = minimize;
+    }
+
+    public boolean isReduceModel() {
+        return reduceModel;
+    }
+
+    /**
+     * Sets whether the feature model is reduced before sampling, see {@link ReducedModel}.
+     */
+    public void setReduceModel(boolean reduceModel) {
+        this.reduceModel = reduceModel;
+    }
+
+    public boolean isCollapseAtomicSets() {
+        return collapseAtomicSets;
+    }
+
+    /**
+     * Sets whether each atomic set is sampled as a single variable, see {@link ReducedModel}.
+     */
+    public void setCollapseAtomicSets(boolean collapseAtomicSets) {
+        this.collapseAtomicSets = collapseAtomicSets;
+    }
+
+    public BooleanSupplier getCancellation() {
+        return cancellation;
+    }
+
+    /**
+     * Sets a condition that is polled while sampling. Once it holds, sampling fails with a
+     * {@link java.util.concurrent.CancellationException}. YASA cannot be interrupted, so a cancellation makes the
+     * command {@link #isSampledInRounds() sample in rounds} and the condition is polled between rounds.
+     */
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    public ISamplingListener getSamplingListener() {
+        return samplingListener;
+    }
+
+    /**
+     * Sets a listener that receives the number of configurations and the coverage after every round. Sampling with a
+     * listener runs in rounds.
+     */
+    public void setSamplingListener(ISamplingListener samplingListener) {
+        this.samplingListener = samplingListener;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Sets the number of bytes for recording covered interactions, 0 for the default limit, see
+     * {@link InteractionCoverage#getDefaultMaxMemory()}. The limit applies to coverage measurement in rounds and to
+     * minimization, but not to YASA, whose memory is only bounded by the heap.
+     */
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public SampleCache getSampleCache() {
+        return sampleCache;
+    }
+
+    /**
+     * Sets the cache that is checked before sampling and receives every finished sample, {@code null} for no cache.
+     */
+    public void setSampleCache(SampleCache sampleCache) {
+        this.sampleCache = sampleCache;
+    }
+
+    public SamplingContext getSamplingContext() {
+        return samplingContext;
+    }
+
+    /**
+     * Sets the context whose analyses are reused when the command samples the clause list of the context, e.g., by a
+     * server that keeps the context of each registered model.
+     */
+    public void setSamplingContext(SamplingContext samplingContext) {
+        this.samplingContext = samplingContext;
+    }
+
+    protected boolean hasBudget() {
+        return timeLimit != null || targetCoverage > 0;
+    }
+
+    /**
+     * Reads the options shared by all sampling additions into this command.
+     */
+    protected void parseSamplingOptions(OptionList optionParser) {
+        threads = optionParser.get(THREADS_OPTION);
+        randomSeed = optionParser.getResult(SEED_OPTION).orElse(null);
+        Result<Path> initialSamplePath = optionParser.getResult(INITIAL_SAMPLE_OPTION);
+        if (initialSamplePath.isPresent()) {
+            initialSample = ConfigurationListFormat.load(initialSamplePath.get())
+                    .orElseLog(Log.Verbosity.WARNING);
+        }
+        repairInitialSample = optionParser.get(REPAIR_INITIAL_SAMPLE_OPTION);
+        batchSize = optionParser.get(BATCH_SIZE_OPTION);
+        reportPath = optionParser.getResult(REPORT_OPTION).orElse(null);
+        Result<Integer> timeLimitSeconds = optionParser.getResult(TIME_LIMIT_OPTION);
+        timeLimit = timeLimitSeconds.isPresent() ? Duration.ofSeconds(timeLimitSeconds.get()) : null;
+        targetCoverage = optionParser.getResult(TARGET_COVERAGE_OPTION).orElse(0.0);
+        minimize = optionParser.get(MINIMIZE_OPTION);
+        reduceModel = optionParser.get(REDUCE_MODEL_OPTION);
+        collapseAtomicSets = optionParser.get(COLLAPSE_ATOMIC_SETS_OPTION);
+        Result<Integer> maxMemoryMegabytes = optionParser.getResult(MAX_MEMORY_OPTION);
+        maxMemory = maxMemoryMegabytes.isPresent() ? maxMemoryMegabytes.get() * 1024L * 1024L : 0;
+        Result<Path> sampleCachePath = optionParser.getResult(SAMPLE_CACHE_OPTION);
+        if (sampleCachePath.isPresent()) {
+            sampleCache = new SampleCache(sampleCachePath.get());
+        }
+        Result<Path> streamOutputPath = optionParser.getResult(STREAM_OUTPUT_OPTION);
+        if (streamOutputPath.isPresent()) {
+            sampleSink = createFileSink(streamOutputPath.get());
+        }
+    }
+
+    private static ISampleSink createFileSink(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            FeatJAR.log().warning(() -> "Could not reset " + path + ": " + e.getMessage());
+        }
+        return configurations -> {
+            try {
+                Files.writeString(
+                        path,
+                        ConfigurationListFormat.serialize(configurations),
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                FeatJAR.log().warning(() -> "Could not write to " + path + ": " + e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Creates the complete sampling computation.
+     * @param featureModel the clause list to sample
+     * @param optimizer the combination specifications to cover
+     * @param iterations the number of YASA iterations
+     * @param postProcessing turns the raw YASA sample into the final sample, e.g., by projection and ranking
+     */
+    protected IComputation<BooleanAssignmentList> createSampleComputation(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            int iterations,
+            UnaryOperator<IComputation<BooleanAssignmentList>> postProcessing) {
+        if (reduceModel || collapseAtomicSets) {
+            ReducedModel model = reduceModel(featureModel, optimizer);
+            if (model != null) {
+                return createYASASampleComputation(
+                        model.getClauseList(),
+                        optimizer.reduce(model),
+                        iterations,
+                        sample -> postProcessing.apply(sample.map(c -> new ComputeExpandedSample(c, model))));
+            }
+        }
+        return createYASASampleComputation(featureModel, optimizer, iterations, postProcessing);
+    }
+
+    /**
+     * Creates the complete sampling computation like
+     * {@link #createSampleComputation(BooleanAssignmentList, CombinationSpecificationOptimizer, int, UnaryOperator)},
+     * but returns a cached sample if there is one in the {@link #sampleCache}.
+     * @param cacheKey adds the inputs of the command that are not part of the feature model or the sampling options,
+     * such as its maps and t, to the cache key
+     */
+    protected IComputation<BooleanAssignmentList> createSampleComputation(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            int iterations,
+            UnaryOperator<IComputation<BooleanAssignmentList>> postProcessing,
+            Consumer<SampleCache.Key> cacheKey) {
+        return withSampleCache(
+                featureModel,
+                optimizer,
+                iterations,
+                cacheKey,
+                () -> createSampleComputation(featureModel, optimizer, iterations, postProcessing));
+    }
+
+    /**
+     * Returns a cached sample for the given inputs if there is one, and otherwise the given sample computation, whose
+     * result is stored in the cache.
+     * Samples with a time limit depend on the speed of the machine and are neither loaded nor stored.
+     */
+    protected IComputation<BooleanAssignmentList> withSampleCache(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            int iterations,
+            Consumer<SampleCache.Key> cacheKey,
+            Supplier<IComputation<BooleanAssignmentList>> sampleComputation) {
+        if (sampleCache == null || timeLimit != null) {
+            return sampleComputation.get();
+        }
+        SampleCache.Key key = new SampleCache.Key(getClass().getName())
+                .add("feature-model", featureModel)
+                .add("initial-sample", initialSample)
+                .add("repair-initial-sample", String.valueOf(repairInitialSample))
+                .add("iterations", iterations)
+                .add("seed", String.valueOf(randomSeed))
+                .add("threads", threads)
+                .add("batch-size", batchSize)
+                .add("target-coverage", targetCoverage)
+                .add("minimize", String.valueOf(minimize))
+                .add("reduce-model", String.valueOf(reduceModel))
+                .add("collapse-atomic-sets", String.valueOf(collapseAtomicSets))
+                .add("sampling-path", getSamplingPath());
+        if (minimize) {
+            // minimization filters in order instead of solving a set cover if its bitsets exceed the memory limit
+            key.add("max-memory", maxMemory > 0 ? maxMemory : InteractionCoverage.getDefaultMaxMemory());
+        }
+        cacheKey.accept(key);
+        Result<BooleanAssignmentList> cachedSample = sampleCache.load(key);
+        if (cachedSample.isEmpty()) {
+            SampleCache cache = sampleCache;
+            return sampleComputation.get().map(c -> new ComputeCachedSample(c, cache, key));
+        }
+        BooleanAssignmentList sample = cachedSample.get();
+        FeatJAR.log().info(() -> "Using cached sample " + key + " with " + sample.size() + " configurations");
+        if (sampleSink != null) {
+            sampleSink.accept(sample);
+        }
+        if (samplingListener != null) {
+            // the cached sample is published like a single round, its coverage was not recorded
+            samplingListener.accept(new SamplingEvent(SamplingEvent.Phase.SAMPLING, sample.size(), Double.NaN));
+        }
+        return withReport(Computations.of(sample), featureModel, optimizer);
+    }
+
+    /**
+     * Identifies the steps that compute the sample, which lead to different samples for the same inputs.
+     * Streamed samples are sampled in rounds, but not minimized.
+     */
+    private String getSamplingPath() {
+        if (!isSampledInRounds()) {
+            return "direct";
+        }
+        return sampleSink != null ? "streamed" : "rounds";
+    }
+
+    /**
+     * Removes core and dead variables and variables that the optimizer does not reference from the feature model if
+     * {@link #reduceModel} is set, and collapses atomic sets if {@link #collapseAtomicSets} is set.
+     * @return the reduced model, or {@code null} if the model cannot be reduced
+     */
+    private ReducedModel reduceModel(BooleanAssignmentList featureModel, CombinationSpecificationOptimizer optimizer) {
+        if (initialSample != null) {
+            FeatJAR.log().warning(() -> "Model reduction is not supported when extending an initial sample");
+            return null;
+        }
+        // the context computes the core, the atomic sets, and the reduction only once per clause list
+        if (samplingContext == null || samplingContext.getClauseList() != featureModel) {
+            samplingContext = SamplingContext.of(featureModel);
+        }
+        Result<ReducedModel> reducedModel = samplingContext.getReducedModel(
+                reduceModel, collapseAtomicSets, optimizer.getReferencedVariables());
+        if (reducedModel.isEmpty()) {
+            FeatJAR.log()
+                    .warning(() -> "Could not analyze the feature model, sampling the complete model: "
+                            + reducedModel.getProblems());
+            return null;
+        }
+        ReducedModel model = reducedModel.get();
+        FeatJAR.log()
+                .info(() -> "Reduced model from " + featureModel.getVariableMap().size() + " to "
+                        + model.getReducedVariableMap().size() + " variables (" + model.getFixedVariableCount()
+                        + " core or dead, " + model.getCollapsedVariableCount() + " in atomic sets, "
+                        + model.getEliminatedVariableCount() + " sliced) and from " + featureModel.size() + " to "
+                        + model.getClauseList().size() + " clauses");
+        return model;
+    }
+
+    private IComputation<BooleanAssignmentList> createYASASampleComputation(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            int iterations,
+            UnaryOperator<IComputation<BooleanAssignmentList>> postProcessing) {
+        if (!isSampledInRounds()) {
+            IComputation<BooleanAssignmentList> sample = computeYASA(featureModel, optimizer, iterations);
+            if (!optimizer.getCardinalityRequirements().isEmpty()) {
+                sample = sample.map(c -> new ComputeCardinalityCompletion(c, featureModel, optimizer));
+            }
+            return postProcessing.apply(withReport(withMinimization(sample, optimizer), featureModel, optimizer));
+        }
+        // streaming, budgets, progress events, and cancellation all sample in rounds, which run on a single thread
+        if (threads > 1) {
+            FeatJAR.log().warning(() -> "Sampling in rounds runs on a single thread, ignoring " + threads + " threads");
+        }
+        ISampleSink sink = sampleSink;
+        ISampleSink postProcessingSink = sink == null
+                ? batch -> {}
+                : batch -> sink.accept(postProcessing.apply(Computations.of(batch)).compute());
+        IComputation<BooleanAssignmentList> streamedSample = Computations.of(featureModel)
+                .map(c -> new ComputeStreamedSample(c, optimizer, postProcessingSink))
+                .set(ComputeStreamedSample.ITERATIONS, iterations)
+                .set(ComputeStreamedSample.BATCH_SIZE, batchSize)
+                .set(ComputeStreamedSample.TIME_LIMIT, timeLimit == null ? 0L : Math.max(1L, timeLimit.toMillis()))
+                .set(ComputeStreamedSample.TARGET_COVERAGE, targetCoverage)
+                .set(
+                        ComputeStreamedSample.CANCELLATION,
+                        cancellation == null ? ComputeStreamedSample.NEVER_CANCELLED : cancellation)
+                .set(
+                        ComputeStreamedSample.LISTENER,
+                        samplingListener == null ? ComputeStreamedSample.NO_LISTENER : samplingListener)
+                .set(ComputeStreamedSample.MAX_MEMORY, maxMemory);
+        if (initialSample != null) {
+            streamedSample =
+                    streamedSample.set(ComputeStreamedSample.INITIAL_SAMPLE, prepareInitialSample(featureModel));
+        }
+        if (sink == null) {
+            // streamed configurations were already emitted and cannot be removed anymore
+            streamedSample = withMinimization(streamedSample, optimizer);
+        }
+        return postProcessing.apply(withReport(streamedSample, featureModel, optimizer));
+    }
+
+    /**
+     * Returns whether the sample is computed in rounds by {@link ComputeStreamedSample}, which is the case when
+     * streaming, sampling with a budget, publishing progress events, or when sampling can be cancelled. Otherwise,
+     * YASA computes the sample in one run, which usually leads to a different sample.
+     */
+    protected boolean isSampledInRounds() {
+        return sampleSink != null || hasBudget() || samplingListener != null || cancellation != null;
+    }
+
+    protected IComputation<BooleanAssignmentList> withMinimization(
+            IComputation<BooleanAssignmentList> sample, CombinationSpecificationOptimizer optimizer) {
+        if (!minimize) {
+            return sample;
+        }
+        return sample.map(c -> new ComputeMinimizedSample(c, optimizer))
+                .set(ComputeMinimizedSample.THREADS, threads)
+                .set(ComputeMinimizedSample.MAX_MEMORY, maxMemory);
+    }
+
+    protected IComputation<BooleanAssignmentList> withReport(
+            IComputation<BooleanAssignmentList> sample,
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer) {
+        if (reportPath == null) {
+            return sample;
+        }
+        Path path = reportPath;
+        return sample.map(c -> new ComputeCoverageReport(c, featureModel, optimizer, path));
+    }
+
+    /**
+     * Maps the initial sample onto the variables of the feature model by name and removes all configurations that
+     * violate a clause. Configurations that do not assign all variables, e.g., from a sample of a previous version
+     * without the new features, are completed without changing their literals if possible. If
+     * {@link #repairInitialSample} is set, the remaining configurations are repaired instead, so YASA only has to
+     * cover the interactions that the repaired sample misses, such as interactions of new features.
+     */
+    protected BooleanAssignmentList prepareInitialSample(BooleanAssignmentList featureModel) {
+        VariableMap variableMap = featureModel.getVariableMap();
+        Set<String> unknownNames = new LinkedHashSet<>();
+        BooleanAssignmentList adaptedSample = new VariableIndex(variableMap).resolve(initialSample, unknownNames);
+        VariableIndex.reportUnknownNames("initial sample", unknownNames);
+
+        ConfigurationRepair repair = new ConfigurationRepair(featureModel, randomSeed == null ? 0L : randomSeed);
+        Set<BooleanAssignment> validConfigurations = new LinkedHashSet<>();
+        int invalid = 0;
+        int completed = 0;
+        int repaired = 0;
+        long changes = 0;
+        for (BooleanAssignment configuration : adaptedSample.getAll()) {
+            if (isComplete(variableMap.size(), configuration) && isValid(featureModel, configuration)) {
+                validConfigurations.add(configuration);
+                continue;
+            }
+            Result<BooleanAssignment> completedConfiguration = repair.complete(configuration);
+            if (completedConfiguration.isPresent()) {
+                validConfigurations.add(completedConfiguration.get());
+                completed++;
+                continue;
+            }
+            Result<BooleanAssignment> repairedConfiguration =
+                    repairInitialSample ? repair.repair(configuration) : Result.empty();
+            if (repairedConfiguration.isPresent()) {
+                validConfigurations.add(repairedConfiguration.get());
+                repaired++;
+                changes += repair.countChanges(configuration, repairedConfiguration.get());
+            } else {
+                invalid++;
+            }
+        }
+        if (completed > 0) {
+            int completedCount = completed;
+            FeatJAR.log().info(() -> "Completed " + completedCount + " partial configurations of initial sample");
+        }
+        if (repaired > 0) {
+            int repairedCount = repaired;
+            long changeCount = changes;
+            FeatJAR.log()
+                    .info(() -> "Repaired " + repairedCount + " configurations of initial sample with " + changeCount
+                            + " changed literals");
+        }
+        if (invalid > 0) {
+            int invalidCount = invalid;
+            FeatJAR.log().warning(() -> "Ignoring " + invalidCount + " invalid configurations of initial sample");
+        }
+        return new BooleanAssignmentList(variableMap, validConfigurations.toArray(new BooleanAssignment[0]));
+    }
+
+    private static boolean isComplete(int variableCount, BooleanAssignment configuration) {
+        BitSet variables = new BitSet(variableCount + 1);
+        for (int literal : configuration.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount) {
+                variables.set(Math.abs(literal));
+            }
+        }
+        return variables.cardinality() == variableCount;
+    }
+
+    protected static boolean isValid(BooleanAssignmentList featureModel, BooleanAssignment configuration) {
+        int[] values = new int[featureModel.getVariableMap().size() + 1];
+        for (int literal : configuration.get()) {
+            if (literal != 0 && Math.abs(literal) < values.length) {
+                values[Math.abs(literal)] = literal;
+            }
+        }
+        clauses:
+        for (BooleanAssignment clause : featureModel.getAll()) {
+            for (int literal : clause.get()) {
+                if (values[Math.abs(literal)] == literal) {
+                    continue clauses;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates the YASA computation for the given feature model and combination specifications.
+     * If more than one thread is configured, independent runs are distributed over the threads with
+     * {@link ComputeParallelSample}.
+     */
+    protected IComputation<BooleanAssignmentList> computeYASA(
+            BooleanAssignmentList featureModel, CombinationSpecificationOptimizer optimizer, int iterations) {
+        if (threads > 1) {
+            IComputation<BooleanAssignmentList> parallel = Computations.of(featureModel)
+                    .map(c -> new ComputeParallelSample(c, optimizer))
+                    .set(ComputeParallelSample.ITERATIONS, iterations)
+                    .set(ComputeParallelSample.THREADS, threads)
+                    .set(ComputeParallelSample.RANDOM_SEED, randomSeed == null ? 0L : randomSeed)
+                    .set(ComputeParallelSample.UNION, minimize);
+            if (initialSample != null) {
+                parallel = parallel.set(ComputeParallelSample.INITIAL_SAMPLE, prepareInitialSample(featureModel));
+            }
+            return parallel;
+        }
+        IComputation<BooleanAssignmentList> yasa = Computations.of(featureModel)
+                .map(YASA::new)
+                .set(YASA.COMBINATION_SET, optimizer.getCombinationSpecification())
+                .set(YASA.ITERATIONS, iterations);
+        if (randomSeed != null) {
+            yasa = yasa.set(YASA.RANDOM_SEED, randomSeed);
+        }
+        if (initialSample != null) {
+            yasa = yasa.set(YASA.INITIAL_SAMPLE, prepareInitialSample(featureModel));
+        }
+        return yasa;
+    }
+
     protected static Result<BooleanAssignmentList> parseFeatureModel(OptionList optionParser) {
         Result<Path> featureModelPath = optionParser.getResult(FEATURE_MODEL);
-        return IO.load(featureModelPath.get(), new XMLFeatureModelFormulaFormat())
+        Result<Path> cacheDirectory = optionParser.getResult(CNF_CACHE_OPTION);
+        if (cacheDirectory.isPresent()) {
+            return new CNFCache(cacheDirectory.get())
+                    .get(featureModelPath.get(), () -> parseFeatureModel(featureModelPath.get()));
+        }
+        return parseFeatureModel(featureModelPath.get());
+    }
+
+    protected static Result<BooleanAssignmentList> parseFeatureModel(Path featureModelPath) {
+        return IO.load(featureModelPath, new XMLFeatureModelFormulaFormat())
                 .toComputation()
                 .map(ComputeNNFFormula::new)
                 .map(ComputeCNFFormula::new)
@@ -65,17 +776,66 @@ public abstract class ASamplingAdditionCommand extends AAnalysisCommand<BooleanA
         Result<Path> path = optionParser.getResult(pathOption);
         BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(new VariableMap());
         if (path.isPresent()) {
-            return IO.load(path.get(), new BooleanAssignmentValueMapFormat());
+            return loadBooleanAssignmentValueMap(path.get());
         }
         return Result.of(map);
     }
 
+    /**
+     * Loads a map directly onto the variables of the given index.
+     * Entries with names that are not part of the feature model are skipped and reported in one message.
+     */
+    protected static Result<BooleanAssignmentValueMap> loadBooleanAssignmentValueMap(
+            OptionList optionParser, Option<Path> pathOption, VariableIndex index) {
+        Result<Path> path = optionParser.getResult(pathOption);
+        if (path.isEmpty()) {
+            return Result.of(new BooleanAssignmentValueMap(index.getVariableMap()));
+        }
+        Set<String> unknownNames = new LinkedHashSet<>();
+        try {
+            BooleanAssignmentValueMap map = BooleanAssignmentValueMapReader.read(path.get(), index, unknownNames);
+            VariableIndex.reportUnknownNames(path.get().toString(), unknownNames);
+            return Result.of(map);
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    /**
+     * Loads a map either in the binary format of {@link BooleanAssignmentValueMapBinaryFormat} or in the text format
+     * of {@link BooleanAssignmentValueMapFormat}, depending on the header of the file.
+     */
+    public static Result<BooleanAssignmentValueMap> loadBooleanAssignmentValueMap(Path path) {
+        try {
+            if (BooleanAssignmentValueMapBinaryFormat.isBinary(path)) {
+                return Result.of(BooleanAssignmentValueMapBinaryFormat.read(path));
+            }
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        return IO.load(path, new BooleanAssignmentValueMapFormat());
+    }
+
     protected static void adaptFeatureModelToBooleanAssignmentValueMap(
             BooleanAssignmentList featureModel, BooleanAssignmentValueMap booleanAssignmentValueMap) {
-        if (!featureModel.getVariableMap().containsAllObjects(booleanAssignmentValueMap.getVariableMap())) {
+        VariableMap variableMap = featureModel.getVariableMap();
+        if (booleanAssignmentValueMap.getVariableMap() == variableMap) {
+            // already resolved against the feature model by a VariableIndex
+            return;
+        }
+        List<String> unknownNames = new ArrayList<>();
+        VariableMap mapVariables = booleanAssignmentValueMap.getVariableMap();
+        for (int i = 1; i <= mapVariables.size(); i++) {
+            Result<String> name = mapVariables.get(i);
+            if (name.isPresent() && variableMap.get(name.get()).isEmpty()) {
+                unknownNames.add(name.get());
+            }
+        }
+        if (!unknownNames.isEmpty()) {
             FeatJAR.log()
-                    .error(() -> "VariableMap of BooleanAssignmentValueMap is not subset of feature model VariableMap");
+                    .error(() -> "VariableMap of BooleanAssignmentValueMap is not subset of feature model VariableMap, "
+                            + unknownNames.size() + " unknown names: " + String.join(", ", unknownNames));
         }
-        booleanAssignmentValueMap.adapt(featureModel.getVariableMap());
+        booleanAssignmentValueMap.adapt(variableMap);
     }
 }
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapReader;
+import de.featjar.analysis.sat4j.io.CNFCache;
+import de.featjar.analysis.sat4j.io.ConfigurationListFormat;
+import de.featjar.analysis.sat4j.io.SampleCache;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ACommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Samples many feature models in one JVM.
+ * The input is either a directory or a manifest file. In a directory, the maps of a model {@code name.xml} are the
+ * files {@code name.priority-map}, {@code name.cardinality-map}, {@code name.cluster-interaction-map}, and
+ * {@code name.weight-map}, each with an optional further extension, and every other {@code .xml} file is a feature
+ * model.
+ * A manifest has one job per line: the path of a feature model followed by {@code key=value} pairs for the maps,
+ * {@code t}, and an optional {@code name}. Relative paths are resolved against the directory of the manifest, and
+ * lines starting with {@code #} are ignored.
+ * <p>
+ * The jobs run concurrently in a work-stealing pool, largest input first, so that long jobs do not start last. Each
+ * sample is written to {@code <name>.csv} in {@link ConfigurationListFormat}, and {@code summary.csv} lists the size
+ * and runtime of every job. A failing job is listed with its error and does not stop the other jobs.
+ */
+public class BatchSamplingCommand extends ACommand {
+
+    public static final Option<Path> INPUT_OPTION = Option.newOption("input", Option.PathParser)
+            .setDescription("Directory of feature models or manifest file with one job per line.")
+            .setDefaultValue(null);
+
+    public static final Option<Path> OUTPUT_OPTION = Option.newOption("output", Option.PathParser)
+            .setDescription("Directory for the samples and the summary.")
+            .setDefaultValue(null);
+
+    public static final Option<Integer> WORKERS_OPTION = Option.newOption("workers", Option.IntegerParser)
+            .setDescription("Number of jobs sampled concurrently.")
+            .setDefaultValue(Runtime.getRuntime().availableProcessors());
+
+    public static final Option<Integer> T_OPTION = Option.newOption("t", Option.IntegerParser)
+            .setDescription("Value of t for jobs that do not specify t.")
+            .setDefaultValue(2);
+
+    public static final Option<Integer> ITERATIONS_OPTION = Option.newOption("i", Option.IntegerParser)
+            .setDescription("Number of iterations.")
+            .setDefaultValue(1);
+
+    public static final Option<Long> SEED_OPTION = Option.newOption("seed", Option.LongParser)
+            .setDescription("Random seed of every job.")
+            .setDefaultValue(null);
+
+    public static final Option<Path> CNF_CACHE_OPTION = Option.newOption("cnf-cache", Option.PathParser)
+            .setDescription("Directory for caching the clause lists of the feature models.")
+            .setDefaultValue(null);
+
+    public static final Option<Path> SAMPLE_CACHE_OPTION = Option.newOption("sample-cache", Option.PathParser)
+            .setDescription("Directory for caching finished samples across runs with the same inputs.")
+            .setDefaultValue(null);
+
+    private static final List<String> MAP_NAMES =
+            List.of("cluster-interaction-map", "priority-map", "weight-map", "cardinality-map");
+
+    static final class Job {
+        final String name;
+        final Path featureModel;
+        final Map<String, Path> maps;
+        final int t;
+        final long size;
+
+        private Job(String name, Path featureModel, Map<String, Path> maps, int t) throws IOException {
+            this.name = name;
+            this.featureModel = featureModel;
+            this.maps = maps;
+            this.t = t;
+            long size = Files.size(featureModel);
+            for (Path map : maps.values()) {
+                size += Files.size(map);
+            }
+            this.size = size;
+        }
+    }
+
+    private static final class JobResult {
+        private final Job job;
+        private final int configurations;
+        private final long nanos;
+        private final String status;
+
+        private JobResult(Job job, int configurations, long nanos, String status) {
+            this.job = job;
+            this.configurations = configurations;
+            this.nanos = nanos;
+            this.status = status;
+        }
+    }
+
+    private Path outputDirectory;
+    private int iterations;
+    private Long randomSeed;
+    private CNFCache cnfCache;
+    private SampleCache sampleCache;
+
+    @Override
+    public int run(OptionList optionParser) {
+        Result<Path> input = optionParser.getResult(INPUT_OPTION);
+        Result<Path> output = optionParser.getResult(OUTPUT_OPTION);
+        if (input.isEmpty() || output.isEmpty()) {
+            FeatJAR.log().error(() -> "Options --input and --output are required");
+            return 1;
+        }
+        outputDirectory = output.get();
+        iterations = optionParser.get(ITERATIONS_OPTION);
+        randomSeed = optionParser.getResult(SEED_OPTION).orElse(null);
+        cnfCache = optionParser.getResult(CNF_CACHE_OPTION).map(CNFCache::new).orElse(null);
+        sampleCache = optionParser.getResult(SAMPLE_CACHE_OPTION).map(SampleCache::new).orElse(null);
+        int t = optionParser.get(T_OPTION);
+
+        List<Job> jobs;
+        try {
+            jobs = Files.isDirectory(input.get()) ? listJobs(input.get(), t) : readManifest(input.get(), t);
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            FeatJAR.log().error(() -> "Could not read jobs from " + input.get() + ": " + e.getMessage());
+            return 1;
+        }
+        // largest first, so that the longest jobs do not delay the end of the batch
+        jobs.sort(Comparator.comparingLong((Job job) -> job.size).reversed());
+        int workers = Math.max(1, optionParser.get(WORKERS_OPTION));
+        FeatJAR.log().info(() -> "Sampling " + jobs.size() + " jobs with " + workers + " workers");
+
+        List<JobResult> results = new ArrayList<>(jobs.size());
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<ForkJoinTask<JobResult>> tasks = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                tasks.add(pool.submit(() -> sample(job)));
+            }
+            for (ForkJoinTask<JobResult> task : tasks) {
+                results.add(task.join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        try {
+            writeSummary(results, outputDirectory.resolve("summary.csv"));
+        } catch (IOException e) {
+            FeatJAR.log().error(() -> "Could not write summary: " + e.getMessage());
+            return 1;
+        }
+        long failed = results.stream().filter(result -> result.status != null).count();
+        if (failed > 0) {
+            FeatJAR.log().error(() -> failed + " of " + results.size() + " jobs failed");
+            return 1;
+        }
+        return 0;
+    }
+
+    private JobResult sample(Job job) {
+        long start = System.nanoTime();
+        try {
+            Result<BooleanAssignmentList> featureModel = parseFeatureModel(job.featureModel);
+            if (featureModel.isEmpty()) {
+                return failed(job, start, featureModel.getProblems().toString());
+            }
+            VariableIndex variableIndex = new VariableIndex(featureModel.get().getVariableMap());
+            Map<String, BooleanAssignmentValueMap> maps = new LinkedHashMap<>();
+            for (String mapName : MAP_NAMES) {
+                maps.put(mapName, readMap(job, mapName, variableIndex));
+            }
+
+            CombinedSamplingCommand command = new CombinedSamplingCommand();
+            command.setRandomSeed(randomSeed);
+            command.setSampleCache(sampleCache);
+            Result<BooleanAssignmentList> sample = command.computeSample(
+                    featureModel.get(),
+                    maps.get("cluster-interaction-map"),
+                    maps.get("priority-map"),
+                    maps.get("weight-map"),
+                    maps.get("cardinality-map"),
+                    job.t,
+                    iterations);
+            if (sample.isEmpty()) {
+                return failed(job, start, sample.getProblems().toString());
+            }
+            ConfigurationListFormat.write(sample.get(), outputDirectory.resolve(job.name + ".csv"));
+            long nanos = System.nanoTime() - start;
+            FeatJAR.log()
+                    .info(() -> "Sampled " + job.name + " with " + sample.get().size() + " configurations in "
+                            + nanos / 1_000_000 + " ms");
+            return new JobResult(job, sample.get().size(), nanos, null);
+        } catch (Throwable e) {
+            // any failure, including errors such as a StackOverflowError, only fails this job
+            return failed(job, start, e.toString());
+        }
+    }
+
+    private Result<BooleanAssignmentList> parseFeatureModel(Path path) {
+        if (cnfCache == null) {
+            return ASamplingAdditionCommand.parseFeatureModel(path);
+        }
+        return cnfCache.get(path, () -> ASamplingAdditionCommand.parseFeatureModel(path));
+    }
+
+    private static JobResult failed(Job job, long start, String problem) {
+        FeatJAR.log().error(() -> "Could not sample " + job.name + ": " + problem);
+        return new JobResult(job, 0, System.nanoTime() - start, problem);
+    }
+
+    private static BooleanAssignmentValueMap readMap(Job job, String mapName, VariableIndex variableIndex)
+            throws IOException {
+        Path path = job.maps.get(mapName);
+        if (path == null) {
+            return new BooleanAssignmentValueMap(variableIndex.getVariableMap());
+        }
+        Set<String> unknownNames = new LinkedHashSet<>();
+        BooleanAssignmentValueMap map = BooleanAssignmentValueMapReader.read(path, variableIndex, unknownNames);
+        VariableIndex.reportUnknownNames(path.toString(), unknownNames);
+        return map;
+    }
+
+    static List<Job> listJobs(Path directory, int t) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        List<Job> jobs = new ArrayList<>();
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            if (!fileName.endsWith(".xml") || isMapFile(fileName)) {
+                continue;
+            }
+            String name = fileName.substring(0, fileName.length() - ".xml".length());
+            Map<String, Path> maps = new LinkedHashMap<>();
+            for (Path mapFile : files) {
+                String mapFileName = mapFile.getFileName().toString();
+                for (String mapName : MAP_NAMES) {
+                    String prefix = name + "." + mapName;
+                    if (mapFileName.equals(prefix) || mapFileName.startsWith(prefix + ".")) {
+                        maps.put(mapName, mapFile);
+                    }
+                }
+            }
+            jobs.add(new Job(name, file, maps, t));
+        }
+        return jobs;
+    }
+
+    /**
+     * Returns whether the file name has the form {@code <name>.<map name>[.<extension>]}, e.g.,
+     * {@code model.priority-map.xml}.
+     */
+    private static boolean isMapFile(String fileName) {
+        for (String mapName : MAP_NAMES) {
+            String infix = "." + mapName;
+            int index = fileName.indexOf(infix);
+            while (index > 0) {
+                int end = index + infix.length();
+                if (end == fileName.length() || fileName.charAt(end) == '.') {
+                    return true;
+                }
+                index = fileName.indexOf(infix, index + 1);
+            }
+        }
+        return false;
+    }
+
+    static List<Job> readManifest(Path manifest, int defaultT) throws IOException {
+        Path directory = manifest.toAbsolutePath().getParent();
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        List<Job> jobs = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            Path featureModel = directory.resolve(tokens[0]);
+            String fileName = featureModel.getFileName().toString();
+            int extension = fileName.lastIndexOf('.');
+            String name = extension > 0 ? fileName.substring(0, extension) : fileName;
+            int t = defaultT;
+            Map<String, Path> maps = new LinkedHashMap<>();
+            for (int j = 1; j < tokens.length; j++) {
+                int separator = tokens[j].indexOf('=');
+                String key = separator < 0 ? tokens[j] : tokens[j].substring(0, separator);
+                String value = separator < 0 ? "" : tokens[j].substring(separator + 1);
+                if (key.equals("t")) {
+                    try {
+                        t = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid t " + value + " in line " + (i + 1));
+                    }
+                } else if (key.equals("name")) {
+                    name = value;
+                } else if (MAP_NAMES.contains(key)) {
+                    maps.put(key, directory.resolve(value));
+                } else {
+                    throw new IOException("Unknown key " + key + " in line " + (i + 1));
+                }
+            }
+            if (!names.add(name)) {
+                throw new IOException("Duplicate job name " + name + " in line " + (i + 1));
+            }
+            jobs.add(new Job(name, featureModel, maps, t));
+        }
+        return jobs;
+    }
+
+    private static void writeSummary(List<JobResult> results, Path path) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("job;feature_model;t;configurations;time_ms;status\n");
+        for (JobResult result : results) {
+            sb.append('"').append(result.job.name.replace("\"", "\"\"")).append('"');
+            sb.append(';').append('"').append(result.job.featureModel.toString().replace("\"", "\"\"")).append('"');
+            sb.append(';').append(result.job.t);
+            sb.append(';').append(result.configurations);
+            sb.append(';').append(result.nanos / 1_000_000.0);
+            sb.append(';').append('"');
+            sb.append(result.status == null ? "ok" : result.status.replace("\"", "\"\""));
+            sb.append('"');
+            sb.append('\n');
+        }
+        Files.writeString(path, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Samples all feature models of a directory or manifest concurrently.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("batch-sampling");
+    }
+}
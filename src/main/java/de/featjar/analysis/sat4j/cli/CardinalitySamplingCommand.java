@@ -20,55 +20,22 @@
  */
 package de.featjar.analysis.sat4j.cli;
 
-import de.featjar.analysis.sat4j.computation.*;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
-import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.log.Log;
-import de.featjar.formula.VariableMap;
 import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
-import de.featjar.formula.combination.ICombinationSpecification;
-import de.featjar.formula.combination.LiteralSetsCombinationSpecification;
-import de.featjar.formula.combination.MultiCombinationSpecification;
-import de.featjar.formula.combination.VariableCombinationSpecification;
-import de.featjar.formula.computation.ComputeProjectedSample;
 import java.nio.file.Path;
-import java.util.*;
-import java.util.stream.StreamSupport;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public class CardinalitySamplingCommand extends ASamplingAdditionCommand {
 
-    public static class CardinalityCombinationSpecificationsWrapper {
-        private final List<ICombinationSpecification> combinationsList;
-        private final VariableMap newVariableMap;
-        private final int[] artificialVariables;
-
-        public CardinalityCombinationSpecificationsWrapper(
-                List<ICombinationSpecification> combinationsList,
-                VariableMap newVariableMap,
-                int[] artificialVariables) {
-            this.combinationsList = combinationsList;
-            this.newVariableMap = newVariableMap;
-            this.artificialVariables = artificialVariables;
-        }
-
-        public List<ICombinationSpecification> getCombinationsList() {
-            return combinationsList;
-        }
-
-        public VariableMap getNewVariableMap() {
-            return newVariableMap;
-        }
-
-        public int[] getArtificialVariables() {
-            return artificialVariables;
-        }
-    }
-
     public static final Option<Path> CARDINALITY_MAP = Option.newOption("cardinality-map", Option.PathParser)
             .setDescription("How often a cluster must at least appear in the sample.")
             .setDefaultValue(null);
@@ -87,73 +54,39 @@ public class CardinalitySamplingCommand extends ASamplingAdditionCommand {
      */
     @Override
     protected IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
-        BooleanAssignmentValueMap cardinalityMap =
-                loadBooleanAssignmentValueMap(optionParser, CARDINALITY_MAP).orElseLog(Log.Verbosity.WARNING);
-
+        parseSamplingOptions(optionParser);
         BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
+        BooleanAssignmentValueMap cardinalityMap = loadBooleanAssignmentValueMap(
+                        optionParser, CARDINALITY_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
         return createCardinalitySamplingComputation(
                 featureModel, cardinalityMap, optionParser.get(T_OPTION), optionParser.get(ITERATIONS_OPTION));
     }
 
-    public static CardinalityCombinationSpecificationsWrapper createCardinalityCombinationSpecifications(
-            BooleanAssignmentList featureModel, BooleanAssignmentValueMap cardinalityMap) {
-        List<ICombinationSpecification> combinationsList = new ArrayList<>();
-
-        // calculate the maximum cardinality to know how many artificial variables are necessary
-        int maxCardinality = StreamSupport.stream(cardinalityMap.spliterator(), false)
-                .map(Map.Entry::getValue)
-                .max(Integer::compareTo)
-                .orElse(0);
-
-        VariableMap oldVariableMap = featureModel.getVariableMap();
-        VariableMap newVariableMap = oldVariableMap.clone();
-
-        int[] artificialVariables = new int[maxCardinality];
-        for (int i = 0; i < maxCardinality; i++) {
-            artificialVariables[i] = newVariableMap.add(UUID.randomUUID().toString());
-        }
-
-        // for each cluster add a LiteralSetsCombinationSpecification that covers the combination of two sets of
-        // literals:
-        // 1. |Cluster| literals of Cluster (all literals)
-        // 2. 1 literal of the first c artificial variables where c is the cardinality of the cluster
+    public static void addCardinalityCombinationSpecifications(
+            CombinationSpecificationOptimizer optimizer, BooleanAssignmentValueMap cardinalityMap) {
+        // each cluster is covered once during sampling, further occurrences are completed afterwards
         for (BooleanAssignment cluster : cardinalityMap.getAssignments()) {
-            int cardinality = cardinalityMap.getValue(cluster);
-            if (cardinality <= 0) {
-                continue;
-            }
-
-            BooleanAssignment artificials =
-                    new BooleanAssignment(Arrays.copyOfRange(artificialVariables, 0, cardinality));
-            int[] tValues = new int[] {cluster.size(), 1};
-            combinationsList.add(new LiteralSetsCombinationSpecification(
-                    tValues, new BooleanAssignmentList(oldVariableMap, cluster, artificials)));
+            optimizer.addCardinality(cluster, cardinalityMap.getValue(cluster));
         }
-        return new CardinalityCombinationSpecificationsWrapper(combinationsList, newVariableMap, artificialVariables);
     }
 
     public IComputation<BooleanAssignmentList> createCardinalitySamplingComputation(
             BooleanAssignmentList featureModel, BooleanAssignmentValueMap cardinalityMap, int t, int iterations) {
         adaptFeatureModelToBooleanAssignmentValueMap(featureModel, cardinalityMap);
-        VariableMap oldVariableMap = featureModel.getVariableMap();
-        CardinalityCombinationSpecificationsWrapper combinationsWrapper =
-                createCardinalityCombinationSpecifications(featureModel, cardinalityMap);
-        List<ICombinationSpecification> combinationsList = combinationsWrapper.getCombinationsList();
-        VariableMap newVariableMap = combinationsWrapper.getNewVariableMap();
-        int[] artificialVariables = combinationsWrapper.getArtificialVariables();
-        // add the regular t-wise sampling on top
-        // Todo: optimization possible by removing single feature entries of cardinality map
-        combinationsList.add(new VariableCombinationSpecification(t, oldVariableMap));
-
-        featureModel.adapt(newVariableMap);
-
-        return Computations.of(featureModel)
-                .map(YASA::new)
-                .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(combinationsList))
-                .set(YASA.ITERATIONS, iterations)
-                .map(ComputeProjectedSample::new)
-                .set(ComputeProjectedSample.ADAPT_VARIABLE_MAP, Boolean.TRUE)
-                .set(ComputeProjectedSample.EXCLUDE_VARIABLES, new BooleanAssignment(artificialVariables));
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        addCardinalityCombinationSpecifications(optimizer, cardinalityMap);
+        // add the regular t-wise sampling on top, the optimizer drops cardinality entries it already covers
+        optimizer.setGlobalT(t);
+
+        return createSampleComputation(
+                featureModel,
+                optimizer,
+                iterations,
+                UnaryOperator.identity(),
+                key -> key.add("cardinality-map", cardinalityMap).add("t", t));
     }
 
     public Result<BooleanAssignmentList> computeSample(
@@ -20,24 +20,19 @@
  */
 package de.featjar.analysis.sat4j.cli;
 
-import de.featjar.analysis.sat4j.computation.*;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
-import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.log.Log;
 import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
-import de.featjar.formula.combination.ICombinationSpecification;
-import de.featjar.formula.combination.LiteralSetsCombinationSpecification;
-import de.featjar.formula.combination.MultiCombinationSpecification;
-import de.featjar.formula.combination.VariableCombinationSpecification;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public class ClusterInteractionSamplingCommand extends ASamplingAdditionCommand {
 
@@ -55,32 +50,25 @@ public class ClusterInteractionSamplingCommand extends ASamplingAdditionCommand
 
     @Override
     protected IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
+        parseSamplingOptions(optionParser);
+        BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
         BooleanAssignmentValueMap clusterInteractionMap = loadBooleanAssignmentValueMap(
-                        optionParser, CLUSTER_INTERACTION_MAP)
+                        optionParser, CLUSTER_INTERACTION_MAP, variableIndex)
                 .orElseLog(Log.Verbosity.WARNING);
-
-        BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
         return createClusterInteractionSamplingComputation(
                 featureModel, clusterInteractionMap, optionParser.get(T_OPTION), optionParser.get(ITERATIONS_OPTION));
     }
 
-    public static List<ICombinationSpecification> createClusterInteractionCombinationSpecifications(
-            BooleanAssignmentList featureModel, BooleanAssignmentValueMap clusterInteractionMap) {
-        // gather all possible literals in the model
-        BooleanAssignment featureModelVariables = featureModel.getVariableMap().getVariables();
-        BooleanAssignment featureModelLiterals = featureModelVariables.addAll(featureModelVariables.inverse());
-
-        List<ICombinationSpecification> combinationsList = new ArrayList<>();
-
+    /**
+     * Adds one specification per cluster that covers the combination of all cluster literals with (weight - 1)
+     * literals of the remaining variables.
+     */
+    public static void addClusterInteractionCombinationSpecifications(
+            CombinationSpecificationOptimizer optimizer, BooleanAssignmentValueMap clusterInteractionMap) {
         for (BooleanAssignment cluster : clusterInteractionMap.getAssignments()) {
-            int weight = clusterInteractionMap.getValue(cluster);
-            int[] tValues = new int[] {weight - 1, cluster.size()};
-            BooleanAssignment allWithoutCluster = featureModelLiterals.removeAllVariables(cluster);
-            combinationsList.add(new LiteralSetsCombinationSpecification(
-                    tValues, new BooleanAssignmentList(featureModel.getVariableMap(), allWithoutCluster, cluster)));
+            optimizer.addClusterInteraction(cluster, clusterInteractionMap.getValue(cluster));
         }
-
-        return combinationsList;
     }
 
     public IComputation<BooleanAssignmentList> createClusterInteractionSamplingComputation(
@@ -90,16 +78,18 @@ public class ClusterInteractionSamplingCommand extends ASamplingAdditionCommand
             int iterations) {
         adaptFeatureModelToBooleanAssignmentValueMap(featureModel, clusterInteractionMap);
 
-        List<ICombinationSpecification> combinationsList =
-                createClusterInteractionCombinationSpecifications(featureModel, clusterInteractionMap);
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        addClusterInteractionCombinationSpecifications(optimizer, clusterInteractionMap);
         // add the regular t-wise sampling on top
-        // Todo: optimization possible ?
-        combinationsList.add(new VariableCombinationSpecification(t, featureModel.getVariableMap()));
-
-        return Computations.of(featureModel)
-                .map(YASA::new)
-                .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(combinationsList))
-                .set(YASA.ITERATIONS, iterations);
+        optimizer.setGlobalT(t);
+
+        return createSampleComputation(
+                featureModel,
+                optimizer,
+                iterations,
+                UnaryOperator.identity(),
+                key -> key.add("cluster-interaction-map", clusterInteractionMap).add("t", t));
     }
 
     public Result<BooleanAssignmentList> computeSample(
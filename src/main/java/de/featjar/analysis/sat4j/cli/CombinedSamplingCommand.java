@@ -20,25 +20,19 @@
  */
 package de.featjar.analysis.sat4j.cli;
 
-import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.analysis.sat4j.io.SampleCache;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.ComputeIndexedRankedSample;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
-import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.log.Log;
 import de.featjar.formula.VariableMap;
-import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
-import de.featjar.formula.combination.ICombinationSpecification;
-import de.featjar.formula.combination.MultiCombinationSpecification;
-import de.featjar.formula.combination.VariableCombinationSpecification;
-import de.featjar.formula.computation.ComputeProjectedSample;
-import de.featjar.formula.computation.ComputeRankedSample;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 
 public class CombinedSamplingCommand extends ASamplingAdditionCommand {
 
@@ -69,17 +63,23 @@ public class CombinedSamplingCommand extends ASamplingAdditionCommand {
 
     @Override
     protected IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
-        BooleanAssignmentValueMap cardinalityMap = loadBooleanAssignmentValueMap(optionParser, CLUSTER_INTERACTION_MAP)
-                .orElseLog(Log.Verbosity.WARNING);
-        BooleanAssignmentValueMap clusterInteractionMap =
-                loadBooleanAssignmentValueMap(optionParser, CARDINALITY_MAP).orElseLog(Log.Verbosity.WARNING);
-        BooleanAssignmentValueMap priorityMap =
-                loadBooleanAssignmentValueMap(optionParser, PRIORITY_MAP).orElseLog(Log.Verbosity.WARNING);
-        BooleanAssignmentValueMap weightMap =
-                loadBooleanAssignmentValueMap(optionParser, WEIGHT_MAP).orElseLog(Log.Verbosity.WARNING);
-
+        parseSamplingOptions(optionParser);
         BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
 
+        // all maps are resolved against the same index of the feature model, so none of them needs to be adapted
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
+        BooleanAssignmentValueMap cardinalityMap = loadBooleanAssignmentValueMap(
+                        optionParser, CARDINALITY_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
+        BooleanAssignmentValueMap clusterInteractionMap = loadBooleanAssignmentValueMap(
+                        optionParser, CLUSTER_INTERACTION_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
+        BooleanAssignmentValueMap priorityMap = loadBooleanAssignmentValueMap(
+                        optionParser, PRIORITY_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
+        BooleanAssignmentValueMap weightMap = loadBooleanAssignmentValueMap(optionParser, WEIGHT_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
+
         return createCombinedSamplingComputation(
                 featureModel,
                 clusterInteractionMap,
@@ -98,36 +98,68 @@ public class CombinedSamplingCommand extends ASamplingAdditionCommand {
             BooleanAssignmentValueMap cardinalityMap,
             int t,
             int iterations) {
-        List<ICombinationSpecification> combinationsList = new ArrayList<>();
-        combinationsList.add(new VariableCombinationSpecification(t, featureModel.getVariableMap()));
-
-        clusterInteractionMap.adapt(featureModel.getVariableMap(), true);
-        combinationsList.addAll(ClusterInteractionSamplingCommand.createClusterInteractionCombinationSpecifications(
-                featureModel, clusterInteractionMap));
-
-        priorityMap.adapt(featureModel.getVariableMap(), true);
-        combinationsList.add(PrioritizedSamplingCommand.createPriorityCombinationSpecification(priorityMap));
-
-        weightMap.adapt(featureModel.getVariableMap(), true);
-        combinationsList.addAll(
-                WeightedSamplingCommand.createPriorityCombinationSpecifications(featureModel, weightMap));
-
-        cardinalityMap.adapt(featureModel.getVariableMap(), true);
-        CardinalitySamplingCommand.CardinalityCombinationSpecificationsWrapper cardinalityWrapper =
-                CardinalitySamplingCommand.createCardinalityCombinationSpecifications(featureModel, cardinalityMap);
-        List<ICombinationSpecification> cardinalityCombinations = cardinalityWrapper.getCombinationsList();
-        VariableMap newVariableMap = cardinalityWrapper.getNewVariableMap();
-        int[] artificialVariables = cardinalityWrapper.getArtificialVariables();
-        featureModel.adapt(newVariableMap);
-        return Computations.of(featureModel)
-                .map(YASA::new)
-                .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(combinationsList))
-                .set(YASA.ITERATIONS, iterations)
-                .map(ComputeProjectedSample::new)
-                .set(ComputeProjectedSample.ADAPT_VARIABLE_MAP, Boolean.TRUE)
-                .set(ComputeProjectedSample.EXCLUDE_VARIABLES, new BooleanAssignment(artificialVariables))
-                .map(ComputeRankedSample::new)
-                .set(ComputeRankedSample.RANK_VALUES, priorityMap.toValuedBooleanAssignmentList());
+        CombinationSpecificationOptimizer optimizer = createCombinationSpecificationOptimizer(
+                featureModel, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t);
+        return createSampleComputation(
+                featureModel,
+                optimizer,
+                iterations,
+                sample -> sample.map(c -> new ComputeIndexedRankedSample(c, priorityMap)),
+                key -> addCacheKey(key, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t));
+    }
+
+    /**
+     * Adds the maps and t of a combined sampling to a sample cache key.
+     */
+    protected static void addCacheKey(
+            SampleCache.Key key,
+            BooleanAssignmentValueMap clusterInteractionMap,
+            BooleanAssignmentValueMap priorityMap,
+            BooleanAssignmentValueMap weightMap,
+            BooleanAssignmentValueMap cardinalityMap,
+            int t) {
+        key.add("cluster-interaction-map", clusterInteractionMap)
+                .add("priority-map", priorityMap)
+                .add("weight-map", weightMap)
+                .add("cardinality-map", cardinalityMap)
+                .add("t", t);
+    }
+
+    /**
+     * Registers the specifications of all maps and the global t-wise specification in a new optimizer.
+     * Maps that do not use the variable map of the feature model are adapted to it.
+     */
+    public static CombinationSpecificationOptimizer createCombinationSpecificationOptimizer(
+            BooleanAssignmentList featureModel,
+            BooleanAssignmentValueMap clusterInteractionMap,
+            BooleanAssignmentValueMap priorityMap,
+            BooleanAssignmentValueMap weightMap,
+            BooleanAssignmentValueMap cardinalityMap,
+            int t) {
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.setGlobalT(t);
+
+        adapt(clusterInteractionMap, featureModel.getVariableMap());
+        ClusterInteractionSamplingCommand.addClusterInteractionCombinationSpecifications(
+                optimizer, clusterInteractionMap);
+
+        adapt(priorityMap, featureModel.getVariableMap());
+        PrioritizedSamplingCommand.addPriorityCombinationSpecification(optimizer, priorityMap);
+
+        adapt(weightMap, featureModel.getVariableMap());
+        WeightedSamplingCommand.addWeightCombinationSpecifications(optimizer, weightMap);
+
+        adapt(cardinalityMap, featureModel.getVariableMap());
+        CardinalitySamplingCommand.addCardinalityCombinationSpecifications(optimizer, cardinalityMap);
+        return optimizer;
+    }
+
+    private static void adapt(BooleanAssignmentValueMap map, VariableMap variableMap) {
+        // maps loaded with a VariableIndex of the feature model already use its variable map
+        if (map.getVariableMap() != variableMap) {
+            map.adapt(variableMap, true);
+        }
     }
 
     public Result<BooleanAssignmentList> computeSample(
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapBinaryFormat;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ACommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Converts a map from the text format of {@link BooleanAssignmentValueMapFormat} into the binary format of
+ * {@link BooleanAssignmentValueMapBinaryFormat}, or back to text if the input is already binary.
+ */
+public class ConvertValueMapCommand extends ACommand {
+
+    public static final Option<Path> INPUT_OPTION = Option.newOption("input", Option.PathParser)
+            .setDescription("Path to the map to convert.")
+            .setDefaultValue(null);
+
+    public static final Option<Path> OUTPUT_OPTION = Option.newOption("output", Option.PathParser)
+            .setDescription("Path to the converted map.")
+            .setDefaultValue(null);
+
+    @Override
+    public int run(OptionList optionParser) {
+        Result<Path> input = optionParser.getResult(INPUT_OPTION);
+        Result<Path> output = optionParser.getResult(OUTPUT_OPTION);
+        if (input.isEmpty() || output.isEmpty()) {
+            FeatJAR.log().error(() -> "Options --input and --output are required");
+            return 1;
+        }
+        try {
+            boolean toText = BooleanAssignmentValueMapBinaryFormat.isBinary(input.get());
+            Result<BooleanAssignmentValueMap> map =
+                    ASamplingAdditionCommand.loadBooleanAssignmentValueMap(input.get());
+            if (map.isEmpty()) {
+                FeatJAR.log().error(() -> "Could not load " + input.get() + ": " + map.getProblems());
+                return 1;
+            }
+            if (toText) {
+                Files.write(
+                        output.get(),
+                        new BooleanAssignmentValueMapFormat()
+                                .serialize(map.get())
+                                .orElseThrow()
+                                .getBytes(StandardCharsets.UTF_8));
+            } else {
+                BooleanAssignmentValueMapBinaryFormat.write(map.get(), output.get());
+            }
+            FeatJAR.log()
+                    .info(() -> "Converted " + map.get().size() + " entries to " + (toText ? "text" : "binary")
+                            + " format");
+            return 0;
+        } catch (IOException e) {
+            FeatJAR.log().error(() -> "Could not convert " + input.get() + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Converts priority, cardinality, cluster interaction, and weight maps between the text "
+                + "and binary format.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("convert-value-map");
+    }
+}
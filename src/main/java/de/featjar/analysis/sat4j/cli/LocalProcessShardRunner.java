@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.sampling.IShardRunner;
+import de.featjar.analysis.sat4j.sampling.ShardDirectory;
+import de.featjar.base.FeatJAR;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples each shard in a new JVM on the local machine, which runs {@link ShardWorkerCommand} with the class path
+ * of the current JVM. The output of each worker is written to {@link ShardDirectory#getLogPath(int)}.
+ */
+public class LocalProcessShardRunner implements IShardRunner {
+
+    private final List<String> jvmOptions;
+
+    /**
+     * @param jvmOptions additional options of the worker JVMs, e.g., {@code -Xmx8g}
+     */
+    public LocalProcessShardRunner(List<String> jvmOptions) {
+        this.jvmOptions = List.copyOf(jvmOptions);
+    }
+
+    @Override
+    public void run(ShardDirectory directory, int shard) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FeatJAR.class.getName());
+        command.add(new ShardWorkerCommand().getShortName().get());
+        command.add("--directory");
+        command.add(directory.getPath().toAbsolutePath().toString());
+        command.add("--shard");
+        command.add(Integer.toString(shard));
+
+        Path logPath = directory.getLogPath(shard);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logPath.toFile())
+                .start();
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("Worker of shard " + shard + " exited with " + exitCode + ", see " + logPath);
+            }
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+}
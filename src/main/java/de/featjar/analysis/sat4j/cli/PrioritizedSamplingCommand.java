@@ -20,22 +20,18 @@
  */
 package de.featjar.analysis.sat4j.cli;
 
-import de.featjar.analysis.sat4j.computation.*;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.ComputeIndexedRankedSample;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
-import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.log.Log;
+import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
-import de.featjar.formula.combination.BooleanAssignmentListCombinationSpecification;
-import de.featjar.formula.combination.ICombinationSpecification;
-import de.featjar.formula.combination.MultiCombinationSpecification;
-import de.featjar.formula.combination.VariableCombinationSpecification;
-import de.featjar.formula.computation.ComputeRankedSample;
 import java.nio.file.Path;
-import java.util.List;
 import java.util.Optional;
 
 public class PrioritizedSamplingCommand extends ASamplingAdditionCommand {
@@ -53,33 +49,38 @@ public class PrioritizedSamplingCommand extends ASamplingAdditionCommand {
 
     @Override
     public IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
-        BooleanAssignmentValueMap priorityMap =
-                loadBooleanAssignmentValueMap(optionParser, PRIORITY_MAP).orElseLog(Log.Verbosity.WARNING);
-
+        parseSamplingOptions(optionParser);
         BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
+        BooleanAssignmentValueMap priorityMap = loadBooleanAssignmentValueMap(
+                        optionParser, PRIORITY_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
 
         return createPrioritizedSamplingComputation(
                 featureModel, priorityMap, optionParser.get(T_OPTION), optionParser.get(ITERATIONS_OPTION));
     }
 
-    public static BooleanAssignmentListCombinationSpecification createPriorityCombinationSpecification(
-            BooleanAssignmentValueMap priorityMap) {
-        return new BooleanAssignmentListCombinationSpecification(priorityMap.getBooleanAssignmentList());
+    public static void addPriorityCombinationSpecification(
+            CombinationSpecificationOptimizer optimizer, BooleanAssignmentValueMap priorityMap) {
+        for (BooleanAssignment cluster : priorityMap.getAssignments()) {
+            optimizer.addPriorityCluster(cluster);
+        }
     }
 
     public IComputation<BooleanAssignmentList> createPrioritizedSamplingComputation(
             BooleanAssignmentList featureModel, BooleanAssignmentValueMap priorityMap, int t, int iterations) {
         adaptFeatureModelToBooleanAssignmentValueMap(featureModel, priorityMap);
-        ICombinationSpecification combinationSpecification = new MultiCombinationSpecification(List.of(
-                createPriorityCombinationSpecification(priorityMap),
-                new VariableCombinationSpecification(t, featureModel.getVariableMap())));
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.setGlobalT(t);
+        addPriorityCombinationSpecification(optimizer, priorityMap);
 
-        return Computations.of(featureModel)
-                .map(YASA::new)
-                .set(YASA.COMBINATION_SET, combinationSpecification)
-                .set(YASA.ITERATIONS, iterations)
-                .map(ComputeRankedSample::new)
-                .set(ComputeRankedSample.RANK_VALUES, priorityMap.toValuedBooleanAssignmentList());
+        return createSampleComputation(
+                featureModel,
+                optimizer,
+                iterations,
+                sample -> sample.map(c -> new ComputeIndexedRankedSample(c, priorityMap)),
+                key -> key.add("priority-map", priorityMap).add("t", t));
     }
 
     public Result<BooleanAssignmentList> computeSample(
@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapReader;
+import de.featjar.analysis.sat4j.io.ConfigurationListFormat;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.SamplingContext;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ACommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running sampling server that keeps parsed feature models in memory.
+ * <p>
+ * Models are registered with {@code POST /models?model=<id>&path=<feature model file>}.
+ * Samples are requested with {@code POST /sample?model=<id>&t=<t>&i=<iterations>}, where the request body may
+ * contain the maps in sections headed by {@code [priority-map]}, {@code [cardinality-map]},
+ * {@code [cluster-interaction-map]}, and {@code [weight-map]} in the text format of
+ * {@link BooleanAssignmentValueMapFormat}.
+ * The response contains the sample in {@link ConfigurationListFormat}.
+ * {@code POST /shutdown} stops the server.
+ * Requests with other methods are answered with status 405.
+ * Models that were not used for the configured idle time or that exceed the maximum number of models are evicted,
+ * least recently used first.
+ */
+public class SamplingServerCommand extends ACommand {
+
+    public static final Option<Integer> PORT_OPTION = Option.newOption("port", Option.IntegerParser)
+            .setDescription("Local port to listen on.")
+            .setDefaultValue(7070);
+
+    public static final Option<Integer> MAX_MODELS_OPTION = Option.newOption("max-models", Option.IntegerParser)
+            .setDescription("Maximum number of models kept in memory.")
+            .setDefaultValue(16);
+
+    public static final Option<Integer> IDLE_TIMEOUT_OPTION = Option.newOption("idle-timeout", Option.IntegerParser)
+            .setDescription("Seconds after which unused models are evicted.")
+            .setDefaultValue(600);
+
+    public static final Option<Integer> WORKERS_OPTION = Option.newOption("workers", Option.IntegerParser)
+            .setDescription("Number of concurrently handled requests.")
+            .setDefaultValue(Runtime.getRuntime().availableProcessors());
+
+    private static class CachedModel {
+        private final SamplingContext samplingContext;
+        private volatile long lastAccess = System.nanoTime();
+
+        private CachedModel(BooleanAssignmentList featureModel) {
+            samplingContext = SamplingContext.of(featureModel);
+        }
+    }
+
+    private Map<String, CachedModel> models;
+    private HttpServer server;
+    private CountDownLatch shutdown;
+    private ExecutorService workers;
+    private ScheduledExecutorService evictor;
+
+    @Override
+    public int run(OptionList optionParser) {
+        InetSocketAddress address;
+        try {
+            address = start(
+                    optionParser.get(PORT_OPTION),
+                    optionParser.get(MAX_MODELS_OPTION),
+                    optionParser.get(IDLE_TIMEOUT_OPTION),
+                    optionParser.get(WORKERS_OPTION));
+        } catch (IOException e) {
+            FeatJAR.log().error(() -> "Could not start sampling server: " + e.getMessage());
+            return 1;
+        }
+        FeatJAR.log().message(() -> "Sampling server listening on port " + address.getPort());
+
+        try {
+            awaitShutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stop();
+        }
+        return 0;
+    }
+
+    /**
+     * Starts the server on the loopback interface without blocking.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @param maxModels the maximum number of models kept in memory
+     * @param idleTimeout the seconds after which unused models are evicted
+     * @param workerCount the number of concurrently handled requests
+     * @return the address the server listens on
+     */
+    public InetSocketAddress start(int port, int maxModels, int idleTimeout, int workerCount) throws IOException {
+        long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeout);
+        models = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedModel> eldest) {
+                return size() > maxModels;
+            }
+        };
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        shutdown = new CountDownLatch(1);
+        workers = Executors.newFixedThreadPool(workerCount);
+        evictor = Executors.newSingleThreadScheduledExecutor();
+        evictor.scheduleWithFixedDelay(() -> evictIdleModels(idleTimeoutNanos), 10, 10, TimeUnit.SECONDS);
+
+        server.setExecutor(workers);
+        server.createContext("/models", exchange -> handle(exchange, this::registerModel));
+        server.createContext("/sample", exchange -> handle(exchange, this::sample));
+        server.createContext("/shutdown", exchange -> {
+            if (handle(exchange, (parameters, body) -> Result.of("shutting down"))) {
+                shutdown.countDown();
+            }
+        });
+        server.start();
+        return server.getAddress();
+    }
+
+    /**
+     * Blocks until a client requested {@code POST /shutdown}.
+     */
+    public void awaitShutdown() throws InterruptedException {
+        shutdown.await();
+    }
+
+    /**
+     * Stops the server and all of its threads.
+     */
+    public void stop() {
+        server.stop(0);
+        evictor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private interface Handler {
+        Result<String> handle(Map<String, String> parameters, String body);
+    }
+
+    /**
+     * Answers a request with the result of the given handler.
+     * Requests with any other method than POST are rejected with status 405 without calling the handler.
+     *
+     * @return whether the handler was called
+     */
+    private boolean handle(HttpExchange exchange, Handler handler) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, "error: only POST requests are supported");
+            return false;
+        }
+        Result<String> response;
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            response = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()), body);
+        } catch (RuntimeException e) {
+            response = Result.empty(e);
+        }
+        if (response.isPresent()) {
+            respond(exchange, 200, response.get());
+        } else {
+            respond(exchange, 400, "error: " + response.getProblems());
+        }
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Result<String> registerModel(Map<String, String> parameters, String body) {
+        String id = parameters.get("model");
+        String path = parameters.get("path");
+        if (id == null || path == null) {
+            return Result.empty(new IllegalArgumentException("Parameters model and path are required"));
+        }
+        return ASamplingAdditionCommand.parseFeatureModel(Paths.get(path)).map(featureModel -> {
+            synchronized (models) {
+                models.put(id, new CachedModel(featureModel));
+            }
+            return "registered " + id + " with " + featureModel.getVariableMap().size() + " variables";
+        });
+    }
+
+    private Result<String> sample(Map<String, String> parameters, String body) {
+        String id = parameters.get("model");
+        CachedModel cachedModel;
+        synchronized (models) {
+            cachedModel = id == null ? null : models.get(id);
+        }
+        if (cachedModel == null) {
+            return Result.empty(new IllegalArgumentException("Unknown model " + id));
+        }
+        cachedModel.lastAccess = System.nanoTime();
+
+        // all maps are resolved against the variable map of the model, which is never changed by sampling, so
+        // concurrent requests share the model and the analyses of its context
+        BooleanAssignmentList featureModel = cachedModel.samplingContext.getClauseList();
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
+
+        Map<String, String> sections = parseSections(body);
+        Result<BooleanAssignmentValueMap> priorityMap = parseMap(sections, "priority-map", variableIndex);
+        Result<BooleanAssignmentValueMap> cardinalityMap = parseMap(sections, "cardinality-map", variableIndex);
+        Result<BooleanAssignmentValueMap> clusterInteractionMap =
+                parseMap(sections, "cluster-interaction-map", variableIndex);
+        Result<BooleanAssignmentValueMap> weightMap = parseMap(sections, "weight-map", variableIndex);
+        for (Result<BooleanAssignmentValueMap> map :
+                List.of(priorityMap, cardinalityMap, clusterInteractionMap, weightMap)) {
+            if (map.isEmpty()) {
+                return Result.empty(map.getProblems());
+            }
+        }
+
+        CombinedSamplingCommand command = new CombinedSamplingCommand();
+        command.setSamplingContext(cachedModel.samplingContext);
+        command.setThreads(Integer.parseInt(parameters.getOrDefault("threads", "1")));
+        if (parameters.containsKey("seed")) {
+            command.setRandomSeed(Long.parseLong(parameters.get("seed")));
+        }
+        return command.computeSample(
+                        featureModel,
+                        clusterInteractionMap.get(),
+                        priorityMap.get(),
+                        weightMap.get(),
+                        cardinalityMap.get(),
+                        Integer.parseInt(parameters.getOrDefault("t", "2")),
+                        Integer.parseInt(parameters.getOrDefault("i", "1")))
+                .map(ConfigurationListFormat::serialize);
+    }
+
+    private void evictIdleModels(long idleTimeout) {
+        long now = System.nanoTime();
+        synchronized (models) {
+            Iterator<Map.Entry<String, CachedModel>> iterator = models.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CachedModel> entry = iterator.next();
+                if (now - entry.getValue().lastAccess > idleTimeout) {
+                    FeatJAR.log().info(() -> "Evicting idle model " + entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static Result<BooleanAssignmentValueMap> parseMap(
+            Map<String, String> sections, String section, VariableIndex variableIndex) {
+        String text = sections.get(section);
+        if (text == null || text.isBlank()) {
+            return Result.of(new BooleanAssignmentValueMap(variableIndex.getVariableMap()));
+        }
+        Set<String> unknownNames = new LinkedHashSet<>();
+        try {
+            BooleanAssignmentValueMap map = BooleanAssignmentValueMapReader.parse(text, variableIndex, unknownNames);
+            VariableIndex.reportUnknownNames(section, unknownNames);
+            return Result.of(map);
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    private static Map<String, String> parseSections(String body) {
+        Map<String, String> sections = new HashMap<>();
+        String section = null;
+        StringBuilder content = new StringBuilder();
+        for (String line : body.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                if (section != null) {
+                    sections.put(section, content.toString());
+                }
+                section = trimmed.substring(1, trimmed.length() - 1);
+                content.setLength(0);
+            } else if (section != null && !trimmed.isEmpty()) {
+                content.append(trimmed).append('\n');
+            }
+        }
+        if (section != null) {
+            sections.put(section, content.toString());
+        }
+        return sections;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Runs a local server that keeps feature models in memory and answers sampling requests.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("sampling-server");
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.sampling.ComputeShardedSample;
+import de.featjar.analysis.sat4j.sampling.ShardDirectory;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ACommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Samples one shard of a {@link ShardDirectory} and writes the sample into the directory.
+ * Started by {@link LocalProcessShardRunner}, but can be started on any machine that has a copy of the directory.
+ */
+public class ShardWorkerCommand extends ACommand {
+
+    public static final Option<Path> DIRECTORY_OPTION = Option.newOption("directory", Option.PathParser)
+            .setDescription("Shard directory written by the coordinator.")
+            .setDefaultValue(null);
+
+    public static final Option<Integer> SHARD_OPTION = Option.newOption("shard", Option.IntegerParser)
+            .setDescription("Index of the shard to sample.")
+            .setDefaultValue(0);
+
+    @Override
+    public int run(OptionList optionParser) {
+        Result<Path> path = optionParser.getResult(DIRECTORY_OPTION);
+        if (path.isEmpty()) {
+            FeatJAR.log().error(() -> "Option --directory is required");
+            return 1;
+        }
+        int shard = optionParser.get(SHARD_OPTION);
+        try {
+            ShardDirectory directory = ShardDirectory.open(path.get());
+            if (shard < 0 || shard >= directory.getShards()) {
+                FeatJAR.log().error(() -> "Shard " + shard + " is not between 0 and " + (directory.getShards() - 1));
+                return 1;
+            }
+            Result<BooleanAssignmentList> sample = ComputeShardedSample.sampleShard(directory, shard);
+            if (sample.isEmpty()) {
+                FeatJAR.log().error(() -> "Could not sample shard " + shard + ": " + sample.getProblems());
+                return 1;
+            }
+            directory.writeSample(shard, sample.get());
+            FeatJAR.log().info(() -> "Sampled shard " + shard + " with " + sample.get().size() + " configurations");
+            return 0;
+        } catch (IOException e) {
+            FeatJAR.log().error(() -> "Could not sample shard " + shard + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Samples one shard of a sharded sampling run.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("sample-shard");
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.ComputeIndexedRankedSample;
+import de.featjar.analysis.sat4j.sampling.ComputeShardedSample;
+import de.featjar.analysis.sat4j.sampling.ShardDirectory;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Combined sampling that distributes the combination specifications over several worker processes, see
+ * {@link ComputeShardedSample}. The coordinator writes the specifications of each shard into its own files, so each
+ * worker only reads and holds the specifications of its shard, but the complete clause list.
+ */
+public class ShardedSamplingCommand extends CombinedSamplingCommand {
+
+    public static final Option<Integer> SHARDS_OPTION = Option.newOption("shards", Option.IntegerParser) //
+            .setDescription("Number of worker processes, each sampling a part of the specifications. "
+                    + "Each worker needs memory for the complete clause list.") //
+            .setDefaultValue(1);
+
+    public static final Option<Integer> WORKER_MEMORY_OPTION = Option.newOption(
+                    "worker-memory", Option.IntegerParser) //
+            .setDescription("Maximum heap size of each worker process in megabytes.") //
+            .setDefaultValue(null);
+
+    public static final Option<Path> WORK_DIRECTORY_OPTION = Option.newOption("work-directory", Option.PathParser) //
+            .setDescription("Directory for the shard input and the samples of the workers. "
+                    + "If not set, a temporary directory is used and deleted on exit.") //
+            .setDefaultValue(null);
+
+    protected int shards = 1;
+    protected Integer workerMemory = null;
+    protected Path workDirectory = null;
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public Integer getWorkerMemory() {
+        return workerMemory;
+    }
+
+    /**
+     * Sets the maximum heap size of each worker process in megabytes, {@code null} for the default of the JVM.
+     */
+    public void setWorkerMemory(Integer workerMemory) {
+        this.workerMemory = workerMemory;
+    }
+
+    public Path getWorkDirectory() {
+        return workDirectory;
+    }
+
+    /**
+     * Sets the directory for the shard input, {@code null} for a temporary directory.
+     */
+    public void setWorkDirectory(Path workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    @Override
+    protected IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
+        shards = Math.max(1, optionParser.get(SHARDS_OPTION));
+        workerMemory = optionParser.getResult(WORKER_MEMORY_OPTION).orElse(null);
+        workDirectory = optionParser.getResult(WORK_DIRECTORY_OPTION).orElse(null);
+        return super.newComputation(optionParser);
+    }
+
+    @Override
+    public IComputation<BooleanAssignmentList> createCombinedSamplingComputation(
+            BooleanAssignmentList featureModel,
+            BooleanAssignmentValueMap clusterInteractionMap,
+            BooleanAssignmentValueMap priorityMap,
+            BooleanAssignmentValueMap weightMap,
+            BooleanAssignmentValueMap cardinalityMap,
+            int t,
+            int iterations) {
+        if (sampleSink != null || hasBudget() || initialSample != null) {
+            FeatJAR.log()
+                    .warning(() -> "Streaming, budgets, and initial samples are not supported for sharded sampling");
+        }
+        CombinationSpecificationOptimizer optimizer = createCombinationSpecificationOptimizer(
+                featureModel, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t);
+        return withSampleCache(
+                featureModel,
+                optimizer,
+                iterations,
+                key -> {
+                    addCacheKey(key, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t);
+                    key.add("shards", shards);
+                },
+                () -> createShardedSampleComputation(featureModel, optimizer, priorityMap, iterations));
+    }
+
+    private IComputation<BooleanAssignmentList> createShardedSampleComputation(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            BooleanAssignmentValueMap priorityMap,
+            int iterations) {
+        ShardDirectory directory;
+        try {
+            directory = ShardDirectory.create(
+                    createWorkDirectory(),
+                    featureModel,
+                    optimizer,
+                    shards,
+                    iterations,
+                    randomSeed == null ? 0L : randomSeed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FeatJAR.log().info(() -> "Sampling " + shards + " shards in " + directory.getPath());
+
+        List<String> jvmOptions = workerMemory == null ? List.of() : List.of("-Xmx" + workerMemory + "m");
+        IComputation<BooleanAssignmentList> sample = Computations.of(featureModel)
+                .map(c -> new ComputeShardedSample(c, optimizer, directory))
+                .set(ComputeShardedSample.SHARD_RUNNER, new LocalProcessShardRunner(jvmOptions));
+        return withReport(withMinimization(sample, optimizer), featureModel, optimizer)
+                .map(c -> new ComputeIndexedRankedSample(c, priorityMap));
+    }
+
+    private Path createWorkDirectory() throws IOException {
+        if (workDirectory != null) {
+            return workDirectory;
+        }
+        Path path = Files.createTempDirectory("sharded-sampling");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(path)));
+        return path;
+    }
+
+    private static void delete(Path path) {
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            // the directory is temporary
+        }
+    }
+
+    public Result<BooleanAssignmentList> computeSample(
+            BooleanAssignmentList featureModel,
+            BooleanAssignmentValueMap clusterInteractionMap,
+            BooleanAssignmentValueMap priorityMap,
+            BooleanAssignmentValueMap weightMap,
+            BooleanAssignmentValueMap cardinalityMap,
+            int t,
+            int iterations,
+            int shards) {
+        setShards(shards);
+        return computeSample(
+                featureModel, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t, iterations);
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Samples all maps like the combined sampling, distributing the specifications over "
+                + "several worker processes.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("sharded-sampling");
+    }
+}
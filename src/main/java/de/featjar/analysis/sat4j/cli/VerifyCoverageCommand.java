@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.io.ConfigurationListFormat;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
+import de.featjar.analysis.sat4j.sampling.CoverageReport;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ACommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.cli.OptionList;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks an existing sample against the same maps and t that the sampling commands accept, without sampling.
+ * The coverage of every specification is computed on a bitset index of the sample, splitting the interactions of
+ * each specification over a fork-join pool. Uncovered interactions are checked for feasibility with a SAT solver.
+ */
+public class VerifyCoverageCommand extends ACommand {
+
+    public static final Option<Path> SAMPLE_OPTION = Option.newOption("sample", Option.PathParser)
+            .setDescription("Sample to verify, one configuration per line.")
+            .setDefaultValue(null);
+
+    public static final Option<Path> FEATURE_MODEL = ASamplingAdditionCommand.FEATURE_MODEL;
+    public static final Option<Path> PRIORITY_MAP = CombinedSamplingCommand.PRIORITY_MAP;
+    public static final Option<Path> CARDINALITY_MAP = CombinedSamplingCommand.CARDINALITY_MAP;
+    public static final Option<Path> CLUSTER_INTERACTION_MAP = CombinedSamplingCommand.CLUSTER_INTERACTION_MAP;
+    public static final Option<Path> WEIGHT_MAP = CombinedSamplingCommand.WEIGHT_MAP;
+    public static final Option<Integer> T_OPTION = CombinedSamplingCommand.DEFAULT_T_OPTION;
+    public static final Option<Path> REPORT_OPTION = ASamplingAdditionCommand.REPORT_OPTION;
+
+    public static final Option<Integer> THREADS_OPTION = Option.newOption("threads", Option.IntegerParser)
+            .setDescription("Number of threads checking interactions.")
+            .setDefaultValue(Runtime.getRuntime().availableProcessors());
+
+    @Override
+    public int run(OptionList optionParser) {
+        Result<Path> samplePath = optionParser.getResult(SAMPLE_OPTION);
+        Result<Path> featureModelPath = optionParser.getResult(FEATURE_MODEL);
+        if (samplePath.isEmpty() || featureModelPath.isEmpty()) {
+            FeatJAR.log().error(() -> "Options --sample and --feature-model are required");
+            return 1;
+        }
+        Result<BooleanAssignmentList> featureModel = ASamplingAdditionCommand.parseFeatureModel(featureModelPath.get());
+        Result<BooleanAssignmentList> sample = ConfigurationListFormat.load(samplePath.get());
+        if (featureModel.isEmpty() || sample.isEmpty()) {
+            FeatJAR.log().error(() -> "Could not load feature model or sample: " + featureModel.getProblems()
+                    + sample.getProblems());
+            return 1;
+        }
+
+        VariableIndex variableIndex = new VariableIndex(featureModel.get().getVariableMap());
+        Set<String> unknownNames = new LinkedHashSet<>();
+        BooleanAssignmentList resolvedSample = variableIndex.resolve(sample.get(), unknownNames);
+        VariableIndex.reportUnknownNames(samplePath.get().toString(), unknownNames);
+
+        BooleanAssignmentValueMap priorityMap = loadMap(optionParser, PRIORITY_MAP, variableIndex);
+        BooleanAssignmentValueMap cardinalityMap = loadMap(optionParser, CARDINALITY_MAP, variableIndex);
+        BooleanAssignmentValueMap clusterInteractionMap = loadMap(optionParser, CLUSTER_INTERACTION_MAP, variableIndex);
+        BooleanAssignmentValueMap weightMap = loadMap(optionParser, WEIGHT_MAP, variableIndex);
+        if (priorityMap == null || cardinalityMap == null || clusterInteractionMap == null || weightMap == null) {
+            return 1;
+        }
+        CombinationSpecificationOptimizer optimizer = CombinedSamplingCommand.createCombinationSpecificationOptimizer(
+                featureModel.get(),
+                clusterInteractionMap,
+                priorityMap,
+                weightMap,
+                cardinalityMap,
+                optionParser.get(T_OPTION));
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, optionParser.get(THREADS_OPTION)));
+        CoverageReport report;
+        try {
+            report = CoverageReport.compute(
+                    optimizer.getCoverageRequirements(), resolvedSample, featureModel.get(), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (CoverageReport.Entry entry : report.getEntries()) {
+            FeatJAR.log()
+                    .message(() -> String.format(
+                            "%s: %d of %d covered (%.2f%%), %d infeasible, %d missing",
+                            entry.getSpecification(),
+                            entry.getCovered(),
+                            entry.getEnumerated(),
+                            100 * entry.getCoverage(),
+                            entry.getInfeasible(),
+                            entry.getUncovered()));
+        }
+        FeatJAR.log()
+                .message(() -> String.format(
+                        "%d configurations, %.2f%% total coverage", resolvedSample.size(), 100 * report.getCoverage()));
+
+        Result<Path> reportPath = optionParser.getResult(REPORT_OPTION);
+        if (reportPath.isPresent()) {
+            try {
+                report.write(reportPath.get());
+            } catch (IOException e) {
+                FeatJAR.log().error(() -> "Could not write coverage report: " + e.getMessage());
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    private static BooleanAssignmentValueMap loadMap(
+            OptionList optionParser, Option<Path> option, VariableIndex variableIndex) {
+        Result<BooleanAssignmentValueMap> map =
+                ASamplingAdditionCommand.loadBooleanAssignmentValueMap(optionParser, option, variableIndex);
+        if (map.isEmpty()) {
+            FeatJAR.log().error(() -> "Could not load map: " + map.getProblems());
+            return null;
+        }
+        return map.get();
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.of("Reports the coverage of an existing sample for the given maps and t.");
+    }
+
+    @Override
+    public Optional<String> getShortName() {
+        return Optional.of("verify-coverage");
+    }
+}
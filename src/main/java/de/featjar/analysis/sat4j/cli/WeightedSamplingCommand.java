@@ -20,23 +20,19 @@
  */
 package de.featjar.analysis.sat4j.cli;
 
-import de.featjar.analysis.sat4j.computation.*;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.analysis.sat4j.sampling.CombinationSpecificationOptimizer;
 import de.featjar.base.cli.Option;
 import de.featjar.base.cli.OptionList;
-import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.data.Result;
 import de.featjar.base.log.Log;
 import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
-import de.featjar.formula.combination.ICombinationSpecification;
-import de.featjar.formula.combination.MultiCombinationSpecification;
-import de.featjar.formula.combination.VariableCombinationSpecification;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public class WeightedSamplingCommand extends ASamplingAdditionCommand {
 
@@ -47,40 +43,33 @@ public class WeightedSamplingCommand extends ASamplingAdditionCommand {
 
     @Override
     public IComputation<BooleanAssignmentList> newComputation(OptionList optionParser) {
-        BooleanAssignmentValueMap weightMap =
-                loadBooleanAssignmentValueMap(optionParser, WEIGHT_MAP).orElseLog(Log.Verbosity.WARNING);
-
+        parseSamplingOptions(optionParser);
         BooleanAssignmentList featureModel = parseFeatureModel(optionParser).orElseLog(Log.Verbosity.ERROR);
+        VariableIndex variableIndex = new VariableIndex(featureModel.getVariableMap());
+        BooleanAssignmentValueMap weightMap = loadBooleanAssignmentValueMap(optionParser, WEIGHT_MAP, variableIndex)
+                .orElseLog(Log.Verbosity.WARNING);
         return createWeightedSamplingComputation(featureModel, weightMap, optionParser.get(ITERATIONS_OPTION));
     }
 
-    public static List<ICombinationSpecification> createPriorityCombinationSpecifications(
-            BooleanAssignmentList featureModel, BooleanAssignmentValueMap weightMap) {
-        List<ICombinationSpecification> combinationSets = new ArrayList<>();
+    public static void addWeightCombinationSpecifications(
+            CombinationSpecificationOptimizer optimizer, BooleanAssignmentValueMap weightMap) {
         for (BooleanAssignment weightAssignment : weightMap.getAssignments()) {
             int[] variables = weightAssignment.getAbsoluteValues(); // Todo: Use literals??
             int weight = weightMap.getValue(weightAssignment);
-            combinationSets.add(new VariableCombinationSpecification(weight, variables, featureModel.getVariableMap()));
+            optimizer.addVariableGroup(weight, variables, "weight map");
         }
-        return combinationSets;
     }
 
     public IComputation<BooleanAssignmentList> createWeightedSamplingComputation(
             BooleanAssignmentList featureModel, BooleanAssignmentValueMap weightMap, int iterations) {
         adaptFeatureModelToBooleanAssignmentValueMap(featureModel, weightMap);
 
-        List<ICombinationSpecification> combinationSets =
-                createPriorityCombinationSpecifications(featureModel, weightMap);
-        for (BooleanAssignment weightAssignment : weightMap.getAssignments()) {
-            int[] variables = weightAssignment.getAbsoluteValues(); // Todo: Use literals??
-            int weight = weightMap.getValue(weightAssignment);
-            combinationSets.add(new VariableCombinationSpecification(weight, variables, featureModel.getVariableMap()));
-        }
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        addWeightCombinationSpecifications(optimizer, weightMap);
 
-        return Computations.of(featureModel)
-                .map(YASA::new)
-                .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(combinationSets))
-                .set(YASA.ITERATIONS, iterations);
+        return createSampleComputation(
+                featureModel, optimizer, iterations, UnaryOperator.identity(), key -> key.add("weight-map", weightMap));
     }
 
     public Result<BooleanAssignmentList> computeSample(
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compact binary representation of a {@link BooleanAssignmentList} and its {@link VariableMap}.
+ * Variable names are stored once, literals are stored as zigzag encoded variable-length integers.
+ */
+public final class BooleanAssignmentListBinaryFormat {
+
+    private static final int MAGIC = 0x46534241; // FSBA
+    private static final int VERSION = 1;
+
+    private BooleanAssignmentListBinaryFormat() {}
+
+    public static void write(BooleanAssignmentList list, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        VariableMap variableMap = list.getVariableMap();
+        int variableCount = variableMap.size();
+        writeVarInt(out, variableCount);
+        for (int i = 1; i <= variableCount; i++) {
+            out.writeUTF(getName(variableMap, i));
+        }
+
+        writeVarInt(out, list.size());
+        for (BooleanAssignment assignment : list.getAll()) {
+            int[] literals = assignment.get();
+            writeVarInt(out, literals.length);
+            for (int literal : literals) {
+                writeVarInt(out, (literal << 1) ^ (literal >> 31));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the name of the given variable. Reading assigns indices in the order of the names, so a variable map
+     * with gaps cannot be written without shifting the literals.
+     */
+    static String getName(VariableMap variableMap, int variable) throws IOException {
+        Result<String> name = variableMap.get(variable);
+        if (name.isEmpty()) {
+            throw new IOException("Variable map has no name for variable " + variable);
+        }
+        return name.get();
+    }
+
+    public static BooleanAssignmentList read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary boolean assignment list");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary boolean assignment list version " + version);
+        }
+
+        VariableMap variableMap = new VariableMap();
+        int variableCount = readVarInt(in);
+        for (int i = 0; i < variableCount; i++) {
+            variableMap.add(in.readUTF());
+        }
+
+        BooleanAssignmentList list = new BooleanAssignmentList(variableMap);
+        int assignmentCount = readVarInt(in);
+        for (int i = 0; i < assignmentCount; i++) {
+            int[] literals = new int[readVarInt(in)];
+            for (int j = 0; j < literals.length; j++) {
+                int value = readVarInt(in);
+                literals[j] = (value >>> 1) ^ -(value & 1);
+            }
+            list.add(new BooleanAssignment(literals));
+        }
+        return list;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary companion of the text format for {@link BooleanAssignmentValueMap}.
+ * The file contains a name table followed by one record per entry, holding the number of literals, the value, and
+ * the literals as fixed-width integers. Files are read through a memory mapping, so only the variable names are
+ * decoded into strings.
+ */
+public final class BooleanAssignmentValueMapBinaryFormat {
+
+    private static final int MAGIC = 0x4653424D; // FSBM
+    private static final int VERSION = 1;
+
+    private BooleanAssignmentValueMapBinaryFormat() {}
+
+    /**
+     * Checks whether the given file starts with the header of this format.
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return false;
+                }
+            }
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    public static void write(BooleanAssignmentValueMap map, Path path) throws IOException {
+        VariableMap variableMap = map.getVariableMap();
+        int variableCount = variableMap.size();
+        byte[][] names = new byte[variableCount][];
+        long size = 4L * Integer.BYTES;
+        for (int i = 0; i < variableCount; i++) {
+            names[i] = BooleanAssignmentListBinaryFormat.getName(variableMap, i + 1).getBytes(StandardCharsets.UTF_8);
+            size += Integer.BYTES + names[i].length;
+        }
+        for (Map.Entry<BooleanAssignment, Integer> entry : map) {
+            size += (2L + entry.getKey().size()) * Integer.BYTES;
+        }
+
+        Path temporaryFile =
+                Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (FileChannel channel =
+                FileChannel.open(temporaryFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(variableCount);
+            for (byte[] name : names) {
+                buffer.putInt(name.length);
+                buffer.put(name);
+            }
+            buffer.putInt(map.size());
+            for (Map.Entry<BooleanAssignment, Integer> entry : map) {
+                int[] literals = entry.getKey().get();
+                buffer.putInt(literals.length);
+                buffer.putInt(entry.getValue());
+                buffer.asIntBuffer().put(literals);
+                buffer.position(buffer.position() + literals.length * Integer.BYTES);
+            }
+            buffer.force();
+        }
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static BooleanAssignmentValueMap read(Path path) throws IOException {
+        return read(path, null, null);
+    }
+
+    /**
+     * Reads the map onto the variables of the given index.
+     * Entries with names that are not part of the index are skipped and their names are added to the given set.
+     */
+    public static BooleanAssignmentValueMap read(Path path, VariableIndex index, Set<String> unknownNames)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary boolean assignment value map: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary boolean assignment value map version " + version);
+            }
+
+            VariableMap variableMap = index == null ? new VariableMap() : index.getVariableMap();
+            int variableCount = buffer.getInt();
+            // maps the indices of the file to the indices of the variable map, 0 for unknown names
+            int[] indices = new int[variableCount + 1];
+            String[] unresolvedNames = new String[variableCount + 1];
+            byte[] name = new byte[0];
+            for (int i = 1; i <= variableCount; i++) {
+                int length = buffer.getInt();
+                if (name.length < length) {
+                    name = new byte[length];
+                }
+                buffer.get(name, 0, length);
+                String variableName = new String(name, 0, length, StandardCharsets.UTF_8);
+                if (index == null) {
+                    indices[i] = variableMap.add(variableName);
+                } else {
+                    indices[i] = index.getIndex(variableName);
+                    unresolvedNames[i] = variableName;
+                }
+            }
+
+            BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(variableMap);
+            int entryCount = buffer.getInt();
+            IntBuffer entries = buffer.asIntBuffer();
+            for (int i = 0; i < entryCount; i++) {
+                int[] literals = new int[entries.get()];
+                int value = entries.get();
+                entries.get(literals);
+                boolean known = true;
+                for (int j = 0; j < literals.length; j++) {
+                    int variable = indices[Math.abs(literals[j])];
+                    if (variable == 0) {
+                        unknownNames.add(unresolvedNames[Math.abs(literals[j])]);
+                        known = false;
+                    }
+                    literals[j] = literals[j] > 0 ? variable : -variable;
+                }
+                if (known) {
+                    map.add(new BooleanAssignment(literals), value);
+                }
+            }
+            return map;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed binary boolean assignment value map: " + path, e);
+        }
+    }
+}
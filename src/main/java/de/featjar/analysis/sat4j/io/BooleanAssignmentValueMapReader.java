@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Reads maps directly onto the variables of a {@link VariableIndex}.
+ * Supports the text format of {@link BooleanAssignmentValueMapFormat} and the binary format of
+ * {@link BooleanAssignmentValueMapBinaryFormat}. Entries containing a name that is not part of the index are skipped
+ * and their names are collected, so they can be reported at once.
+ */
+public final class BooleanAssignmentValueMapReader {
+
+    private BooleanAssignmentValueMapReader() {}
+
+    public static BooleanAssignmentValueMap read(Path path, VariableIndex index, Set<String> unknownNames)
+            throws IOException {
+        if (BooleanAssignmentValueMapBinaryFormat.isBinary(path)) {
+            return BooleanAssignmentValueMapBinaryFormat.read(path, index, unknownNames);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader, index, unknownNames);
+        }
+    }
+
+    public static BooleanAssignmentValueMap parse(String text, VariableIndex index, Set<String> unknownNames)
+            throws IOException {
+        return parse(new BufferedReader(new StringReader(text)), index, unknownNames);
+    }
+
+    public static BooleanAssignmentValueMap parse(BufferedReader reader, VariableIndex index, Set<String> unknownNames)
+            throws IOException {
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(index.getVariableMap());
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IOException("Missing value in line " + lineNumber);
+            }
+            int value;
+            try {
+                value = Integer.parseInt(line.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid value in line " + lineNumber, e);
+            }
+
+            String[] names = line.substring(0, separator).split(",");
+            int[] literals = new int[names.length];
+            boolean known = true;
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i].trim();
+                boolean positive = true;
+                if (name.startsWith("-")) {
+                    positive = false;
+                    name = name.substring(1);
+                } else if (name.startsWith("+")) {
+                    name = name.substring(1);
+                }
+                int variable = index.getIndex(name);
+                if (variable == 0) {
+                    unknownNames.add(name);
+                    known = false;
+                }
+                literals[i] = positive ? variable : -variable;
+            }
+            if (known) {
+                map.add(new BooleanAssignment(literals), value);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache for the clause lists computed from feature models.
+ * Entries are keyed by a hash of the model content and the transformation settings and stored in
+ * {@link BooleanAssignmentListBinaryFormat}.
+ * Entries older than the maximum age are evicted, and if the cache exceeds its maximum size, the least recently used
+ * entries are removed.
+ */
+public class CNFCache {
+
+    /**
+     * Identifies the transformation pipeline. Must be changed whenever the pipeline produces different clauses.
+     */
+    public static final String TRANSFORMATION = "NNF-CNF-BooleanClauseList-v1";
+
+    private static final String FILE_EXTENSION = ".cnf";
+
+    private final Path directory;
+    private final long maxSize;
+    private final Duration maxAge;
+
+    public CNFCache(Path directory) {
+        this(directory, 1L << 30, Duration.ofDays(30));
+    }
+
+    public CNFCache(Path directory, long maxSize, Duration maxAge) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the cached clause list for the given model file or computes and stores it.
+     */
+    public Result<BooleanAssignmentList> get(Path modelFile, Supplier<Result<BooleanAssignmentList>> computation) {
+        try {
+            return get(Files.readAllBytes(modelFile), computation);
+        } catch (IOException e) {
+            FeatJAR.log().warning(() -> "Could not read " + modelFile + ": " + e.getMessage());
+            return computation.get();
+        }
+    }
+
+    /**
+     * Returns the cached clause list for the given model content or computes and stores it.
+     */
+    public Result<BooleanAssignmentList> get(String modelContent, Supplier<Result<BooleanAssignmentList>> computation) {
+        return get(modelContent.getBytes(StandardCharsets.UTF_8), computation);
+    }
+
+    private Result<BooleanAssignmentList> get(
+            byte[] modelContent, Supplier<Result<BooleanAssignmentList>> computation) {
+        Path entry = directory.resolve(computeKey(modelContent) + FILE_EXTENSION);
+        if (Files.isRegularFile(entry)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(entry))) {
+                BooleanAssignmentList clauseList = BooleanAssignmentListBinaryFormat.read(in);
+                Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+                return Result.of(clauseList);
+            } catch (IOException e) {
+                FeatJAR.log().warning(() -> "Could not read CNF cache entry " + entry + ": " + e.getMessage());
+            }
+        }
+
+        Result<BooleanAssignmentList> clauseList = computation.get();
+        if (clauseList.isPresent()) {
+            try {
+                store(entry, clauseList.get());
+                evict();
+            } catch (IOException e) {
+                FeatJAR.log().warning(() -> "Could not write CNF cache entry " + entry + ": " + e.getMessage());
+            }
+        }
+        return clauseList;
+    }
+
+    /**
+     * Removes all entries that exceed the maximum age and, afterwards, the least recently used entries until the
+     * cache fits into its maximum size.
+     */
+    public void evict() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        Instant oldest = Instant.now().minus(maxAge);
+        List<Map.Entry<Path, BasicFileAttributes>> remaining = new ArrayList<>();
+        for (Map.Entry<Path, BasicFileAttributes> entry : readAttributes(entries)) {
+            if (entry.getValue().lastModifiedTime().toInstant().isBefore(oldest)) {
+                Files.deleteIfExists(entry.getKey());
+            } else {
+                remaining.add(entry);
+            }
+        }
+        long size = 0;
+        for (Map.Entry<Path, BasicFileAttributes> entry : remaining) {
+            size += entry.getValue().size();
+        }
+        if (size > maxSize) {
+            remaining.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+            for (Map.Entry<Path, BasicFileAttributes> entry : remaining) {
+                if (size <= maxSize) {
+                    break;
+                }
+                size -= entry.getValue().size();
+                Files.deleteIfExists(entry.getKey());
+            }
+        }
+    }
+
+    private void store(Path entry, BooleanAssignmentList clauseList) throws IOException {
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+                BooleanAssignmentListBinaryFormat.write(clauseList, out);
+            }
+            Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static String computeKey(byte[] modelContent) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(TRANSFORMATION.getBytes(StandardCharsets.UTF_8));
+            digest.update(modelContent);
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the attributes of all entries once, so that sorting does not depend on concurrently changing files.
+     * Entries that were removed by a concurrent writer in the meantime are skipped.
+     */
+    private static List<Map.Entry<Path, BasicFileAttributes>> readAttributes(List<Path> entries) throws IOException {
+        List<Map.Entry<Path, BasicFileAttributes>> attributes = new ArrayList<>(entries.size());
+        for (Path entry : entries) {
+            try {
+                attributes.add(Map.entry(entry, Files.readAttributes(entry, BasicFileAttributes.class)));
+            } catch (NoSuchFileException e) {
+                // removed by another process
+            }
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain text format for samples with one configuration per line.
+ * Each configuration is a comma separated list of variable names, prefixed with {@code +} for selected and {@code -}
+ * for deselected variables (e.g., {@code +feature1,-feature2}).
+ * Unsigned names are read as selected.
+ */
+public final class ConfigurationListFormat {
+
+    private ConfigurationListFormat() {}
+
+    public static String serialize(BooleanAssignmentList sample) {
+        VariableMap variableMap = sample.getVariableMap();
+        StringBuilder sb = new StringBuilder();
+        for (BooleanAssignment configuration : sample.getAll()) {
+            serialize(configuration, variableMap, sb);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static void serialize(BooleanAssignment configuration, VariableMap variableMap, StringBuilder sb) {
+        boolean first = true;
+        for (int literal : configuration.get()) {
+            if (literal == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append(literal > 0 ? '+' : '-');
+            sb.append(variableMap.get(Math.abs(literal)).orElse(String.valueOf(Math.abs(literal))));
+        }
+    }
+
+    public static BooleanAssignmentList parse(String text) {
+        VariableMap variableMap = new VariableMap();
+        List<BooleanAssignment> configurations = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] names = trimmed.split(",");
+            int[] literals = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i].trim();
+                boolean positive = true;
+                if (name.startsWith("+") || name.startsWith("-")) {
+                    positive = name.charAt(0) == '+';
+                    name = name.substring(1);
+                }
+                String variableName = name;
+                int variable = variableMap.get(variableName).orElseGet(() -> variableMap.add(variableName));
+                literals[i] = positive ? variable : -variable;
+            }
+            configurations.add(new BooleanAssignment(literals));
+        }
+        BooleanAssignmentList sample = new BooleanAssignmentList(variableMap);
+        configurations.forEach(sample::add);
+        return sample;
+    }
+
+    public static Result<BooleanAssignmentList> load(Path path) {
+        try {
+            return Result.of(parse(Files.readString(path, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    public static void write(BooleanAssignmentList sample, Path path) throws IOException {
+        Files.writeString(path, serialize(sample), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache for finished samples.
+ * Entries are keyed by a {@link Key}, a hash of the clause list, the normalized maps, and all sampling parameters, and
+ * stored in {@link BooleanAssignmentListBinaryFormat}.
+ * If the cache exceeds its maximum size, the least recently used entries are removed.
+ */
+public class SampleCache {
+
+    /**
+     * Identifies the sampling pipeline. Must be changed whenever the same parameters produce different samples.
+     */
+    public static final String SAMPLING = "YASA-v1";
+
+    private static final String FILE_EXTENSION = ".sample";
+
+    /**
+     * Hash of everything a sample depends on.
+     * Maps are normalized by variable names, so maps with the same entries have the same hash regardless of the order
+     * of their entries and the indices of their variables.
+     */
+    public static class Key {
+        private final MessageDigest digest;
+        private String hash;
+
+        public Key(String sampling) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            add("sampling", SAMPLING);
+            add("kind", sampling);
+        }
+
+        public Key add(String name, String value) {
+            update(name, (value == null ? "null" : value).getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        public Key add(String name, long value) {
+            return add(name, Long.toString(value));
+        }
+
+        public Key add(String name, double value) {
+            return add(name, Double.toString(value));
+        }
+
+        public Key add(String name, BooleanAssignmentList list) {
+            if (list == null) {
+                return add(name, (String) null);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                BooleanAssignmentListBinaryFormat.write(list, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            update(name, bytes.toByteArray());
+            return this;
+        }
+
+        public Key add(String name, BooleanAssignmentValueMap map) {
+            if (map == null) {
+                return add(name, (String) null);
+            }
+            VariableMap variableMap = map.getVariableMap();
+            List<String> entries = new ArrayList<>();
+            for (BooleanAssignment assignment : map.getAssignments()) {
+                List<String> literals = new ArrayList<>();
+                for (int literal : assignment.get()) {
+                    String variable = variableMap.get(Math.abs(literal)).orElse(Integer.toString(Math.abs(literal)));
+                    literals.add(literal > 0 ? variable : "-" + variable);
+                }
+                literals.sort(null);
+                entries.add(String.join(",", literals) + "=" + map.getValue(assignment));
+            }
+            entries.sort(null);
+            return add(name, String.join("\n", entries));
+        }
+
+        private void update(String name, byte[] value) {
+            if (hash != null) {
+                throw new IllegalStateException("Key was already hashed");
+            }
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Long.toString(value.length).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(value);
+        }
+
+        /**
+         * Returns the hash of all added parts. No parts can be added afterwards.
+         */
+        public String getHash() {
+            if (hash == null) {
+                StringBuilder key = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    key.append(String.format("%02x", b));
+                }
+                hash = key.toString();
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return getHash();
+        }
+    }
+
+    private final Path directory;
+    private final long maxSize;
+
+    public SampleCache(Path directory) {
+        this(directory, 1L << 30);
+    }
+
+    public SampleCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the cached sample for the given key, or an empty result if there is none.
+     */
+    public Result<BooleanAssignmentList> load(Key key) {
+        Path entry = getEntry(key);
+        if (Files.isRegularFile(entry)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(entry))) {
+                BooleanAssignmentList sample = BooleanAssignmentListBinaryFormat.read(in);
+                Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+                return Result.of(sample);
+            } catch (IOException e) {
+                FeatJAR.log().warning(() -> "Could not read sample cache entry " + entry + ": " + e.getMessage());
+            }
+        }
+        return Result.empty();
+    }
+
+    /**
+     * Stores the sample for the given key and evicts entries if the cache exceeds its maximum size.
+     */
+    public void store(Key key, BooleanAssignmentList sample) {
+        Path entry = getEntry(key);
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, "entry", ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+                    BooleanAssignmentListBinaryFormat.write(sample, out);
+                }
+                Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            evict();
+        } catch (IOException e) {
+            FeatJAR.log().warning(() -> "Could not write sample cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits into its maximum size.
+     */
+    public void evict() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        List<Map.Entry<Path, BasicFileAttributes>> attributes = readAttributes(entries);
+        long size = 0;
+        for (Map.Entry<Path, BasicFileAttributes> entry : attributes) {
+            size += entry.getValue().size();
+        }
+        if (size > maxSize) {
+            attributes.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+            for (Map.Entry<Path, BasicFileAttributes> entry : attributes) {
+                if (size <= maxSize) {
+                    break;
+                }
+                size -= entry.getValue().size();
+                Files.deleteIfExists(entry.getKey());
+            }
+        }
+    }
+
+    private Path getEntry(Key key) {
+        return directory.resolve(key.getHash() + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads the attributes of all entries once, so that sorting does not depend on concurrently changing files.
+     * Entries that were removed by a concurrent writer in the meantime are skipped.
+     */
+    private static List<Map.Entry<Path, BasicFileAttributes>> readAttributes(List<Path> entries) throws IOException {
+        List<Map.Entry<Path, BasicFileAttributes>> attributes = new ArrayList<>(entries.size());
+        for (Path entry : entries) {
+            try {
+                attributes.add(Map.entry(entry, Files.readAttributes(entry, BasicFileAttributes.class)));
+            } catch (NoSuchFileException e) {
+                // removed by another process
+            }
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name to index table of the variables of a feature model.
+ * The table is built once and can be shared by all maps that are loaded for the same model, so that names are
+ * resolved directly to the indices of the model instead of adapting every map afterwards.
+ * The index is not changed after construction and can be used by several threads.
+ */
+public class VariableIndex {
+
+    private final VariableMap variableMap;
+    private final Map<String, Integer> indices;
+
+    public VariableIndex(VariableMap variableMap) {
+        this.variableMap = variableMap;
+        int size = variableMap.size();
+        indices = new HashMap<>(2 * size);
+        for (int i = 1; i <= size; i++) {
+            Result<String> name = variableMap.get(i);
+            if (name.isPresent()) {
+                indices.put(name.get(), i);
+            }
+        }
+    }
+
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * Returns the index of the given name or 0 if the model does not contain a variable with that name.
+     */
+    public int getIndex(String name) {
+        return indices.getOrDefault(name, 0);
+    }
+
+    /**
+     * Maps the given list onto the variables of this index by name.
+     * Literals of variables that are not part of this index are removed and their names are added to the given set.
+     */
+    public BooleanAssignmentList resolve(BooleanAssignmentList list, Set<String> unknownNames) {
+        VariableMap listVariables = list.getVariableMap();
+        int[] indices = new int[listVariables.size() + 1];
+        for (int i = 1; i < indices.length; i++) {
+            Result<String> name = listVariables.get(i);
+            if (name.isPresent()) {
+                indices[i] = getIndex(name.get());
+                if (indices[i] == 0) {
+                    unknownNames.add(name.get());
+                }
+            }
+        }
+        BooleanAssignmentList resolvedList = new BooleanAssignmentList(variableMap);
+        for (BooleanAssignment assignment : list.getAll()) {
+            int[] literals = assignment.get();
+            int[] resolvedLiterals = new int[literals.length];
+            int size = 0;
+            for (int literal : literals) {
+                int variable = Math.abs(literal) < indices.length ? indices[Math.abs(literal)] : 0;
+                if (variable != 0) {
+                    resolvedLiterals[size++] = literal > 0 ? variable : -variable;
+                }
+            }
+            resolvedList.add(new BooleanAssignment(Arrays.copyOf(resolvedLiterals, size)));
+        }
+        return resolvedList;
+    }
+
+    /**
+     * Logs all names of a source that could not be resolved in one message.
+     */
+    public static void reportUnknownNames(String source, Collection<String> unknownNames) {
+        if (!unknownNames.isEmpty()) {
+            FeatJAR.log()
+                    .warning(() -> "Ignoring " + unknownNames.size() + " names of " + source
+                            + " that are not part of the feature model: " + String.join(", ", unknownNames));
+        }
+    }
+}
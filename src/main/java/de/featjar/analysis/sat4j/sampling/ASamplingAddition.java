@@ -20,6 +20,9 @@
  */
 package de.featjar.analysis.sat4j.sampling;
 
+import de.featjar.analysis.sat4j.cli.ASamplingAdditionCommand;
+import de.featjar.analysis.sat4j.io.CNFCache;
+import de.featjar.analysis.sat4j.io.SampleCache;
 import de.featjar.base.computation.Computations;
 import de.featjar.base.data.Result;
 import de.featjar.feature.model.IFeatureModel;
@@ -28,10 +31,46 @@ import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.ComputeBooleanClauseList;
 import de.featjar.formula.computation.ComputeCNFFormula;
 import de.featjar.formula.computation.ComputeNNFFormula;
+import de.featjar.formula.structure.IFormula;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 public abstract class ASamplingAddition {
 
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sampling");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Cancellation of the asynchronous sampling running on the current thread, passed on by {@link #configure}.
+     */
+    private static final ThreadLocal<BooleanSupplier> CANCELLATION = new ThreadLocal<>();
+
     int iterations = 1;
+    int threads = 1;
+    Long randomSeed = null;
+    CNFCache cnfCache = null;
+    BooleanAssignmentList initialSample = null;
+    boolean repairInitialSample = false;
+    ISampleSink sampleSink = null;
+    int batchSize = 0;
+    Path reportPath = null;
+    Duration timeLimit = null;
+    double targetCoverage = 0;
+    boolean minimize = false;
+    boolean reduceModel = false;
+    boolean collapseAtomicSets = false;
+    ISamplingListener samplingListener = null;
+    long maxMemory = 0;
+    SampleCache sampleCache = null;
 
     public int getIterations() {
         return iterations;
@@ -41,15 +80,291 @@ public abstract class ASamplingAddition {
         this.iterations = iterations;
     }
 
-    abstract Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel);
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that run the iterations as independent YASA runs in parallel, see
+     * {@link ComputeParallelSample}. The smallest sample of all runs is returned. With a single iteration, there is
+     * only one run, so additional threads have no effect.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public CNFCache getCNFCache() {
+        return cnfCache;
+    }
+
+    /**
+     * Sets the cache used by {@link #computeSample(IFeatureModel)} to skip the CNF transformation for known models.
+     */
+    public void setCNFCache(CNFCache cnfCache) {
+        this.cnfCache = cnfCache;
+    }
+
+    public BooleanAssignmentList getInitialSample() {
+        return initialSample;
+    }
+
+    /**
+     * Sets a sample to extend. Its valid configurations are kept and counted as covered, so that only the
+     * interactions they miss lead to new configurations.
+     */
+    public void setInitialSample(BooleanAssignmentList initialSample) {
+        this.initialSample = initialSample;
+    }
+
+    public boolean isRepairInitialSample() {
+        return repairInitialSample;
+    }
+
+    /**
+     * Sets whether configurations of the initial sample that violate the feature model are repaired with few changes
+     * instead of dropped. With the sample of a previous model version, this keeps the new sample close to the old one
+     * and only samples the interactions that changed, see {@link ConfigurationRepair}.
+     */
+    public void setRepairInitialSample(boolean repairInitialSample) {
+        this.repairInitialSample = repairInitialSample;
+    }
+
+    public ISampleSink getSampleSink() {
+        return sampleSink;
+    }
+
+    /**
+     * Sets a sink that receives the configurations of each round, see {@link #setBatchSize(int)}, while the sample
+     * is computed.
+     */
+    public void setSampleSink(ISampleSink sampleSink) {
+        this.sampleSink = sampleSink;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of configurations per round, 0 to let the rounds grow with the sample, see
+     * {@link ComputeStreamedSample#BATCH_SIZE}.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Path getReportPath() {
+        return reportPath;
+    }
+
+    /**
+     * Sets the file to which a {@link CoverageReport} of the sample is written.
+     */
+    public void setReportPath(Path reportPath) {
+        this.reportPath = reportPath;
+    }
+
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets the time after which sampling stops and returns the configurations found so far, {@code null} for no
+     * limit.
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public double getTargetCoverage() {
+        return targetCoverage;
+    }
+
+    /**
+     * Sets the coverage between 0 and 1 at which sampling stops, 0 for no target.
+     */
+    public void setTargetCoverage(double targetCoverage) {
+        this.targetCoverage = targetCoverage;
+    }
+
+    public boolean isMinimize() {
+        return minimize;
+    }
+
+    /**
+     * Sets whether redundant configurations are removed from the sample, see {@link ComputeMinimizedSample}.
+     */
+    public void setMinimize(boolean minimize) {
+        this.minimize = minimize;
+    }
+
+    public boolean isReduceModel() {
+        return reduceModel;
+    }
+
+    /**
+     * Sets whether core and dead features and unreferenced variables are removed before sampling, see
+     * {@link ReducedModel}.
+     */
+    public void setReduceModel(boolean reduceModel) {
+        this.reduceModel = reduceModel;
+    }
+
+    public boolean isCollapseAtomicSets() {
+        return collapseAtomicSets;
+    }
+
+    /**
+     * Sets whether features that always have the same value are sampled as one variable, see {@link ReducedModel}.
+     */
+    public void setCollapseAtomicSets(boolean collapseAtomicSets) {
+        this.collapseAtomicSets = collapseAtomicSets;
+    }
+
+    public ISamplingListener getSamplingListener() {
+        return samplingListener;
+    }
+
+    /**
+     * Sets a listener that receives the phase, the number of configurations, and the coverage while sampling.
+     * Sampling with a listener runs in rounds, see {@link #setBatchSize(int)}.
+     */
+    public void setSamplingListener(ISamplingListener samplingListener) {
+        this.samplingListener = samplingListener;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
 
+    /**
+     * Sets the number of bytes for recording covered interactions while sampling in rounds or minimizing, 0 for the
+     * default limit of {@link InteractionCoverage#getDefaultMaxMemory()}. Beyond it, interactions are enumerated on
+     * the fly.
+     */
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public SampleCache getSampleCache() {
+        return sampleCache;
+    }
+
+    /**
+     * Sets the cache that is checked before sampling and receives every finished sample, {@code null} for no cache.
+     */
+    public void setSampleCache(SampleCache sampleCache) {
+        this.sampleCache = sampleCache;
+    }
+
+    /**
+     * Passes the settings of this sampling addition on to the given command.
+     */
+    <T extends ASamplingAdditionCommand> T configure(T command) {
+        command.setThreads(threads);
+        command.setRandomSeed(randomSeed);
+        command.setInitialSample(initialSample);
+        command.setRepairInitialSample(repairInitialSample);
+        command.setSampleSink(sampleSink);
+        command.setBatchSize(batchSize);
+        command.setReportPath(reportPath);
+        command.setTimeLimit(timeLimit);
+        command.setTargetCoverage(targetCoverage);
+        command.setMinimize(minimize);
+        command.setReduceModel(reduceModel);
+        command.setCollapseAtomicSets(collapseAtomicSets);
+        command.setSamplingListener(samplingListener);
+        command.setMaxMemory(maxMemory);
+        command.setSampleCache(sampleCache);
+        command.setCancellation(CANCELLATION.get());
+        return command;
+    }
+
+    public abstract Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel);
+
+    /**
+     * Samples the given feature model. The clause list of the model is computed once and shared through the
+     * {@link SamplingContext} of the model's formula with all later samplings of a model with the same content.
+     */
     public Result<BooleanAssignmentList> computeSample(IFeatureModel featureModel) {
-        return computeSample(Computations.of(featureModel)
+        CNFCache cache = cnfCache;
+        // the model may have changed since the last sampling, so its context is identified by its formula
+        IFormula formula = Computations.of(featureModel)
                 .map(ComputeFormula::new)
-                .map(ComputeNNFFormula::new)
-                .map(ComputeCNFFormula::new)
-                .map(ComputeBooleanClauseList::new)
                 .computeResult()
-                .orElseThrow());
+                .orElseThrow();
+        String modelContent = formula.print();
+        SamplingContext context = SamplingContext.of(modelContent, () -> {
+                    Supplier<Result<BooleanAssignmentList>> transformation = () -> Computations.of(formula)
+                            .map(ComputeNNFFormula::new)
+                            .map(ComputeCNFFormula::new)
+                            .map(ComputeBooleanClauseList::new)
+                            .computeResult();
+                    return cache == null ? transformation.get() : cache.get(modelContent, transformation);
+                })
+                .orElseThrow();
+        return computeSample(context.getClauseList());
+    }
+
+    /**
+     * Samples the given feature model on a shared pool of daemon threads, see
+     * {@link #computeSampleAsync(IFeatureModel, Executor)}.
+     */
+    public CompletableFuture<BooleanAssignmentList> computeSampleAsync(IFeatureModel featureModel) {
+        return computeSampleAsync(featureModel, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Samples the given feature model on the given executor. As the sampling can be cancelled, it always runs in
+     * rounds, so the sample is the same as the one of {@link #computeSample(IFeatureModel)} with the same settings
+     * and a {@link #setSamplingListener(ISamplingListener) listener}, which may differ from the sample without one.
+     * Cancelling the returned future completes it immediately and stops the sampling before its next round.
+     */
+    public CompletableFuture<BooleanAssignmentList> computeSampleAsync(IFeatureModel featureModel, Executor executor) {
+        return computeSampleAsync(() -> computeSample(featureModel), executor);
+    }
+
+    public CompletableFuture<BooleanAssignmentList> computeSampleAsync(BooleanAssignmentList featureModel) {
+        return computeSampleAsync(featureModel, DEFAULT_EXECUTOR);
+    }
+
+    public CompletableFuture<BooleanAssignmentList> computeSampleAsync(
+            BooleanAssignmentList featureModel, Executor executor) {
+        return computeSampleAsync(() -> computeSample(featureModel), executor);
+    }
+
+    private CompletableFuture<BooleanAssignmentList> computeSampleAsync(
+            Supplier<Result<BooleanAssignmentList>> sampling, Executor executor) {
+        CompletableFuture<BooleanAssignmentList> future = new CompletableFuture<>();
+        ISamplingListener listener = samplingListener;
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            CANCELLATION.set(future::isCancelled);
+            try {
+                if (listener != null) {
+                    listener.accept(new SamplingEvent(SamplingEvent.Phase.PREPARING, 0, Double.NaN));
+                }
+                BooleanAssignmentList sample = sampling.get().orElseThrow();
+                if (listener != null) {
+                    listener.accept(new SamplingEvent(SamplingEvent.Phase.FINISHED, sample.size(), Double.NaN));
+                }
+                future.complete(sample);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                CANCELLATION.remove();
+            }
+        });
+        return future;
     }
 }
@@ -37,6 +37,6 @@ public class CardinalitySampling extends ASamplingAddition {
 
     @Override
     public Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel) {
-        return new CardinalitySamplingCommand().computeSample(featureModel, cardinalityMap, t, iterations);
+        return configure(new CardinalitySamplingCommand()).computeSample(featureModel, cardinalityMap, t, iterations);
     }
 }
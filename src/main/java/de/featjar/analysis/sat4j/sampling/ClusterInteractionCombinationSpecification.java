@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.combination.ICombinationSpecification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The interactions of all cluster interactions of a sampling run in a single specification.
+ * A cluster with weight w is combined with every (w-1)-wise interaction of the variables that do not occur in the
+ * cluster. All clusters share one array of the variables of the variable map, and each cluster only stores its
+ * literals and its sorted variables, which are skipped while the interactions are enumerated on demand. Thus, no
+ * literal set of the size of the model is created per cluster.
+ */
+public class ClusterInteractionCombinationSpecification implements ICombinationSpecification {
+
+    private static class Cluster {
+        private final int[] literals;
+        private final int[] variables;
+        private final int t;
+
+        private Cluster(int[] literals, int t) {
+            this.literals = literals;
+            this.t = t;
+            variables = Arrays.stream(literals).map(Math::abs).sorted().toArray();
+        }
+    }
+
+    private VariableMap variableMap;
+    private int[] variables;
+    private final List<Cluster> clusters = new ArrayList<>();
+
+    public ClusterInteractionCombinationSpecification(VariableMap variableMap) {
+        this.variableMap = variableMap;
+        // shuffling reorders the shared variables, so they must not be the array of the variable map
+        variables = variableMap.getVariables().get().clone();
+    }
+
+    /**
+     * Adds a cluster that is combined with every interaction of t variables outside of the cluster.
+     * @param cluster the literals of the cluster
+     * @param t the weight of the cluster minus one
+     */
+    public void addCluster(BooleanAssignment cluster, int t) {
+        clusters.add(new Cluster(cluster.get(), Math.max(0, t)));
+    }
+
+    public int size() {
+        return clusters.size();
+    }
+
+    @Override
+    public int maxT() {
+        return clusters.stream()
+                .mapToInt(cluster -> cluster.literals.length + cluster.t)
+                .max()
+                .orElse(0);
+    }
+
+    @Override
+    public long loopCount() {
+        long count = 0;
+        for (Cluster cluster : clusters) {
+            count += getInteractionCount(cluster);
+        }
+        return count;
+    }
+
+    private long getInteractionCount(Cluster cluster) {
+        int variableCount = variables.length - cluster.variables.length;
+        long count = 1;
+        for (int i = 0; i < cluster.t; i++) {
+            count = count * (variableCount - i) / (i + 1);
+        }
+        return count << cluster.t;
+    }
+
+    @Override
+    public void shuffle(Random random) {
+        Collections.shuffle(clusters, random);
+        for (int i = variables.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int variable = variables[i];
+            variables[i] = variables[j];
+            variables[j] = variable;
+        }
+    }
+
+    @Override
+    public Stream<int[]> stream() {
+        return clusters.stream().flatMap(cluster -> StreamSupport.stream(
+                Spliterators.spliterator(
+                        new InteractionIterator(cluster), getInteractionCount(cluster), Spliterator.NONNULL),
+                false));
+    }
+
+    public void forEach(Consumer<int[]> consumer) {
+        stream().forEach(consumer);
+    }
+
+    @Override
+    public VariableMap variableMap() {
+        return variableMap;
+    }
+
+    @Override
+    public void adapt(VariableMap newVariableMap) {
+        for (int i = 0; i < clusters.size(); i++) {
+            Cluster cluster = clusters.get(i);
+            int[] literals = Arrays.stream(cluster.literals)
+                    .map(literal -> {
+                        String name = variableMap.get(Math.abs(literal)).orElseThrow();
+                        int variable = newVariableMap.get(name).orElseThrow();
+                        return literal > 0 ? variable : -variable;
+                    })
+                    .toArray();
+            clusters.set(i, new Cluster(literals, cluster.t));
+        }
+        variableMap = newVariableMap;
+        variables = newVariableMap.getVariables().get().clone();
+    }
+
+    /**
+     * Enumerates the interactions of one cluster: every combination of t variables that are not in the cluster,
+     * each in all 2^t sign combinations, together with the literals of the cluster.
+     */
+    private class InteractionIterator implements Iterator<int[]> {
+        private final Cluster cluster;
+        private final int[] positions;
+        private int signs;
+        private boolean hasNext;
+
+        private InteractionIterator(Cluster cluster) {
+            this.cluster = cluster;
+            positions = new int[cluster.t];
+            int position = -1;
+            hasNext = true;
+            for (int i = 0; i < positions.length; i++) {
+                position = nextAllowedPosition(position + 1);
+                if (position == variables.length) {
+                    hasNext = false;
+                    break;
+                }
+                positions[i] = position;
+            }
+        }
+
+        private int nextAllowedPosition(int position) {
+            while (position < variables.length
+                    && Arrays.binarySearch(cluster.variables, Math.abs(variables[position])) >= 0) {
+                position++;
+            }
+            return position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            int[] interaction = Arrays.copyOf(cluster.literals, cluster.literals.length + cluster.t);
+            for (int i = 0; i < cluster.t; i++) {
+                int variable = variables[positions[i]];
+                interaction[cluster.literals.length + i] = (signs & (1 << i)) == 0 ? variable : -variable;
+            }
+            advance();
+            return interaction;
+        }
+
+        private void advance() {
+            if (++signs < 1 << cluster.t) {
+                return;
+            }
+            signs = 0;
+            // the rightmost position that can still move right, followed by the next allowed positions
+            for (int i = cluster.t - 1; i >= 0; i--) {
+                int position = nextAllowedPosition(positions[i] + 1);
+                int j = i;
+                while (j < cluster.t && position < variables.length) {
+                    positions[j++] = position;
+                    position = nextAllowedPosition(position + 1);
+                }
+                if (j == cluster.t) {
+                    return;
+                }
+            }
+            hasNext = false;
+        }
+    }
+}
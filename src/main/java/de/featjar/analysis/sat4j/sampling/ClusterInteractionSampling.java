@@ -20,7 +20,7 @@
  */
 package de.featjar.analysis.sat4j.sampling;
 
-import de.featjar.analysis.sat4j.cli.CardinalitySamplingCommand;
+import de.featjar.analysis.sat4j.cli.ClusterInteractionSamplingCommand;
 import de.featjar.base.data.Result;
 import de.featjar.formula.assignment.BooleanAssignmentList;
 import de.featjar.formula.assignment.BooleanAssignmentValueMap;
@@ -30,13 +30,14 @@ public class ClusterInteractionSampling extends ASamplingAddition {
     private final int t;
     private final BooleanAssignmentValueMap clusterInteractionMap;
 
-    public ClusterInteractionSampling(int t, BooleanAssignmentValueMap cardinalityMap) {
+    public ClusterInteractionSampling(int t, BooleanAssignmentValueMap clusterInteractionMap) {
         this.t = t;
-        this.clusterInteractionMap = cardinalityMap;
+        this.clusterInteractionMap = clusterInteractionMap;
     }
 
     @Override
     public Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel) {
-        return new CardinalitySamplingCommand().computeSample(featureModel, clusterInteractionMap, t, iterations);
+        return configure(new ClusterInteractionSamplingCommand())
+                .computeSample(featureModel, clusterInteractionMap, t, iterations);
     }
 }
@@ -0,0 +1,564 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.combination.BooleanAssignmentListCombinationSpecification;
+import de.featjar.formula.combination.ICombinationSpecification;
+import de.featjar.formula.combination.MultiCombinationSpecification;
+import de.featjar.formula.combination.VariableCombinationSpecification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Collects the combination specifications of a sampling run and removes redundant ones before they are handed to
+ * YASA.
+ * Duplicates are removed, specifications already covered by the global t-wise specification are dropped, and
+ * variable groups are merged where this does not change the set of interactions.
+ * Removed entries can be queried with {@link #getRemovedEntries()}.
+ */
+public class CombinationSpecificationOptimizer {
+
+    private static class VariableGroup {
+        private final int t;
+        private final int[] variables;
+        private final String origin;
+
+        private VariableGroup(int t, int[] variables, String origin) {
+            this.t = t;
+            this.variables = variables;
+            this.origin = origin;
+        }
+    }
+
+    private static class ValuedCluster {
+        private final BooleanAssignment cluster;
+        private int value;
+
+        private ValuedCluster(BooleanAssignment cluster, int value) {
+            this.cluster = cluster;
+            this.value = value;
+        }
+    }
+
+    private int globalT;
+    private final VariableMap variableMap;
+
+    private final List<VariableGroup> variableGroups = new ArrayList<>();
+    private final Map<List<Integer>, BooleanAssignment> priorityClusters = new LinkedHashMap<>();
+    private final Map<List<Integer>, ValuedCluster> clusterInteractions = new LinkedHashMap<>();
+    private final Map<List<Integer>, ValuedCluster> cardinalities = new LinkedHashMap<>();
+
+    private final List<String> removedEntries = new ArrayList<>();
+    private boolean optimized = false;
+
+    public CombinationSpecificationOptimizer(VariableMap variableMap) {
+        this.variableMap = variableMap;
+    }
+
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * Sets the global t-wise specification over all variables of the variable map.
+     * @param t the global t; values smaller than one disable global t-wise coverage
+     */
+    public void setGlobalT(int t) {
+        globalT = Math.max(0, t);
+        optimized = false;
+    }
+
+    public int getGlobalT() {
+        return globalT;
+    }
+
+    public void addVariableGroup(int t, int[] variables, String origin) {
+        variableGroups.add(new VariableGroup(t, sortedCopy(variables), origin));
+        optimized = false;
+    }
+
+    public void addPriorityCluster(BooleanAssignment cluster) {
+        if (priorityClusters.putIfAbsent(key(cluster), cluster) != null) {
+            removedEntries.add("duplicate priority cluster " + cluster);
+        }
+        optimized = false;
+    }
+
+    public void addClusterInteraction(BooleanAssignment cluster, int weight) {
+        mergeValuedCluster(clusterInteractions, cluster, weight, "cluster interaction");
+        optimized = false;
+    }
+
+    /**
+     * Adds a cardinality requirement for the given cluster.
+     * YASA only covers the cluster once, the remaining occurrences are added by
+     * {@link ComputeCardinalityCompletion} based on {@link #getCardinalityRequirements()}.
+     */
+    public void addCardinality(BooleanAssignment cluster, int cardinality) {
+        mergeValuedCluster(cardinalities, cluster, cardinality, "cardinality");
+        optimized = false;
+    }
+
+    /**
+     * Returns the descriptions of all entries that were removed as duplicate or subsumed.
+     */
+    public List<String> getRemovedEntries() {
+        optimize();
+        return Collections.unmodifiableList(removedEntries);
+    }
+
+    /**
+     * Returns a new list of the remaining combination specifications.
+     * Each call creates new specification instances, so that they can be used by independent YASA runs.
+     */
+    public List<ICombinationSpecification> getCombinationSpecifications() {
+        optimize();
+        List<ICombinationSpecification> combinationsList = new ArrayList<>();
+        if (globalT > 0) {
+            combinationsList.add(new VariableCombinationSpecification(globalT, variableMap));
+        }
+        for (VariableGroup group : variableGroups) {
+            combinationsList.add(new VariableCombinationSpecification(group.t, group.variables, variableMap));
+        }
+        List<BooleanAssignment> clusters = new ArrayList<>(priorityClusters.values());
+        for (ValuedCluster entry : cardinalities.values()) {
+            if (entry.cluster.size() > globalT) {
+                clusters.add(entry.cluster);
+            }
+        }
+        if (!clusters.isEmpty()) {
+            combinationsList.add(new BooleanAssignmentListCombinationSpecification(
+                    new BooleanAssignmentList(variableMap, clusters.toArray(new BooleanAssignment[0]))));
+        }
+        if (!clusterInteractions.isEmpty()) {
+            // one lazy specification for all clusters, which share the variables of the model
+            ClusterInteractionCombinationSpecification clusterInteractionSpecification =
+                    new ClusterInteractionCombinationSpecification(variableMap);
+            for (ValuedCluster entry : clusterInteractions.values()) {
+                clusterInteractionSpecification.addCluster(entry.cluster, entry.value - 1);
+            }
+            combinationsList.add(clusterInteractionSpecification);
+        }
+        return combinationsList;
+    }
+
+    /**
+     * Returns a new multi combination specification containing all remaining combination specifications.
+     */
+    public ICombinationSpecification getCombinationSpecification() {
+        return new MultiCombinationSpecification(getCombinationSpecifications());
+    }
+
+    /**
+     * Distributes the remaining entries round-robin over the given number of new optimizers, e.g., for sampling them
+     * in separate processes. The global t-wise specification belongs to the first optimizer. Cardinalities become
+     * priority clusters, as YASA only covers them once and their remaining occurrences are completed on the merged
+     * sample.
+     */
+    public List<CombinationSpecificationOptimizer> split(int parts) {
+        optimize();
+        List<CombinationSpecificationOptimizer> optimizers = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            optimizers.add(new CombinationSpecificationOptimizer(variableMap));
+        }
+        optimizers.get(0).setGlobalT(globalT);
+        // the first optimizer already has the global specification, which is usually the largest one
+        int part = 1;
+        for (VariableGroup group : variableGroups) {
+            optimizers.get(part++ % parts).addVariableGroup(group.t, group.variables, group.origin);
+        }
+        for (BooleanAssignment cluster : priorityClusters.values()) {
+            optimizers.get(part++ % parts).addPriorityCluster(cluster);
+        }
+        for (ValuedCluster entry : cardinalities.values()) {
+            if (entry.cluster.size() > globalT) {
+                optimizers.get(part++ % parts).addPriorityCluster(entry.cluster);
+            }
+        }
+        for (ValuedCluster entry : clusterInteractions.values()) {
+            optimizers.get(part++ % parts).addClusterInteraction(entry.cluster, entry.value);
+        }
+        return optimizers;
+    }
+
+    /**
+     * Returns the remaining variable groups, each as a cluster of its variables with its t as value.
+     */
+    BooleanAssignmentValueMap getVariableGroupMap() {
+        optimize();
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(variableMap);
+        for (VariableGroup group : variableGroups) {
+            map.add(new BooleanAssignment(group.variables), group.t);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the remaining priority clusters, each with the value one.
+     */
+    BooleanAssignmentValueMap getPriorityClusterMap() {
+        optimize();
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(variableMap);
+        for (BooleanAssignment cluster : priorityClusters.values()) {
+            map.add(cluster, 1);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the remaining cluster interactions with their weights.
+     */
+    BooleanAssignmentValueMap getClusterInteractionMap() {
+        optimize();
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMap(variableMap);
+        for (ValuedCluster entry : clusterInteractions.values()) {
+            map.add(entry.cluster, entry.value);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the variables that occur in any interaction of the remaining specifications.
+     * The global t-wise specification and cluster interactions reference all variables.
+     */
+    public int[] getReferencedVariables() {
+        optimize();
+        if (globalT > 0 || !clusterInteractions.isEmpty()) {
+            return variableMap.getVariables().get();
+        }
+        return Stream.of(
+                        variableGroups.stream().flatMapToInt(group -> Arrays.stream(group.variables)),
+                        priorityClusters.values().stream()
+                                .flatMapToInt(cluster -> Arrays.stream(cluster.getAbsoluteValues())),
+                        cardinalities.values().stream()
+                                .flatMapToInt(entry -> Arrays.stream(entry.cluster.getAbsoluteValues())))
+                .flatMapToInt(variables -> variables)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Creates an optimizer with the same entries over the variables of the given reduced model.
+     * Fixed literals are removed from clusters and literals of collapsed variables are replaced by their
+     * representative. Clusters that contradict a fixed literal cannot be covered and are
+     * dropped, as are priority clusters and cluster interactions that only consist of fixed literals, which every
+     * configuration contains. Such cardinalities are kept with an empty cluster, as they still require a minimum
+     * number of configurations.
+     */
+    public CombinationSpecificationOptimizer reduce(ReducedModel model) {
+        CombinationSpecificationOptimizer reduced =
+                new CombinationSpecificationOptimizer(model.getReducedVariableMap());
+        reduced.setGlobalT(globalT);
+        for (VariableGroup group : variableGroups) {
+            int[] variables = Arrays.stream(group.variables)
+                    .map(variable -> Math.abs(model.reduce(variable)))
+                    .filter(variable -> variable != 0)
+                    .distinct()
+                    .toArray();
+            reduced.addVariableGroup(group.t, variables, group.origin);
+        }
+        for (BooleanAssignment cluster : priorityClusters.values()) {
+            BooleanAssignment reducedCluster = reduced.reduce(model, cluster, "priority cluster " + cluster, false);
+            if (reducedCluster != null) {
+                reduced.addPriorityCluster(reducedCluster);
+            }
+        }
+        for (ValuedCluster entry : clusterInteractions.values()) {
+            BooleanAssignment reducedCluster = reduced.reduce(
+                    model, entry.cluster, "cluster interaction " + entry.cluster + "=" + entry.value, false);
+            if (reducedCluster != null) {
+                reduced.addClusterInteraction(reducedCluster, entry.value);
+            }
+        }
+        for (ValuedCluster entry : cardinalities.values()) {
+            BooleanAssignment reducedCluster =
+                    reduced.reduce(model, entry.cluster, "cardinality " + entry.cluster + "=" + entry.value, true);
+            if (reducedCluster != null) {
+                reduced.addCardinality(reducedCluster, entry.value);
+            }
+        }
+        if (!reduced.removedEntries.isEmpty()) {
+            FeatJAR.log()
+                    .info(() -> "Removed " + reduced.removedEntries.size()
+                            + " combination specification entries during model reduction");
+            for (String entry : reduced.removedEntries) {
+                FeatJAR.log().debug(() -> "Removed " + entry);
+            }
+        }
+        return reduced;
+    }
+
+    private BooleanAssignment reduce(
+            ReducedModel model, BooleanAssignment cluster, String description, boolean keepCoreCluster) {
+        int[] literals = cluster.get();
+        int[] reducedLiterals = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            int fixedLiteral = model.getFixedLiteral(Math.abs(literal));
+            if (fixedLiteral == literal) {
+                continue;
+            }
+            int reducedLiteral = model.reduce(literal);
+            if (fixedLiteral == -literal || reducedLiteral == 0) {
+                removedEntries.add(description + " (contains a dead or removed literal)");
+                return null;
+            }
+            // literals of the same atomic set are collapsed into one literal of their representative
+            boolean duplicate = false;
+            for (int i = 0; i < size; i++) {
+                if (reducedLiterals[i] == -reducedLiteral) {
+                    removedEntries.add(description + " (contradicts an atomic set)");
+                    return null;
+                }
+                duplicate |= reducedLiterals[i] == reducedLiteral;
+            }
+            if (!duplicate) {
+                reducedLiterals[size++] = reducedLiteral;
+            }
+        }
+        if (size == 0 && !keepCoreCluster) {
+            removedEntries.add(description + " (contains only core literals)");
+            return null;
+        }
+        return new BooleanAssignment(Arrays.copyOf(reducedLiterals, size));
+    }
+
+    /**
+     * Returns the interactions of all remaining specifications as coverage requirements, e.g., for checking the
+     * coverage of a sample.
+     */
+    public List<CoverageRequirement> getCoverageRequirements() {
+        optimize();
+        List<CoverageRequirement> requirements = new ArrayList<>();
+        int[] allVariables = variableMap.getVariables().get();
+        if (globalT > 0) {
+            requirements.add(
+                    new CoverageRequirement("global " + globalT + "-wise", new int[0], globalT, allVariables, 1));
+        }
+        for (VariableGroup group : variableGroups) {
+            requirements.add(new CoverageRequirement(describe(group), new int[0], group.t, group.variables, 1));
+        }
+        for (BooleanAssignment cluster : priorityClusters.values()) {
+            requirements.add(
+                    new CoverageRequirement("priority cluster " + cluster, cluster.get(), 0, new int[0], 1));
+        }
+        for (ValuedCluster entry : clusterInteractions.values()) {
+            requirements.add(new CoverageRequirement(
+                    "cluster interaction " + entry.cluster + "=" + entry.value,
+                    entry.cluster.get(),
+                    entry.value - 1,
+                    allVariables,
+                    sortedCopy(entry.cluster.getAbsoluteValues()),
+                    1));
+        }
+        for (ValuedCluster entry : cardinalities.values()) {
+            requirements.add(new CoverageRequirement(
+                    "cardinality " + entry.cluster + "=" + entry.value,
+                    entry.cluster.get(),
+                    0,
+                    new int[0],
+                    entry.value));
+        }
+        return requirements;
+    }
+
+    /**
+     * Returns the cardinality requirements that need more than one occurrence.
+     */
+    public List<CoverageRequirement> getCardinalityRequirements() {
+        optimize();
+        List<CoverageRequirement> requirements = new ArrayList<>();
+        for (ValuedCluster entry : cardinalities.values()) {
+            if (entry.value > 1) {
+                requirements.add(new CoverageRequirement(
+                        "cardinality " + entry.cluster + "=" + entry.value,
+                        entry.cluster.get(),
+                        0,
+                        new int[0],
+                        entry.value));
+            }
+        }
+        return requirements;
+    }
+
+    private void optimize() {
+        if (optimized) {
+            return;
+        }
+        optimized = true;
+        int removedBefore = removedEntries.size();
+
+        optimizeVariableGroups();
+
+        // any interaction with at most globalT literals is already covered by the global specification
+        priorityClusters.values().removeIf(cluster -> {
+            if (cluster.size() <= globalT) {
+                removedEntries.add("priority cluster " + cluster + " (covered by global " + globalT + "-wise)");
+                return true;
+            }
+            ValuedCluster cardinality = cardinalities.get(key(cluster));
+            if (cardinality != null && cardinality.value > 0) {
+                removedEntries.add("priority cluster " + cluster + " (covered by cardinality "
+                        + cardinality.value + ")");
+                return true;
+            }
+            return false;
+        });
+        clusterInteractions.values().removeIf(entry -> {
+            if (entry.value <= 0) {
+                removedEntries.add("cluster interaction " + entry.cluster + " (weight " + entry.value + ")");
+                return true;
+            }
+            if (entry.value - 1 + entry.cluster.size() <= globalT) {
+                removedEntries.add("cluster interaction " + entry.cluster + "=" + entry.value + " (covered by global "
+                        + globalT + "-wise)");
+                return true;
+            }
+            return false;
+        });
+        cardinalities.values().removeIf(entry -> {
+            if (entry.value <= 0) {
+                removedEntries.add("cardinality " + entry.cluster + " (cardinality " + entry.value + ")");
+                return true;
+            }
+            if (entry.value == 1 && globalT > 0 && entry.cluster.size() <= globalT) {
+                removedEntries.add(
+                        "cardinality " + entry.cluster + "=1 (covered by global " + globalT + "-wise)");
+                return true;
+            }
+            return false;
+        });
+
+        int removedCount = removedEntries.size() - removedBefore;
+        if (removedCount > 0) {
+            FeatJAR.log().info(() -> "Removed " + removedCount + " redundant combination specification entries");
+            for (String entry : removedEntries.subList(removedBefore, removedEntries.size())) {
+                FeatJAR.log().debug(() -> "Removed " + entry);
+            }
+        }
+    }
+
+    private void optimizeVariableGroups() {
+        List<VariableGroup> candidates = new ArrayList<>();
+        List<VariableGroup> oneWiseGroups = new ArrayList<>();
+        for (VariableGroup group : variableGroups) {
+            if (group.t <= 0 || group.variables.length == 0) {
+                removedEntries.add(describe(group) + " (empty)");
+            } else if (group.t <= globalT) {
+                removedEntries.add(describe(group) + " (covered by global " + globalT + "-wise)");
+            } else if (group.t == 1) {
+                oneWiseGroups.add(group);
+            } else {
+                candidates.add(group);
+            }
+        }
+
+        // 1-wise coverage of a union equals the union of the 1-wise coverages
+        if (oneWiseGroups.size() > 1) {
+            int[] union = oneWiseGroups.stream()
+                    .flatMapToInt(group -> Arrays.stream(group.variables))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            String origins = oneWiseGroups.stream().map(group -> group.origin).collect(Collectors.joining(", "));
+            for (VariableGroup group : oneWiseGroups) {
+                removedEntries.add(describe(group) + " (merged into one 1-wise group)");
+            }
+            candidates.add(new VariableGroup(1, union, origins));
+        } else {
+            candidates.addAll(oneWiseGroups);
+        }
+
+        // a group is subsumed by any group with at least the same t over a superset of its variables
+        candidates.sort(Comparator.<VariableGroup>comparingInt(group -> group.t)
+                .thenComparingInt(group -> group.variables.length)
+                .reversed());
+        List<VariableGroup> kept = new ArrayList<>();
+        for (VariableGroup group : candidates) {
+            VariableGroup subsumer = null;
+            for (VariableGroup other : kept) {
+                if (other.t >= group.t && containsAll(other.variables, group.variables)) {
+                    subsumer = other;
+                    break;
+                }
+            }
+            if (subsumer == null) {
+                kept.add(group);
+            } else {
+                removedEntries.add(describe(group) + " (covered by " + describe(subsumer) + ")");
+            }
+        }
+        variableGroups.clear();
+        variableGroups.addAll(kept);
+    }
+
+    private void mergeValuedCluster(
+            Map<List<Integer>, ValuedCluster> clusters, BooleanAssignment cluster, int value, String name) {
+        ValuedCluster existing = clusters.get(key(cluster));
+        if (existing == null) {
+            clusters.put(key(cluster), new ValuedCluster(cluster, value));
+        } else {
+            // a larger weight or cardinality implies every smaller one
+            removedEntries.add("duplicate " + name + " " + cluster + "=" + Math.min(existing.value, value));
+            existing.value = Math.max(existing.value, value);
+        }
+    }
+
+    private static String describe(VariableGroup group) {
+        return group.t + "-wise variable group " + Arrays.toString(group.variables) + " from " + group.origin;
+    }
+
+    private static boolean containsAll(int[] sortedSuperset, int[] sortedSubset) {
+        int i = 0;
+        for (int element : sortedSubset) {
+            while (i < sortedSuperset.length && sortedSuperset[i] < element) {
+                i++;
+            }
+            if (i == sortedSuperset.length || sortedSuperset[i] != element) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] sortedCopy(int[] array) {
+        int[] copy = Arrays.copyOf(array, array.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static List<Integer> key(BooleanAssignment cluster) {
+        return Arrays.stream(sortedCopy(cluster.get())).boxed().collect(Collectors.toList());
+    }
+}
@@ -37,6 +37,8 @@ public class CombinedSampling extends ASamplingAddition {
     public CombinedSampling(CombinedSamplingBuilder combinedSamplingBuilder) {
         this.t = combinedSamplingBuilder.t;
         this.iterations = combinedSamplingBuilder.iterations;
+        this.threads = combinedSamplingBuilder.threads;
+        this.randomSeed = combinedSamplingBuilder.randomSeed;
         this.priorityMap = combinedSamplingBuilder.priorityMap;
         this.cardinalityMap = combinedSamplingBuilder.cardinalityMap;
         this.clusterInteractionMap = combinedSamplingBuilder.clusterInteractionMap;
@@ -45,7 +47,7 @@ public class CombinedSampling extends ASamplingAddition {
 
     @Override
     public Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel) {
-        return new CombinedSamplingCommand()
+        return configure(new CombinedSamplingCommand())
                 .computeSample(
                         featureModel, clusterInteractionMap, priorityMap, weightMap, cardinalityMap, t, iterations);
     }
@@ -53,6 +55,8 @@ public class CombinedSampling extends ASamplingAddition {
     public static class CombinedSamplingBuilder {
         private int t = 1;
         private int iterations = 1;
+        private int threads = 1;
+        private Long randomSeed = null;
         private BooleanAssignmentValueMap priorityMap = new BooleanAssignmentValueMap(new VariableMap());
         private BooleanAssignmentValueMap cardinalityMap = new BooleanAssignmentValueMap(new VariableMap());
         private BooleanAssignmentValueMap clusterInteractionMap = new BooleanAssignmentValueMap(new VariableMap());
@@ -68,6 +72,16 @@ public class CombinedSampling extends ASamplingAddition {
             return this;
         }
 
+        public CombinedSamplingBuilder setThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public CombinedSamplingBuilder setRandomSeed(Long randomSeed) {
+            this.randomSeed = randomSeed;
+            return this;
+        }
+
         public CombinedSamplingBuilder setPriorityMap(BooleanAssignmentValueMap priorityMap) {
             this.priorityMap = priorityMap;
             return this;
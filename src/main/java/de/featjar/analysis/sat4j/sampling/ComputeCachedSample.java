@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.io.SampleCache;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.List;
+
+/**
+ * Stores a finished sample in a {@link SampleCache} and passes it on unchanged.
+ */
+public class ComputeCachedSample extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<SampleCache> SAMPLE_CACHE = Dependency.newDependency(SampleCache.class);
+    public static final Dependency<SampleCache.Key> KEY = Dependency.newDependency(SampleCache.Key.class);
+
+    public ComputeCachedSample(IComputation<BooleanAssignmentList> sample, SampleCache cache, SampleCache.Key key) {
+        super(sample, Computations.of(cache), Computations.of(key));
+    }
+
+    protected ComputeCachedSample(ComputeCachedSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList sample = SAMPLE.get(dependencyList);
+        SAMPLE_CACHE.get(dependencyList).store(KEY.get(dependencyList), sample);
+        return Result.of(sample);
+    }
+}
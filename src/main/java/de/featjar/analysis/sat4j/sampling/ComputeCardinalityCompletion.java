@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds configurations to a sample until each cardinality cluster is contained in at least the required number of
+ * distinct configurations.
+ * Occurrences are counted in a {@link SampleIndex} of the sample and in the solutions added so far. Missing
+ * occurrences are generated by a single incremental solver that gets the cluster as assumptions and a blocking clause
+ * for every configuration in the sample, so the original clause list is never changed and no artificial variables are
+ * necessary.
+ */
+public class ComputeCardinalityCompletion extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<BooleanAssignmentList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+
+    public ComputeCardinalityCompletion(
+            IComputation<BooleanAssignmentList> sample,
+            BooleanAssignmentList booleanClauseList,
+            CombinationSpecificationOptimizer optimizer) {
+        super(sample, Computations.of(booleanClauseList), Computations.of(optimizer));
+    }
+
+    protected ComputeCardinalityCompletion(ComputeCardinalityCompletion other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList sample = SAMPLE.get(dependencyList);
+        BooleanAssignmentList booleanClauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+
+        BooleanAssignmentList completedSample = new BooleanAssignmentList(sample.getVariableMap());
+        sample.getAll().forEach(completedSample::add);
+        complete(booleanClauseList, completedSample, optimizer.getCardinalityRequirements())
+                .getAll()
+                .forEach(completedSample::add);
+        return Result.of(completedSample);
+    }
+
+    /**
+     * Computes the configurations that are missing for the given cardinality requirements.
+     * @param booleanClauseList the clause list of the feature model
+     * @param sample the current sample
+     * @param requirements the cardinality requirements
+     * @return the new configurations, which are not added to the sample
+     */
+    public static BooleanAssignmentList complete(
+            BooleanAssignmentList booleanClauseList,
+            BooleanAssignmentList sample,
+            List<CoverageRequirement> requirements) {
+        int variableCount = booleanClauseList.getVariableMap().size();
+        BooleanAssignmentList newConfigurations = new BooleanAssignmentList(sample.getVariableMap());
+        // the solutions of the new configurations, one literal per variable
+        List<int[]> newSolutions = new ArrayList<>();
+        SampleIndex index = new SampleIndex(sample.getAll(), variableCount);
+        IncrementalSolver solver = new IncrementalSolver(booleanClauseList);
+        for (BooleanAssignment configuration : sample.getAll()) {
+            solver.block(configuration);
+        }
+        for (CoverageRequirement requirement : requirements) {
+            int[] cluster = requirement.getFixedLiterals();
+            int count = index.getAll(cluster).cardinality();
+            for (int[] solution : newSolutions) {
+                if (containsAll(solution, cluster)) {
+                    count++;
+                }
+            }
+
+            while (count < requirement.getMinimumCount()) {
+                Result<int[]> solution = solver.solve(cluster);
+                if (solution.isEmpty()) {
+                    int reached = count;
+                    if (solution.getProblems().isEmpty()) {
+                        FeatJAR.log()
+                                .warning(() -> requirement.getLabel() + " is only contained in " + reached
+                                        + " distinct valid configurations");
+                    } else {
+                        FeatJAR.log()
+                                .warning(() -> "Could not complete " + requirement.getLabel() + ": "
+                                        + solution.getProblems());
+                    }
+                    break;
+                }
+                BooleanAssignment configuration = new BooleanAssignment(solution.get());
+                newSolutions.add(solution.get());
+                newConfigurations.add(configuration);
+                solver.block(configuration);
+                count++;
+            }
+        }
+        return newConfigurations;
+    }
+
+    private static boolean containsAll(int[] solution, int[] cluster) {
+        for (int literal : cluster) {
+            if (solution[Math.abs(literal) - 1] != literal) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
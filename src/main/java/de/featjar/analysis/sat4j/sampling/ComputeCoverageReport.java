@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a {@link CoverageReport} for a sample and returns the sample unchanged.
+ * Uncovered interactions are checked for feasibility in the clause list of the feature model.
+ */
+public class ComputeCoverageReport extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<BooleanAssignmentList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+    public static final Dependency<Path> REPORT_PATH = Dependency.newDependency(Path.class);
+
+    public ComputeCoverageReport(
+            IComputation<BooleanAssignmentList> sample,
+            BooleanAssignmentList booleanClauseList,
+            CombinationSpecificationOptimizer optimizer,
+            Path reportPath) {
+        super(sample, Computations.of(booleanClauseList), Computations.of(optimizer), Computations.of(reportPath));
+    }
+
+    protected ComputeCoverageReport(ComputeCoverageReport other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList sample = SAMPLE.get(dependencyList);
+        BooleanAssignmentList booleanClauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+        Path reportPath = REPORT_PATH.get(dependencyList);
+        CoverageReport report = CoverageReport.compute(optimizer.getCoverageRequirements(), sample, booleanClauseList);
+        try {
+            report.write(reportPath);
+        } catch (IOException e) {
+            FeatJAR.log().warning(() -> "Could not write coverage report " + reportPath + ": " + e.getMessage());
+        }
+        return Result.of(sample);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Orders a sample by the summed priority of the clusters each configuration contains, highest first.
+ * Configurations with the same score keep their order.
+ * The sample is indexed by literal with a {@link SampleIndex}, so the configurations containing a cluster are found
+ * by and-ing the bitsets of its literals instead of comparing every configuration with every cluster.
+ * Large maps are split into chunks of clusters that are scored on separate threads.
+ */
+public class ComputeIndexedRankedSample extends AComputation<BooleanAssignmentList> {
+
+    /**
+     * Minimum number of clusters per thread.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    public static final Dependency<BooleanAssignmentList> SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<BooleanAssignmentValueMap> PRIORITY_MAP =
+            Dependency.newDependency(BooleanAssignmentValueMap.class);
+    public static final Dependency<Integer> THREADS = Dependency.newDependency(Integer.class);
+
+    public ComputeIndexedRankedSample(
+            IComputation<BooleanAssignmentList> sample, BooleanAssignmentValueMap priorityMap) {
+        super(sample, Computations.of(priorityMap), Computations.of(Runtime.getRuntime().availableProcessors()));
+    }
+
+    protected ComputeIndexedRankedSample(ComputeIndexedRankedSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList sample = SAMPLE.get(dependencyList);
+        BooleanAssignmentValueMap priorityMap = PRIORITY_MAP.get(dependencyList);
+        int threads = Math.max(1, THREADS.get(dependencyList));
+
+        List<Map.Entry<BooleanAssignment, Integer>> clusters = new ArrayList<>(priorityMap.size());
+        for (Map.Entry<BooleanAssignment, Integer> entry : priorityMap) {
+            clusters.add(entry);
+        }
+        SampleIndex index = new SampleIndex(sample);
+        int chunks = Math.max(1, Math.min(threads, clusters.size() / CHUNK_SIZE));
+
+        long[] scores;
+        if (chunks == 1) {
+            scores = score(index, clusters, 0, clusters.size());
+        } else {
+            scores = new long[index.size()];
+            ExecutorService executor = Executors.newFixedThreadPool(chunks);
+            try {
+                List<Future<long[]>> futures = new ArrayList<>(chunks);
+                for (int i = 0; i < chunks; i++) {
+                    int start = (int) ((long) clusters.size() * i / chunks);
+                    int end = (int) ((long) clusters.size() * (i + 1) / chunks);
+                    futures.add(executor.submit(() -> score(index, clusters, start, end)));
+                }
+                for (Future<long[]> future : futures) {
+                    long[] chunkScores = future.get();
+                    for (int i = 0; i < scores.length; i++) {
+                        scores[i] += chunkScores[i];
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Result.empty(e);
+            } catch (ExecutionException e) {
+                return Result.empty(e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        List<? extends BooleanAssignment> configurations = sample.getAll();
+        BooleanAssignmentList rankedSample = new BooleanAssignmentList(sample.getVariableMap());
+        IntStream.range(0, configurations.size())
+                .boxed()
+                .sorted(Comparator.comparingLong(i -> -scores[i]))
+                .collect(Collectors.toList())
+                .forEach(i -> rankedSample.add(configurations.get(i)));
+        return Result.of(rankedSample);
+    }
+
+    private static long[] score(
+            SampleIndex index, List<Map.Entry<BooleanAssignment, Integer>> clusters, int start, int end) {
+        long[] scores = new long[index.size()];
+        for (int i = start; i < end; i++) {
+            Map.Entry<BooleanAssignment, Integer> cluster = clusters.get(i);
+            int value = cluster.getValue();
+            BitSet configurations = index.getAll(cluster.getKey().get());
+            for (int j = configurations.nextSetBit(0); j >= 0; j = configurations.nextSetBit(j + 1)) {
+                scores[j] += value;
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Removes configurations from a sample without losing coverage of any {@link CoverageRequirement}.
+ * Every interaction that the sample covers stays covered, and cardinality requirements keep their number of
+ * occurrences (or all occurrences if the sample has fewer). Interactions that the sample does not cover are ignored.
+ * <p>
+ * The configurations are chosen by greedy set cover: interactions are represented by the bitset of configurations
+ * containing them, interactions with the same bitset are merged, and the configuration satisfying the most open
+ * interactions is chosen next. The selected configurations keep their original order, so a ranking is preserved.
+ * With more than one thread, the interactions are enumerated in parallel.
+ * <p>
+ * If the bitsets may exceed the {@link #MAX_MEMORY}, the configurations are filtered in their order instead: a
+ * configuration is kept if it covers an interaction that the kept configurations do not cover, which only needs an
+ * {@link InteractionCoverage}. If that does not fit either, the sample is returned unchanged.
+ */
+public class ComputeMinimizedSample extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+    public static final Dependency<Integer> THREADS = Dependency.newDependency(Integer.class);
+    /**
+     * Maximum number of bytes for representing the interactions, 0 for the default limit of
+     * {@link InteractionCoverage#getDefaultMaxMemory()}.
+     */
+    public static final Dependency<Long> MAX_MEMORY = Dependency.newDependency(Long.class);
+
+    // estimated bytes of a merged interaction besides its bitset words: bitset, map entry, and set cover lists
+    private static final long DEMAND_OVERHEAD = 88;
+
+    public ComputeMinimizedSample(
+            IComputation<BooleanAssignmentList> sample, CombinationSpecificationOptimizer optimizer) {
+        super(sample, Computations.of(optimizer), Computations.of(1), Computations.of(0L));
+    }
+
+    protected ComputeMinimizedSample(ComputeMinimizedSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList sample = SAMPLE.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+        int threads = Math.max(1, THREADS.get(dependencyList));
+        long configuredMaxMemory = MAX_MEMORY.get(dependencyList);
+        long maxMemory = configuredMaxMemory > 0 ? configuredMaxMemory : InteractionCoverage.getDefaultMaxMemory();
+        List<CoverageRequirement> requirements = optimizer.getCoverageRequirements();
+
+        BitSet selected;
+        if (getDemandBytes(requirements, sample.size()) > maxMemory) {
+            if (!InteractionCoverage.fits(requirements, maxMemory)) {
+                FeatJAR.log()
+                        .warning(() -> "Minimization needs more than " + maxMemory + " bytes, keeping all "
+                                + sample.size() + " configurations");
+                return Result.of(sample);
+            }
+            FeatJAR.log().info(() -> "Minimization may need more than " + maxMemory + " bytes, filtering in order");
+            selected = filter(requirements, sample);
+        } else {
+            SampleIndex index = new SampleIndex(sample);
+            Map<BitSet, Integer> demands = collectDemands(requirements, index, threads);
+            selected = select(demands, index.size());
+        }
+
+        List<? extends BooleanAssignment> configurations = sample.getAll();
+        BooleanAssignmentList minimizedSample = new BooleanAssignmentList(sample.getVariableMap());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            minimizedSample.add(configurations.get(i));
+        }
+        FeatJAR.log()
+                .info(() -> "Minimized sample from " + configurations.size() + " to " + minimizedSample.size()
+                        + " configurations");
+        return Result.of(minimizedSample);
+    }
+
+    /**
+     * Estimates the memory of the merged interactions, assuming that no two interactions are merged.
+     */
+    private static long getDemandBytes(List<CoverageRequirement> requirements, int size) {
+        long interactions = 0;
+        for (CoverageRequirement requirement : requirements) {
+            interactions += requirement.getInteractionCount();
+        }
+        long bytesPerInteraction = DEMAND_OVERHEAD + ((size + 63L) >>> 6) * Long.BYTES;
+        return interactions > Long.MAX_VALUE / bytesPerInteraction
+                ? Long.MAX_VALUE
+                : interactions * bytesPerInteraction;
+    }
+
+    private static BitSet filter(List<CoverageRequirement> requirements, BooleanAssignmentList sample) {
+        InteractionCoverage coverage = new InteractionCoverage(requirements, sample.getVariableMap().size());
+        List<? extends BooleanAssignment> configurations = sample.getAll();
+        BitSet selected = new BitSet(configurations.size());
+        for (int i = 0; i < configurations.size(); i++) {
+            if (coverage.add(configurations.get(i))) {
+                selected.set(i);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Maps the configurations containing an interaction to the number of them that must be kept.
+     */
+    private static Map<BitSet, Integer> collectDemands(
+            List<CoverageRequirement> requirements, SampleIndex index, int threads) {
+        if (threads == 1) {
+            Map<BitSet, Integer> demands = new HashMap<>();
+            for (CoverageRequirement requirement : requirements) {
+                requirement.forEachInteraction(
+                        index, (literals, configurations) -> addDemand(demands, requirement, configurations));
+            }
+            return demands;
+        }
+        Map<BitSet, Integer> demands = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (CoverageRequirement requirement : requirements) {
+                int firstVariables = requirement.getT() == 0 ? 1 : requirement.getVariables().length;
+                pool.submit(() -> IntStream.range(0, firstVariables)
+                                .parallel()
+                                .forEach(first -> requirement.forEachInteraction(
+                                        index,
+                                        first,
+                                        (literals, configurations) -> addDemand(demands, requirement, configurations))))
+                        .join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return demands;
+    }
+
+    private static void addDemand(
+            Map<BitSet, Integer> demands, CoverageRequirement requirement, BitSet configurations) {
+        int count = configurations.cardinality();
+        if (count == 0) {
+            return;
+        }
+        int demand = Math.min(requirement.getMinimumCount(), count);
+        Integer current = demands.get(configurations);
+        if (current == null || current < demand) {
+            // the bitset is reused by the enumeration
+            demands.merge((BitSet) configurations.clone(), Math.max(1, demand), Math::max);
+        }
+    }
+
+    private static BitSet select(Map<BitSet, Integer> demands, int size) {
+        List<BitSet> sets = new ArrayList<>(demands.size());
+        int[] remaining = new int[demands.size()];
+        List<List<Integer>> setsOfConfiguration = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            setsOfConfiguration.add(new ArrayList<>());
+        }
+        for (Map.Entry<BitSet, Integer> demand : demands.entrySet()) {
+            int set = sets.size();
+            sets.add(demand.getKey());
+            remaining[set] = demand.getValue();
+            BitSet configurations = demand.getKey();
+            for (int i = configurations.nextSetBit(0); i >= 0; i = configurations.nextSetBit(i + 1)) {
+                setsOfConfiguration.get(i).add(set);
+            }
+        }
+
+        // lazy greedy: gains only decrease, so a configuration whose updated gain is still the largest is chosen
+        int[] gains = new int[size];
+        PriorityQueue<int[]> queue =
+                new PriorityQueue<>((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+        for (int i = 0; i < size; i++) {
+            gains[i] = setsOfConfiguration.get(i).size();
+            if (gains[i] > 0) {
+                queue.add(new int[] {i, gains[i]});
+            }
+        }
+        BitSet selected = new BitSet(size);
+        while (!queue.isEmpty()) {
+            int[] candidate = queue.poll();
+            int configuration = candidate[0];
+            int gain = 0;
+            for (int set : setsOfConfiguration.get(configuration)) {
+                if (remaining[set] > 0) {
+                    gain++;
+                }
+            }
+            if (gain == 0) {
+                continue;
+            }
+            if (gain < candidate[1]) {
+                queue.add(new int[] {configuration, gain});
+                continue;
+            }
+            selected.set(configuration);
+            for (int set : setsOfConfiguration.get(configuration)) {
+                if (remaining[set] > 0) {
+                    remaining[set]--;
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Merges several samples, e.g., of independent runs, into one sample without duplicates.
+     * Samples with a different variable map are mapped onto the given variable map by name.
+     */
+    public static BooleanAssignmentList union(VariableMap variableMap, List<BooleanAssignmentList> samples) {
+        VariableIndex variableIndex = null;
+        Set<BooleanAssignment> configurations = new LinkedHashSet<>();
+        for (BooleanAssignmentList sample : samples) {
+            if (sample.getVariableMap() != variableMap) {
+                if (variableIndex == null) {
+                    variableIndex = new VariableIndex(variableMap);
+                }
+                Set<String> unknownNames = new LinkedHashSet<>();
+                sample = variableIndex.resolve(sample, unknownNames);
+                VariableIndex.reportUnknownNames("merged sample", unknownNames);
+            }
+            configurations.addAll(sample.getAll());
+        }
+        return new BooleanAssignmentList(variableMap, configurations.toArray(new BooleanAssignment[0]));
+    }
+}
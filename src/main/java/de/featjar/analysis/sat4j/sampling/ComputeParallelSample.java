@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.combination.ICombinationSpecification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every iteration as an independent YASA instance and keeps the smallest sample.
+ * Run i uses the seed {@code RANDOM_SEED + i} and the runs are distributed over the {@link #THREADS}, so the result
+ * only depends on the seed and the number of iterations, but not on the number of threads. With a single iteration,
+ * there is nothing to distribute.
+ * Each run creates its own solver and its own copy of the combination specification.
+ * With {@link #UNION}, the union of all samples is returned instead, e.g., for {@link ComputeMinimizedSample}.
+ */
+public class ComputeParallelSample extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+    public static final Dependency<Integer> ITERATIONS = Dependency.newDependency(Integer.class);
+    public static final Dependency<Integer> THREADS = Dependency.newDependency(Integer.class);
+    public static final Dependency<Long> RANDOM_SEED = Dependency.newDependency(Long.class);
+    public static final Dependency<BooleanAssignmentList> INITIAL_SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<Boolean> UNION = Dependency.newDependency(Boolean.class);
+
+    public ComputeParallelSample(
+            IComputation<BooleanAssignmentList> booleanClauseList, CombinationSpecificationOptimizer optimizer) {
+        super(
+                booleanClauseList,
+                Computations.of(optimizer),
+                Computations.of(1),
+                Computations.of(Runtime.getRuntime().availableProcessors()),
+                Computations.of(0L),
+                Computations.of(new BooleanAssignmentList(new VariableMap())),
+                Computations.of(Boolean.FALSE));
+    }
+
+    protected ComputeParallelSample(ComputeParallelSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList booleanClauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+        int runs = Math.max(1, ITERATIONS.get(dependencyList));
+        int threads = Math.max(1, Math.min(THREADS.get(dependencyList), runs));
+        long seed = RANDOM_SEED.get(dependencyList);
+        BooleanAssignmentList initialSample = INITIAL_SAMPLE.get(dependencyList);
+        boolean union = UNION.get(dependencyList);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result<BooleanAssignmentList>>> futures = new ArrayList<>(runs);
+            for (int i = 0; i < runs; i++) {
+                long runSeed = seed + i;
+                // YASA shuffles the specification, so every run needs its own instance
+                ICombinationSpecification combinationSpecification = optimizer.getCombinationSpecification();
+                futures.add(executor.submit(() -> Computations.of(booleanClauseList)
+                        .map(YASA::new)
+                        .set(YASA.COMBINATION_SET, combinationSpecification)
+                        .set(YASA.ITERATIONS, 1)
+                        .set(YASA.RANDOM_SEED, runSeed)
+                        .set(YASA.INITIAL_SAMPLE, initialSample)
+                        .computeResult()));
+            }
+
+            // ties are resolved by run index to keep the result deterministic
+            List<BooleanAssignmentList> samples = new ArrayList<>(runs);
+            BooleanAssignmentList smallestSample = null;
+            for (Future<Result<BooleanAssignmentList>> future : futures) {
+                Result<BooleanAssignmentList> sample = future.get();
+                if (sample.isEmpty()) {
+                    return sample;
+                }
+                samples.add(sample.get());
+                if (smallestSample == null || sample.get().size() < smallestSample.size()) {
+                    smallestSample = sample.get();
+                }
+            }
+            if (union) {
+                return Result.of(ComputeMinimizedSample.union(booleanClauseList.getVariableMap(), samples));
+            }
+            return Result.of(smallestSample);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
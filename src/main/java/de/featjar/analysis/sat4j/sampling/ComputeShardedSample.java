@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.combination.ICombinationSpecification;
+import de.featjar.formula.combination.MultiCombinationSpecification;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Samples the shards of a {@link ShardDirectory} and merges their samples.
+ * Each shard is sampled against the complete clause list by an {@link IShardRunner}, which only receives the
+ * directory, so that shards can run in other processes. The samples of all shards are merged without duplicates.
+ * Afterwards, the specifications of shards that failed are sampled in this process with the merged sample as
+ * initial sample, and the cardinality requirements are completed on the merged sample.
+ */
+public class ComputeShardedSample extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+    public static final Dependency<ShardDirectory> SHARD_DIRECTORY = Dependency.newDependency(ShardDirectory.class);
+    public static final Dependency<IShardRunner> SHARD_RUNNER = Dependency.newDependency(IShardRunner.class);
+
+    /**
+     * Samples each shard in the current process.
+     */
+    public static final IShardRunner IN_PROCESS =
+            (directory, shard) -> directory.writeSample(shard, sampleShard(directory, shard).orElseThrow());
+
+    /**
+     * @param optimizer the combination specifications of all shards, whose cardinalities are completed on the merged
+     *     sample
+     * @param directory the directory written by {@link ShardDirectory#create} for the same optimizer
+     */
+    public ComputeShardedSample(
+            IComputation<BooleanAssignmentList> booleanClauseList,
+            CombinationSpecificationOptimizer optimizer,
+            ShardDirectory directory) {
+        super(booleanClauseList, Computations.of(optimizer), Computations.of(directory), Computations.of(IN_PROCESS));
+    }
+
+    protected ComputeShardedSample(ComputeShardedSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList booleanClauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+        ShardDirectory directory = SHARD_DIRECTORY.get(dependencyList);
+        IShardRunner runner = SHARD_RUNNER.get(dependencyList);
+        int shards = directory.getShards();
+
+        List<BooleanAssignmentList> samples = new ArrayList<>(shards);
+        List<Integer> failedShards = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(shards);
+        try {
+            List<Future<BooleanAssignmentList>> futures = new ArrayList<>(shards);
+            for (int i = 0; i < shards; i++) {
+                int shard = i;
+                futures.add(executor.submit(() -> {
+                    runner.run(directory, shard);
+                    return directory.readSample(shard);
+                }));
+            }
+            for (int i = 0; i < shards; i++) {
+                try {
+                    samples.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    int shard = i;
+                    FeatJAR.log().warning(() -> "Shard " + shard + " failed: " + e.getCause());
+                    failedShards.add(shard);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BooleanAssignmentList sample = ComputeMinimizedSample.union(booleanClauseList.getVariableMap(), samples);
+        int mergedSize = sample.size();
+        FeatJAR.log()
+                .info(() -> "Merged " + samples.size() + " of " + shards + " shards into " + mergedSize
+                        + " configurations");
+
+        if (!failedShards.isEmpty()) {
+            List<ICombinationSpecification> specifications = new ArrayList<>();
+            try {
+                for (int shard : failedShards) {
+                    specifications.addAll(
+                            directory.readShard(shard, booleanClauseList).getCombinationSpecifications());
+                }
+            } catch (IOException e) {
+                return Result.empty(e);
+            }
+            if (!specifications.isEmpty()) {
+                FeatJAR.log().info(() -> "Sampling the specifications of failed shards " + failedShards);
+                // the merged sample is the initial sample, so only interactions it does not cover are sampled
+                Result<BooleanAssignmentList> topUp = Computations.of(booleanClauseList)
+                        .map(YASA::new)
+                        .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(specifications))
+                        .set(YASA.ITERATIONS, directory.getIterations())
+                        .set(YASA.RANDOM_SEED, directory.getRandomSeed())
+                        .set(YASA.INITIAL_SAMPLE, sample)
+                        .computeResult();
+                if (topUp.isEmpty()) {
+                    return topUp;
+                }
+                sample = ComputeMinimizedSample.union(sample.getVariableMap(), List.of(sample, topUp.get()));
+            }
+        }
+        List<CoverageRequirement> cardinalityRequirements = optimizer.getCardinalityRequirements();
+        if (!cardinalityRequirements.isEmpty()) {
+            ComputeCardinalityCompletion.complete(booleanClauseList, sample, cardinalityRequirements)
+                    .getAll()
+                    .forEach(sample::add);
+        }
+        return Result.of(sample);
+    }
+
+    /**
+     * Samples one shard of the given directory. This is the work of a single worker, which only reads the feature
+     * model and the specifications of its shard. The shard uses the seed of the directory plus the shard index.
+     */
+    public static Result<BooleanAssignmentList> sampleShard(ShardDirectory directory, int shard) {
+        BooleanAssignmentList featureModel;
+        CombinationSpecificationOptimizer optimizer;
+        try {
+            featureModel = directory.readFeatureModel();
+            optimizer = directory.readShard(shard, featureModel);
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        List<ICombinationSpecification> specifications = optimizer.getCombinationSpecifications();
+        if (specifications.isEmpty()) {
+            // more shards than specifications
+            return Result.of(new BooleanAssignmentList(featureModel.getVariableMap()));
+        }
+        return Computations.of(featureModel)
+                .map(YASA::new)
+                .set(YASA.COMBINATION_SET, new MultiCombinationSpecification(specifications))
+                .set(YASA.ITERATIONS, directory.getIterations())
+                .set(YASA.RANDOM_SEED, directory.getRandomSeed() + shard)
+                .computeResult();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.computation.YASA;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Computes a sample in rounds of at most {@link #BATCH_SIZE} new configurations and passes each round to a
+ * {@link ISampleSink} as soon as it is finished.
+ * Every round continues from the configurations of the previous rounds, which are counted as covered, so
+ * configurations are never changed after they were emitted.
+ * <p>
+ * Sampling stops early once the {@link #TIME_LIMIT} is exhausted or the sample reaches the
+ * {@link #TARGET_COVERAGE}, and the configurations of all finished rounds are returned. YASA cannot be interrupted, so
+ * both are checked between rounds. A new round is only started if the previous round would still fit into the
+ * remaining time, so smaller batch sizes stop closer to the time limit. Coverage is measured over the feasible
+ * interactions of the {@link CombinationSpecificationOptimizer#getCoverageRequirements() coverage requirements}, so a
+ * target coverage of 1 is reachable. Interactions that no valid configuration contains are found once with a SAT
+ * solver before the first round. Coverage is checked after every round, so larger batch sizes reduce its overhead.
+ * The covered interactions are recorded in an {@link InteractionCoverage} if it fits into the {@link #MAX_MEMORY}, and
+ * enumerated again after every round otherwise. If sampling stops at the time limit or the target coverage, the
+ * {@link #LISTENER} receives a {@link SamplingEvent.Phase#STOPPED} event with the reached coverage.
+ * <p>
+ * The {@link #CANCELLATION} is polled between rounds as well. Once it signals cancellation, no further round is
+ * started.
+ */
+public class ComputeStreamedSample extends AComputation<BooleanAssignmentList> {
+
+    public static final Dependency<BooleanAssignmentList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    public static final Dependency<CombinationSpecificationOptimizer> COMBINATION_SPECIFICATION =
+            Dependency.newDependency(CombinationSpecificationOptimizer.class);
+    public static final Dependency<ISampleSink> SAMPLE_SINK = Dependency.newDependency(ISampleSink.class);
+    public static final Dependency<Integer> ITERATIONS = Dependency.newDependency(Integer.class);
+    /**
+     * Maximum number of new configurations per round, 0 to add as many configurations as the sample already has, but
+     * at least {@value #MINIMUM_BATCH_SIZE}. Every round runs YASA on all configurations of the previous rounds, so a
+     * fixed batch size that is small compared to the sample makes sampling quadratic in the sample size, while a batch
+     * that grows with the sample only needs a logarithmic number of rounds.
+     */
+    public static final Dependency<Integer> BATCH_SIZE = Dependency.newDependency(Integer.class);
+    public static final Dependency<BooleanAssignmentList> INITIAL_SAMPLE =
+            Dependency.newDependency(BooleanAssignmentList.class);
+    /**
+     * Time limit in milliseconds, 0 for no limit.
+     */
+    public static final Dependency<Long> TIME_LIMIT = Dependency.newDependency(Long.class);
+    /**
+     * Coverage between 0 and 1 at which sampling stops, 0 for no target.
+     */
+    public static final Dependency<Double> TARGET_COVERAGE = Dependency.newDependency(Double.class);
+    /**
+     * Polled before every round. Once it returns {@code true}, the computation fails with a
+     * {@link CancellationException}.
+     */
+    public static final Dependency<BooleanSupplier> CANCELLATION = Dependency.newDependency(BooleanSupplier.class);
+    /**
+     * Receives an event with the coverage of the sample after every round.
+     */
+    public static final Dependency<ISamplingListener> LISTENER = Dependency.newDependency(ISamplingListener.class);
+    /**
+     * Maximum number of bytes for recording the covered interactions, 0 for the default limit of
+     * {@link InteractionCoverage#getDefaultMaxMemory()}.
+     */
+    public static final Dependency<Long> MAX_MEMORY = Dependency.newDependency(Long.class);
+
+    public static final int MINIMUM_BATCH_SIZE = 10;
+
+    public static final BooleanSupplier NEVER_CANCELLED = () -> false;
+    public static final ISamplingListener NO_LISTENER = event -> {};
+
+    public ComputeStreamedSample(
+            IComputation<BooleanAssignmentList> booleanClauseList,
+            CombinationSpecificationOptimizer optimizer,
+            ISampleSink sink) {
+        super(
+                booleanClauseList,
+                Computations.of(optimizer),
+                Computations.of(sink),
+                Computations.of(1),
+                Computations.of(0),
+                Computations.of(new BooleanAssignmentList(new VariableMap())),
+                Computations.of(0L),
+                Computations.of(0.0),
+                Computations.of(NEVER_CANCELLED),
+                Computations.of(NO_LISTENER),
+                Computations.of(0L));
+    }
+
+    protected ComputeStreamedSample(ComputeStreamedSample other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanAssignmentList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanAssignmentList booleanClauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        CombinationSpecificationOptimizer optimizer = COMBINATION_SPECIFICATION.get(dependencyList);
+        ISampleSink sink = SAMPLE_SINK.get(dependencyList);
+        int iterations = ITERATIONS.get(dependencyList);
+        int fixedBatchSize = BATCH_SIZE.get(dependencyList);
+        BooleanAssignmentList sample = INITIAL_SAMPLE.get(dependencyList);
+        long timeLimit = TIME_LIMIT.get(dependencyList);
+        double targetCoverage = TARGET_COVERAGE.get(dependencyList);
+        BooleanSupplier cancellation = CANCELLATION.get(dependencyList);
+        ISamplingListener listener = LISTENER.get(dependencyList);
+        long maxMemory = MAX_MEMORY.get(dependencyList);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimit);
+
+        if (sample.size() > 0) {
+            sink.accept(sample);
+        } else {
+            sample = new BooleanAssignmentList(booleanClauseList.getVariableMap());
+        }
+        CoverageMeter coverageMeter = targetCoverage > 0 || timeLimit > 0 || listener != NO_LISTENER
+                ? new CoverageMeter(optimizer.getCoverageRequirements(), booleanClauseList, sample, maxMemory)
+                : null;
+        if (coverageMeter != null) {
+            coverageMeter.add(sample);
+        }
+        // YASA cannot be interrupted, so the time limit and the cancellation are checked between rounds
+        long lastRoundDuration = 0;
+        while (true) {
+            if (cancellation.getAsBoolean()) {
+                return cancelled();
+            }
+            if (timeLimit > 0 && deadline - System.nanoTime() < lastRoundDuration) {
+                int size = sample.size();
+                double coverage = coverageMeter.getCoverage(sample);
+                FeatJAR.log()
+                        .warning(() -> String.format(
+                                "Time limit of %d ms exhausted, returning %d configurations (%.2f%% coverage)",
+                                timeLimit, size, 100 * coverage));
+                listener.accept(new SamplingEvent(SamplingEvent.Phase.STOPPED, size, coverage));
+                return Result.of(sample);
+            }
+            if (targetCoverage > 0 && sample.size() > 0) {
+                double coverage = coverageMeter.getCoverage(sample);
+                if (coverage >= targetCoverage) {
+                    int size = sample.size();
+                    FeatJAR.log()
+                            .info(() -> String.format(
+                                    "Reached target coverage with %d configurations (%.2f%%)", size, 100 * coverage));
+                    listener.accept(new SamplingEvent(SamplingEvent.Phase.STOPPED, size, coverage));
+                    return Result.of(sample);
+                }
+            }
+
+            int batchSize = fixedBatchSize > 0 ? fixedBatchSize : Math.max(MINIMUM_BATCH_SIZE, sample.size());
+            long roundStart = System.nanoTime();
+            Result<BooleanAssignmentList> extendedSample = Computations.of(booleanClauseList)
+                    .map(YASA::new)
+                    .set(YASA.COMBINATION_SET, optimizer.getCombinationSpecification())
+                    .set(YASA.ITERATIONS, iterations)
+                    .set(YASA.INITIAL_SAMPLE, sample)
+                    .set(YASA.INITIAL_SAMPLE_COUNTS_TOWARDS_CONFIGURATION_LIMIT, Boolean.TRUE)
+                    .set(YASA.CONFIGURATION_LIMIT, sample.size() + batchSize)
+                    .computeResult();
+            lastRoundDuration = System.nanoTime() - roundStart;
+            if (extendedSample.isEmpty()) {
+                return extendedSample;
+            }
+
+            Set<BooleanAssignment> emitted = new HashSet<>(sample.getAll());
+            BooleanAssignmentList batch = new BooleanAssignmentList(booleanClauseList.getVariableMap());
+            for (BooleanAssignment configuration : extendedSample.get().getAll()) {
+                if (!emitted.contains(configuration)) {
+                    batch.add(configuration);
+                }
+            }
+            if (batch.size() == 0) {
+                listener.accept(new SamplingEvent(SamplingEvent.Phase.COMPLETING, sample.size(), Double.NaN));
+                BooleanAssignmentList completion = ComputeCardinalityCompletion.complete(
+                        booleanClauseList, sample, optimizer.getCardinalityRequirements());
+                if (completion.size() > 0) {
+                    sink.accept(completion);
+                    completion.getAll().forEach(sample::add);
+                }
+                return Result.of(sample);
+            }
+            sink.accept(batch);
+            sample = extendedSample.get();
+            if (coverageMeter != null) {
+                coverageMeter.add(batch);
+            }
+            if (listener != NO_LISTENER) {
+                listener.accept(new SamplingEvent(
+                        SamplingEvent.Phase.SAMPLING, sample.size(), coverageMeter.getCoverage(sample)));
+            }
+        }
+    }
+
+    private static Result<BooleanAssignmentList> cancelled() {
+        FeatJAR.log().info(() -> "Sampling was cancelled");
+        return Result.empty(new CancellationException("Sampling was cancelled"));
+    }
+
+    /**
+     * Measures the coverage of the growing sample over the feasible interactions, incrementally if the covered
+     * interactions fit into the memory limit and by enumerating all interactions otherwise.
+     */
+    private static final class CoverageMeter {
+        private final List<CoverageRequirement> requirements;
+        private final InteractionCoverage interactionCoverage;
+        private final long infeasibleCount;
+
+        private CoverageMeter(
+                List<CoverageRequirement> requirements,
+                BooleanAssignmentList booleanClauseList,
+                BooleanAssignmentList initialSample,
+                long maxMemory) {
+            this.requirements = requirements;
+            FeasibilityChecker feasibilityChecker = new FeasibilityChecker(booleanClauseList);
+            SampleIndex index = new SampleIndex(initialSample);
+            long infeasible = 0;
+            for (CoverageRequirement requirement : requirements) {
+                infeasible += feasibilityChecker.countInfeasible(requirement, index);
+            }
+            infeasibleCount = infeasible;
+            if (InteractionCoverage.fits(requirements, maxMemory)) {
+                interactionCoverage = new InteractionCoverage(requirements, booleanClauseList.getVariableMap().size());
+            } else {
+                interactionCoverage = null;
+                FeatJAR.log()
+                        .info(() -> "Recording coverage needs "
+                                + InteractionCoverage.getRequiredBytes(requirements)
+                                + " bytes, enumerating interactions after every round instead");
+            }
+        }
+
+        private void add(BooleanAssignmentList configurations) {
+            if (interactionCoverage != null) {
+                interactionCoverage.addAll(configurations);
+            }
+        }
+
+        private double getCoverage(BooleanAssignmentList sample) {
+            long interactions = 0;
+            long covered = 0;
+            if (interactionCoverage != null) {
+                interactions = interactionCoverage.getInteractionCount();
+                covered = interactionCoverage.getCoveredCount();
+            } else {
+                for (CoverageReport.Entry entry : CoverageReport.compute(requirements, sample).getEntries()) {
+                    interactions += entry.getEnumerated();
+                    covered += entry.getCovered();
+                }
+            }
+            long feasible = interactions - infeasibleCount;
+            return feasible == 0 ? 1.0 : (double) covered / feasible;
+        }
+    }
+}
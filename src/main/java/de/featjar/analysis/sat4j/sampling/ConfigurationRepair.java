@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Repairs configurations that violate a clause list with few changes, e.g., configurations of a sample of a previous
+ * version of the feature model.
+ * The repair is a local search that starts at the configuration and flips one variable of a violated clause at a
+ * time. It prefers variables whose flip violates the fewest other clauses, then variables that regain their original
+ * value, and then variables that the configuration does not assign. Variables without a value start deselected.
+ * If the local search fails, e.g., for configurations that are far from any valid configuration, a SAT4J solver
+ * searches a valid configuration instead. It first assumes all literals of the configuration and, on a conflict,
+ * only uses them as preferred phases, so that the solver keeps as many of them as its search allows.
+ */
+public class ConfigurationRepair {
+
+    private static final double NOISE = 0.1;
+
+    private final BooleanAssignmentList booleanClauseList;
+    private final int variableCount;
+    private final int[][] clauses;
+    private final int[][] positiveOccurrences;
+    private final int[][] negativeOccurrences;
+    private final int maxFlips;
+    private final Random random;
+    private IncrementalSolver solver;
+
+    public ConfigurationRepair(BooleanAssignmentList booleanClauseList, long randomSeed) {
+        this(booleanClauseList, Math.max(1000, 10 * booleanClauseList.getVariableMap().size()), randomSeed);
+    }
+
+    public ConfigurationRepair(BooleanAssignmentList booleanClauseList, int maxFlips, long randomSeed) {
+        this.booleanClauseList = booleanClauseList;
+        this.maxFlips = maxFlips;
+        variableCount = booleanClauseList.getVariableMap().size();
+        random = new Random(randomSeed);
+        List<? extends BooleanAssignment> clauseList = booleanClauseList.getAll();
+        clauses = new int[clauseList.size()][];
+        int[] positiveCounts = new int[variableCount + 1];
+        int[] negativeCounts = new int[variableCount + 1];
+        for (int i = 0; i < clauses.length; i++) {
+            clauses[i] = clauseList.get(i).get();
+            for (int literal : clauses[i]) {
+                if (literal > 0) {
+                    positiveCounts[literal]++;
+                } else {
+                    negativeCounts[-literal]++;
+                }
+            }
+        }
+        positiveOccurrences = new int[variableCount + 1][];
+        negativeOccurrences = new int[variableCount + 1][];
+        for (int variable = 0; variable <= variableCount; variable++) {
+            positiveOccurrences[variable] = new int[positiveCounts[variable]];
+            negativeOccurrences[variable] = new int[negativeCounts[variable]];
+        }
+        for (int i = 0; i < clauses.length; i++) {
+            for (int literal : clauses[i]) {
+                if (literal > 0) {
+                    positiveOccurrences[literal][--positiveCounts[literal]] = i;
+                } else {
+                    negativeOccurrences[-literal][--negativeCounts[-literal]] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a complete configuration that satisfies all clauses and is close to the given configuration, or an
+     * empty result if the clauses are unsatisfiable.
+     */
+    public Result<BooleanAssignment> repair(BooleanAssignment configuration) {
+        int[] original = new int[variableCount + 1];
+        for (int literal : configuration.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount) {
+                original[Math.abs(literal)] = literal > 0 ? 1 : -1;
+            }
+        }
+        int[] values = new int[variableCount + 1];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            values[variable] = original[variable] == 0 ? -1 : original[variable];
+        }
+
+        int[] trueCounts = new int[clauses.length];
+        // violated clauses with the position of each clause in the list, -1 if it is satisfied
+        int[] violated = new int[clauses.length];
+        int[] positions = new int[clauses.length];
+        int violatedCount = 0;
+        for (int i = 0; i < clauses.length; i++) {
+            for (int literal : clauses[i]) {
+                if (isTrue(values, literal)) {
+                    trueCounts[i]++;
+                }
+            }
+            if (trueCounts[i] == 0) {
+                if (clauses[i].length == 0) {
+                    return Result.empty();
+                }
+                positions[i] = violatedCount;
+                violated[violatedCount++] = i;
+            } else {
+                positions[i] = -1;
+            }
+        }
+
+        for (int flips = 0; violatedCount > 0; flips++) {
+            if (flips == maxFlips) {
+                return repairWithSolver(original);
+            }
+            int[] clause = clauses[violated[random.nextInt(violatedCount)]];
+            int variable;
+            if (random.nextDouble() < NOISE) {
+                variable = Math.abs(clause[random.nextInt(clause.length)]);
+            } else {
+                variable = 0;
+                int bestScore = Integer.MAX_VALUE;
+                for (int literal : clause) {
+                    int candidate = Math.abs(literal);
+                    int score = 4 * getBreakCount(values, trueCounts, candidate)
+                            + (original[candidate] == 0 ? 1 : values[candidate] == original[candidate] ? 2 : 0);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        variable = candidate;
+                    }
+                }
+            }
+
+            values[variable] = -values[variable];
+            for (int i : values[variable] > 0 ? negativeOccurrences[variable] : positiveOccurrences[variable]) {
+                if (--trueCounts[i] == 0) {
+                    positions[i] = violatedCount;
+                    violated[violatedCount++] = i;
+                }
+            }
+            for (int i : values[variable] > 0 ? positiveOccurrences[variable] : negativeOccurrences[variable]) {
+                if (trueCounts[i]++ == 0) {
+                    int last = violated[--violatedCount];
+                    violated[positions[i]] = last;
+                    positions[last] = positions[i];
+                    positions[i] = -1;
+                }
+            }
+        }
+
+        int[] literals = new int[variableCount];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            literals[variable - 1] = values[variable] > 0 ? variable : -variable;
+        }
+        return Result.of(new BooleanAssignment(literals));
+    }
+
+    /**
+     * Returns a complete configuration that satisfies all clauses and contains all literals of the given configuration,
+     * e.g., to assign the variables that a partial configuration lacks. Returns an empty result if no valid
+     * configuration contains the literals.
+     */
+    public Result<BooleanAssignment> complete(BooleanAssignment configuration) {
+        int[] original = new int[variableCount + 1];
+        for (int literal : configuration.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount) {
+                original[Math.abs(literal)] = literal > 0 ? 1 : -1;
+            }
+        }
+        return solve(original).map(BooleanAssignment::new);
+    }
+
+    private Result<BooleanAssignment> repairWithSolver(int[] original) {
+        Result<int[]> solution = solve(original);
+        if (solution.isEmpty() && solution.getProblems().isEmpty()) {
+            // the configuration conflicts with the clauses, so its literals are only kept where possible
+            solution = solver.solve();
+        }
+        return solution.map(BooleanAssignment::new);
+    }
+
+    /**
+     * Searches a solution that contains the assigned literals and prefers deselecting the other variables.
+     */
+    private Result<int[]> solve(int[] original) {
+        if (solver == null) {
+            solver = new IncrementalSolver(booleanClauseList);
+        }
+        int[] preferredLiterals = new int[variableCount];
+        int[] assumptions = new int[variableCount];
+        int assumptionCount = 0;
+        for (int variable = 1; variable <= variableCount; variable++) {
+            preferredLiterals[variable - 1] = original[variable] > 0 ? variable : -variable;
+            if (original[variable] != 0) {
+                assumptions[assumptionCount++] = preferredLiterals[variable - 1];
+            }
+        }
+        solver.setPreferredLiterals(preferredLiterals);
+        return solver.solve(Arrays.copyOf(assumptions, assumptionCount));
+    }
+
+    /**
+     * Returns the number of literals of the given configuration that differ from the literals of the other
+     * configuration. Variables that the other configuration does not assign are not counted.
+     */
+    public int countChanges(BooleanAssignment original, BooleanAssignment configuration) {
+        int[] values = new int[variableCount + 1];
+        for (int literal : configuration.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount) {
+                values[Math.abs(literal)] = literal;
+            }
+        }
+        int changes = 0;
+        for (int literal : original.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount && values[Math.abs(literal)] != literal) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    private int getBreakCount(int[] values, int[] trueCounts, int variable) {
+        int breakCount = 0;
+        for (int i : values[variable] > 0 ? positiveOccurrences[variable] : negativeOccurrences[variable]) {
+            if (trueCounts[i] == 1) {
+                breakCount++;
+            }
+        }
+        return breakCount;
+    }
+
+    private static boolean isTrue(int[] values, int literal) {
+        return literal > 0 ? values[literal] > 0 : values[-literal] < 0;
+    }
+}
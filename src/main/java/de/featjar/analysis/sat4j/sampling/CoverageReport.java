@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Coverage of a sample for each combination specification.
+ * For every specification, the report lists the number of enumerated, covered, infeasible, and uncovered
+ * interactions, the number of configurations that were the first to cover one of its interactions, and the time spent
+ * checking it. Given the clause list of the feature model, interactions that no configuration of the sample contains
+ * are checked with a SAT solver, and those that no valid configuration contains are reported as infeasible instead of
+ * uncovered. Infeasible interactions do not count towards the coverage.
+ */
+public class CoverageReport {
+
+    public static class Entry {
+        private final String specification;
+        private final long enumerated;
+        private final long covered;
+        private final long infeasible;
+        private final int firstCoveringConfigurations;
+        private final long nanos;
+
+        public Entry(
+                String specification,
+                long enumerated,
+                long covered,
+                long infeasible,
+                int firstCoveringConfigurations,
+                long nanos) {
+            this.specification = specification;
+            this.enumerated = enumerated;
+            this.covered = covered;
+            this.infeasible = infeasible;
+            this.firstCoveringConfigurations = firstCoveringConfigurations;
+            this.nanos = nanos;
+        }
+
+        public String getSpecification() {
+            return specification;
+        }
+
+        public long getEnumerated() {
+            return enumerated;
+        }
+
+        public long getCovered() {
+            return covered;
+        }
+
+        /**
+         * Returns the number of interactions that no valid configuration contains, 0 if they were not checked.
+         */
+        public long getInfeasible() {
+            return infeasible;
+        }
+
+        /**
+         * Returns the number of feasible interactions that the sample does not cover.
+         */
+        public long getUncovered() {
+            return enumerated - covered - infeasible;
+        }
+
+        public int getFirstCoveringConfigurations() {
+            return firstCoveringConfigurations;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getCoverage() {
+            long feasible = enumerated - infeasible;
+            return feasible == 0 ? 1.0 : (double) covered / feasible;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    public CoverageReport(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the share of covered interactions over the feasible interactions of all entries.
+     */
+    public double getCoverage() {
+        long feasible = 0;
+        long covered = 0;
+        for (Entry entry : entries) {
+            feasible += entry.getEnumerated() - entry.getInfeasible();
+            covered += entry.getCovered();
+        }
+        return feasible == 0 ? 1.0 : (double) covered / feasible;
+    }
+
+    /**
+     * Checks the coverage of the given sample for each requirement, without checking which uncovered interactions are
+     * infeasible.
+     */
+    public static CoverageReport compute(List<CoverageRequirement> requirements, BooleanAssignmentList sample) {
+        return compute(requirements, sample, (FeasibilityChecker) null);
+    }
+
+    /**
+     * Checks the coverage of the given sample for each requirement and which uncovered interactions are infeasible in
+     * the given clause list.
+     */
+    public static CoverageReport compute(
+            List<CoverageRequirement> requirements,
+            BooleanAssignmentList sample,
+            BooleanAssignmentList booleanClauseList) {
+        return compute(requirements, sample, new FeasibilityChecker(booleanClauseList));
+    }
+
+    private static CoverageReport compute(
+            List<CoverageRequirement> requirements,
+            BooleanAssignmentList sample,
+            FeasibilityChecker feasibilityChecker) {
+        SampleIndex index = new SampleIndex(sample);
+        List<Entry> entries = new ArrayList<>(requirements.size());
+        for (CoverageRequirement requirement : requirements) {
+            entries.add(compute(requirement, index, feasibilityChecker));
+        }
+        return new CoverageReport(entries);
+    }
+
+    public static Entry compute(CoverageRequirement requirement, SampleIndex index) {
+        return compute(requirement, index, null);
+    }
+
+    private static Entry compute(
+            CoverageRequirement requirement, SampleIndex index, FeasibilityChecker feasibilityChecker) {
+        long start = System.nanoTime();
+        Counts counts = new Counts(index.size());
+        requirement.forEachInteraction(index, counts.consumer(requirement, feasibilityChecker));
+        return counts.toEntry(requirement, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks the coverage of the given sample for each requirement.
+     * The interactions of a requirement are split by their first variable and counted in parallel in the given pool.
+     */
+    public static CoverageReport compute(
+            List<CoverageRequirement> requirements, BooleanAssignmentList sample, ForkJoinPool pool) {
+        return compute(requirements, sample, null, pool);
+    }
+
+    /**
+     * Checks the coverage of the given sample for each requirement like
+     * {@link #compute(List, BooleanAssignmentList, ForkJoinPool)}. Afterwards, the uncovered interactions of each
+     * requirement are checked for feasibility in the given clause list on the current thread, as the solver cannot be
+     * shared between threads.
+     * @param booleanClauseList the clause list of the feature model, or {@code null} to skip the feasibility check
+     */
+    public static CoverageReport compute(
+            List<CoverageRequirement> requirements,
+            BooleanAssignmentList sample,
+            BooleanAssignmentList booleanClauseList,
+            ForkJoinPool pool) {
+        FeasibilityChecker feasibilityChecker =
+                booleanClauseList == null ? null : new FeasibilityChecker(booleanClauseList);
+        SampleIndex index = new SampleIndex(sample);
+        List<Entry> entries = new ArrayList<>(requirements.size());
+        for (CoverageRequirement requirement : requirements) {
+            long start = System.nanoTime();
+            int firstVariables = requirement.getT() == 0 ? 1 : requirement.getVariables().length;
+            Counts counts = pool.invoke(new CountTask(requirement, index, 0, firstVariables));
+            if (feasibilityChecker != null && counts.covered < counts.enumerated) {
+                counts.infeasible = feasibilityChecker.countInfeasible(requirement, index);
+            }
+            entries.add(counts.toEntry(requirement, System.nanoTime() - start));
+        }
+        return new CoverageReport(entries);
+    }
+
+    private static class Counts {
+        private long enumerated;
+        private long covered;
+        private long infeasible;
+        private final BitSet firstCovering;
+
+        private Counts(int sampleSize) {
+            firstCovering = new BitSet(sampleSize);
+        }
+
+        private CoverageRequirement.IInteractionConsumer consumer(
+                CoverageRequirement requirement, FeasibilityChecker feasibilityChecker) {
+            return (literals, configurations) -> {
+                enumerated++;
+                if (requirement.isCovered(configurations)) {
+                    covered++;
+                    firstCovering.set(nthSetBit(configurations, requirement.getMinimumCount()));
+                } else if (feasibilityChecker != null
+                        && configurations.isEmpty()
+                        && !feasibilityChecker.isFeasible(literals)) {
+                    infeasible++;
+                }
+            };
+        }
+
+        private Counts add(Counts other) {
+            enumerated += other.enumerated;
+            covered += other.covered;
+            infeasible += other.infeasible;
+            firstCovering.or(other.firstCovering);
+            return this;
+        }
+
+        private Entry toEntry(CoverageRequirement requirement, long nanos) {
+            return new Entry(
+                    requirement.getLabel(), enumerated, covered, infeasible, firstCovering.cardinality(), nanos);
+        }
+    }
+
+    private static class CountTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CoverageRequirement requirement;
+        private final transient SampleIndex index;
+        private final int start;
+        private final int end;
+
+        private CountTask(CoverageRequirement requirement, SampleIndex index, int start, int end) {
+            this.requirement = requirement;
+            this.index = index;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (end - start <= 1) {
+                Counts counts = new Counts(index.size());
+                requirement.forEachInteraction(index, start, counts.consumer(requirement, null));
+                return counts;
+            }
+            int middle = (start + end) >>> 1;
+            CountTask left = new CountTask(requirement, index, start, middle);
+            left.fork();
+            Counts right = new CountTask(requirement, index, middle, end).compute();
+            return left.join().add(right);
+        }
+    }
+
+    private static int nthSetBit(BitSet bitSet, int n) {
+        int index = bitSet.nextSetBit(0);
+        for (int i = 1; i < n; i++) {
+            index = bitSet.nextSetBit(index + 1);
+        }
+        return index;
+    }
+
+    public String toCSV() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("specification;enumerated;covered;infeasible;uncovered;first_covering_configurations;time_ms\n");
+        for (Entry entry : entries) {
+            sb.append('"').append(entry.specification.replace("\"", "\"\"")).append('"');
+            sb.append(';').append(entry.enumerated);
+            sb.append(';').append(entry.covered);
+            sb.append(';').append(entry.infeasible);
+            sb.append(';').append(entry.getUncovered());
+            sb.append(';').append(entry.firstCoveringConfigurations);
+            sb.append(';').append(entry.nanos / 1_000_000.0);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    public String toJSON() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[\n");
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            sb.append("  {\"specification\": \"")
+                    .append(entry.specification.replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append("\", \"enumerated\": ")
+                    .append(entry.enumerated)
+                    .append(", \"covered\": ")
+                    .append(entry.covered)
+                    .append(", \"infeasible\": ")
+                    .append(entry.infeasible)
+                    .append(", \"uncovered\": ")
+                    .append(entry.getUncovered())
+                    .append(", \"firstCoveringConfigurations\": ")
+                    .append(entry.firstCoveringConfigurations)
+                    .append(", \"timeMs\": ")
+                    .append(entry.nanos / 1_000_000.0)
+                    .append('}');
+            sb.append(i + 1 < entries.size() ? ",\n" : "\n");
+        }
+        sb.append("]\n");
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report as JSON if the file name ends with {@code .json} and as CSV otherwise.
+     */
+    public void write(Path path) throws IOException {
+        String content = path.getFileName().toString().endsWith(".json") ? toJSON() : toCSV();
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A set of interactions that a sample must cover.
+ * Each interaction consists of the fixed literals combined with t literals over the given variables, skipping the
+ * excluded variables. Thus, many requirements can share one array of variables without copying it.
+ * An interaction is covered if at least {@code minimumCount} configurations contain it.
+ * This describes the global t-wise specification, weight groups (no fixed literals), priority clusters (t = 0),
+ * cluster interactions, and cardinality requirements (t = 0 with a minimum count).
+ */
+public class CoverageRequirement {
+
+    /**
+     * Receives every enumerated interaction together with the configurations containing it.
+     */
+    @FunctionalInterface
+    public interface IInteractionConsumer {
+        void accept(int[] literals, BitSet configurations);
+    }
+
+    private final String label;
+    private final int[] fixedLiterals;
+    private final int t;
+    private final int[] variables;
+    private final int[] excludedVariables;
+    private final int minimumCount;
+
+    public CoverageRequirement(String label, int[] fixedLiterals, int t, int[] variables, int minimumCount) {
+        this(label, fixedLiterals, t, variables, new int[0], minimumCount);
+    }
+
+    /**
+     * Creates a requirement over all given variables except the excluded variables.
+     * @param excludedVariables sorted variables to skip; must be a subset of the variables
+     */
+    public CoverageRequirement(
+            String label, int[] fixedLiterals, int t, int[] variables, int[] excludedVariables, int minimumCount) {
+        this.label = label;
+        this.fixedLiterals = fixedLiterals;
+        this.t = t;
+        this.variables = variables;
+        this.excludedVariables = excludedVariables;
+        this.minimumCount = minimumCount;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int[] getFixedLiterals() {
+        return fixedLiterals;
+    }
+
+    public int getT() {
+        return t;
+    }
+
+    public int[] getVariables() {
+        return variables;
+    }
+
+    public int[] getExcludedVariables() {
+        return excludedVariables;
+    }
+
+    public int getMinimumCount() {
+        return minimumCount;
+    }
+
+    /**
+     * Returns whether an interaction is covered by the given configurations.
+     */
+    public boolean isCovered(BitSet configurations) {
+        return minimumCount <= 1 ? !configurations.isEmpty() : configurations.cardinality() >= minimumCount;
+    }
+
+    /**
+     * Enumerates all interactions of this requirement.
+     * The bitsets passed to the consumer are reused and must not be stored.
+     */
+    public void forEachInteraction(SampleIndex index, IInteractionConsumer consumer) {
+        int[] literals = new int[fixedLiterals.length + t];
+        System.arraycopy(fixedLiterals, 0, literals, 0, fixedLiterals.length);
+        BitSet[] prefixes = new BitSet[t + 1];
+        prefixes[0] = index.getAll(fixedLiterals);
+        if (t > variables.length - excludedVariables.length) {
+            return;
+        }
+        enumerate(index, consumer, literals, prefixes, 0, 0);
+    }
+
+    /**
+     * Enumerates the interactions of this requirement, starting with the given variable for the first of the t
+     * literals. This allows distributing the enumeration over several threads.
+     */
+    public void forEachInteraction(SampleIndex index, int firstVariableIndex, IInteractionConsumer consumer) {
+        if (t == 0) {
+            if (firstVariableIndex == 0) {
+                forEachInteraction(index, consumer);
+            }
+            return;
+        }
+        int[] literals = new int[fixedLiterals.length + t];
+        System.arraycopy(fixedLiterals, 0, literals, 0, fixedLiterals.length);
+        BitSet[] prefixes = new BitSet[t + 1];
+        prefixes[0] = index.getAll(fixedLiterals);
+        if (variables.length - firstVariableIndex < t || isExcluded(variables[firstVariableIndex])) {
+            return;
+        }
+        for (int sign = 0; sign < 2; sign++) {
+            int literal = sign == 0 ? variables[firstVariableIndex] : -variables[firstVariableIndex];
+            literals[fixedLiterals.length] = literal;
+            prefixes[1] = (BitSet) prefixes[0].clone();
+            prefixes[1].and(index.get(literal));
+            enumerate(index, consumer, literals, prefixes, 1, firstVariableIndex + 1);
+        }
+    }
+
+    private void enumerate(
+            SampleIndex index,
+            IInteractionConsumer consumer,
+            int[] literals,
+            BitSet[] prefixes,
+            int depth,
+            int start) {
+        if (depth == t) {
+            consumer.accept(literals, prefixes[depth]);
+            return;
+        }
+        for (int i = start; i <= variables.length - (t - depth); i++) {
+            if (isExcluded(variables[i])) {
+                continue;
+            }
+            for (int sign = 0; sign < 2; sign++) {
+                int literal = sign == 0 ? variables[i] : -variables[i];
+                literals[fixedLiterals.length + depth] = literal;
+                if (prefixes[depth + 1] == null) {
+                    prefixes[depth + 1] = new BitSet(index.size());
+                }
+                prefixes[depth + 1].clear();
+                prefixes[depth + 1].or(prefixes[depth]);
+                prefixes[depth + 1].and(index.get(literal));
+                enumerate(index, consumer, literals, prefixes, depth + 1, i + 1);
+            }
+        }
+    }
+
+    private boolean isExcluded(int variable) {
+        return excludedVariables.length > 0 && Arrays.binarySearch(excludedVariables, variable) >= 0;
+    }
+
+    /**
+     * Returns the number of interactions of this requirement.
+     */
+    public long getInteractionCount() {
+        int variableCount = variables.length - excludedVariables.length;
+        long count = 1;
+        for (int i = 0; i < t; i++) {
+            count = count * (variableCount - i) / (i + 1);
+        }
+        return count << t;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides whether interactions are feasible, i.e., whether a valid configuration contains them.
+ * Every solution found by the solver is kept as a witness, so most feasible interactions are decided by the witnesses
+ * and only the remaining ones need a query of the {@link IncrementalSolver}.
+ */
+final class FeasibilityChecker {
+
+    private final IncrementalSolver solver;
+    private final List<int[]> witnesses = new ArrayList<>();
+
+    FeasibilityChecker(BooleanAssignmentList booleanClauseList) {
+        solver = new IncrementalSolver(booleanClauseList);
+    }
+
+    /**
+     * Returns whether a valid configuration contains all given literals.
+     * If the solver fails, the interaction counts as feasible, so it is never excluded by mistake.
+     */
+    boolean isFeasible(int[] literals) {
+        for (int i = witnesses.size() - 1; i >= 0; i--) {
+            if (contains(witnesses.get(i), literals)) {
+                return true;
+            }
+        }
+        Result<int[]> solution = solver.solve(literals);
+        if (!solution.isEmpty()) {
+            witnesses.add(solution.get());
+            return true;
+        }
+        return !solution.getProblems().isEmpty();
+    }
+
+    /**
+     * Counts the interactions of the given requirement that no valid configuration contains.
+     * Interactions contained in a configuration of the indexed sample are not checked.
+     */
+    long countInfeasible(CoverageRequirement requirement, SampleIndex index) {
+        long[] infeasible = {0};
+        requirement.forEachInteraction(index, (literals, configurations) -> {
+            if (configurations.isEmpty() && !isFeasible(literals)) {
+                infeasible[0]++;
+            }
+        });
+        return infeasible[0];
+    }
+
+    private static boolean contains(int[] solution, int[] literals) {
+        for (int literal : literals) {
+            if (solution[Math.abs(literal) - 1] != literal) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+/**
+ * Samples one shard of a {@link ShardDirectory}.
+ * A runner must leave the sample of the shard in {@link ShardDirectory#getSamplePath(int)} or throw an exception.
+ * Runners may execute the shard in the current process, in a local worker process, or on another machine, as long as
+ * the directory is transferred to the worker and the sample is transferred back.
+ */
+@FunctionalInterface
+public interface IShardRunner {
+
+    /**
+     * Runs {@link ComputeShardedSample#sampleShard} for the given shard and blocks until its sample is written.
+     */
+    void run(ShardDirectory directory, int shard) throws Exception;
+}
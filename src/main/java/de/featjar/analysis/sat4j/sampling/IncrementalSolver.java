@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.solver.ISelectionStrategy;
+import de.featjar.analysis.sat4j.solver.SAT4JSolutionSolver;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.Arrays;
+
+/**
+ * A single SAT4J solver for a clause list that is queried many times.
+ * Clauses that are added later, such as blocking clauses, stay in the solver, while assumptions only hold for one
+ * query, so learned clauses are reused across all queries instead of creating a new solver or YASA instance for each.
+ */
+final class IncrementalSolver {
+
+    private final SAT4JSolutionSolver solver;
+
+    IncrementalSolver(BooleanAssignmentList booleanClauseList) {
+        solver = new SAT4JSolutionSolver(booleanClauseList);
+    }
+
+    /**
+     * Adds a clause that holds for all following queries.
+     */
+    void addClause(int... literals) {
+        solver.getClauseList().add(new BooleanAssignment(literals));
+    }
+
+    /**
+     * Adds a clause that excludes the given complete configuration from all following solutions.
+     */
+    void block(BooleanAssignment configuration) {
+        addClause(configuration.inverse().get());
+    }
+
+    /**
+     * Lets the solver try the given literals first when deciding on a variable, e.g., to find a solution close to a
+     * given configuration.
+     */
+    void setPreferredLiterals(int[] literals) {
+        solver.setSelectionStrategy(ISelectionStrategy.fixed(literals));
+    }
+
+    /**
+     * Searches a solution that contains all of the given literals.
+     * @return the solution as one literal per variable, an empty result without problems if there is none, or an
+     * empty result with problems if the solver failed
+     */
+    Result<int[]> solve(int... assumptions) {
+        solver.getAssignment().clear();
+        for (int literal : assumptions) {
+            solver.getAssignment().add(literal);
+        }
+        try {
+            Result<Boolean> hasSolution = solver.hasSolution();
+            if (hasSolution.isEmpty()) {
+                return Result.empty(hasSolution.getProblems());
+            }
+            if (!hasSolution.get()) {
+                return Result.empty();
+            }
+            int[] solution = solver.getInternalSolution();
+            return Result.of(Arrays.copyOf(solution, solution.length));
+        } finally {
+            solver.getAssignment().clear();
+        }
+    }
+}
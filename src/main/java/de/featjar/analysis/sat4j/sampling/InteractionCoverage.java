@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records which interactions of a list of {@link CoverageRequirement coverage requirements} a growing sample covers.
+ * Each requirement has a bitmap with one bit per interaction, indexed by the rank of the interaction: the positions of
+ * its t variables are ranked in the combinatorial number system and the signs of its t literals select one of 2^t
+ * bits. Requirements with a minimum count above one keep a counter per interaction instead.
+ * <p>
+ * The bitmaps are allocated off-heap in pages when they are first written, so no objects are created per interaction
+ * and a configuration only enumerates its own interactions. Use {@link #getRequiredBytes(List)} to check the memory
+ * before creating the coverage.
+ */
+public class InteractionCoverage {
+
+    private static final int PAGE_SHIFT = 27;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final List<Store> stores;
+    private final int variableCount;
+    private int configurationCount;
+
+    public InteractionCoverage(List<CoverageRequirement> requirements, int variableCount) {
+        this.variableCount = variableCount;
+        int maximumT = 0;
+        int maximumPositions = 0;
+        for (CoverageRequirement requirement : requirements) {
+            maximumT = Math.max(maximumT, requirement.getT());
+            maximumPositions = Math.max(maximumPositions, requirement.getVariables().length);
+        }
+        // binomials[k][n] is n choose k, shared by all requirements
+        long[][] binomials = new long[maximumT + 1][maximumPositions + 1];
+        for (int n = 0; n <= maximumPositions; n++) {
+            binomials[0][n] = 1;
+            for (int k = 1; k <= maximumT; k++) {
+                binomials[k][n] = n == 0 ? 0 : binomials[k - 1][n - 1] + binomials[k][n - 1];
+            }
+        }
+        stores = new ArrayList<>(requirements.size());
+        for (CoverageRequirement requirement : requirements) {
+            stores.add(new Store(requirement, binomials));
+        }
+    }
+
+    /**
+     * Returns the number of bytes needed to record the coverage of the given requirements.
+     */
+    public static long getRequiredBytes(List<CoverageRequirement> requirements) {
+        long bytes = 0;
+        for (CoverageRequirement requirement : requirements) {
+            bytes += getRequiredBytes(requirement);
+        }
+        return bytes;
+    }
+
+    private static long getRequiredBytes(CoverageRequirement requirement) {
+        long interactions = requirement.getInteractionCount();
+        return requirement.getMinimumCount() <= 1 ? (interactions + 7) >>> 3 : interactions * Integer.BYTES;
+    }
+
+    /**
+     * Returns whether the coverage of the given requirements fits into the given number of bytes, 0 for the
+     * {@link #getDefaultMaxMemory() default limit}.
+     */
+    public static boolean fits(List<CoverageRequirement> requirements, long maxMemory) {
+        return getRequiredBytes(requirements) <= (maxMemory > 0 ? maxMemory : getDefaultMaxMemory());
+    }
+
+    /**
+     * Returns the default memory limit, half of the direct memory that the JVM can still allocate.
+     * The bitmaps live in direct memory, which is limited independently of the heap, so larger bitmaps would fail
+     * with an {@link OutOfMemoryError} while sampling.
+     */
+    public static long getDefaultMaxMemory() {
+        long usedDirectMemory = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                usedDirectMemory = pool.getMemoryUsed();
+            }
+        }
+        return Math.max(0, getMaxDirectMemory() - usedDirectMemory) / 2;
+    }
+
+    private static long getMaxDirectMemory() {
+        try {
+            HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long maxDirectMemory = Long.parseLong(diagnostics.getVMOption("MaxDirectMemorySize").getValue());
+            if (maxDirectMemory > 0) {
+                return maxDirectMemory;
+            }
+        } catch (RuntimeException e) {
+            // not a HotSpot JVM
+        }
+        // without -XX:MaxDirectMemorySize, direct memory is limited by the maximum heap size
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * Adds a configuration to the sample.
+     * @return whether the configuration covers an interaction that was not covered yet, or contributes to the minimum
+     * count of an interaction
+     */
+    public boolean add(BooleanAssignment configuration) {
+        int[] values = new int[variableCount + 1];
+        for (int literal : configuration.get()) {
+            int variable = Math.abs(literal);
+            if (variable <= variableCount) {
+                values[variable] = literal;
+            }
+        }
+        configurationCount++;
+        boolean contributes = false;
+        for (Store store : stores) {
+            contributes |= store.add(values);
+        }
+        return contributes;
+    }
+
+    public void addAll(BooleanAssignmentList configurations) {
+        for (BooleanAssignment configuration : configurations.getAll()) {
+            add(configuration);
+        }
+    }
+
+    public int getConfigurationCount() {
+        return configurationCount;
+    }
+
+    public long getInteractionCount() {
+        long interactions = 0;
+        for (Store store : stores) {
+            interactions += store.requirement.getInteractionCount();
+        }
+        return interactions;
+    }
+
+    public long getCoveredCount() {
+        long covered = 0;
+        for (Store store : stores) {
+            covered += store.covered;
+        }
+        return covered;
+    }
+
+    /**
+     * Returns the share of covered interactions over all requirements, like {@link CoverageReport#getCoverage()}.
+     */
+    public double getCoverage() {
+        long interactions = getInteractionCount();
+        return interactions == 0 ? 1.0 : (double) getCoveredCount() / interactions;
+    }
+
+    private static final class Store {
+        private final CoverageRequirement requirement;
+        private final int t;
+        private final long[][] binomials;
+        private final boolean counting;
+        private final ByteBuffer[] pages;
+        private final int[] positions;
+        private final int[] signs;
+        private long covered;
+
+        private Store(CoverageRequirement requirement, long[][] binomials) {
+            this.requirement = requirement;
+            this.binomials = binomials;
+            t = requirement.getT();
+            counting = requirement.getMinimumCount() > 1;
+            pages = new ByteBuffer[(int) ((getRequiredBytes(requirement) + PAGE_SIZE - 1) >>> PAGE_SHIFT)];
+            positions = new int[requirement.getVariables().length];
+            signs = new int[requirement.getVariables().length];
+        }
+
+        private boolean add(int[] values) {
+            for (int literal : requirement.getFixedLiterals()) {
+                int variable = Math.abs(literal);
+                if (variable >= values.length || values[variable] != literal) {
+                    return false;
+                }
+            }
+            if (t == 0) {
+                return mark(0);
+            }
+            int[] excludedVariables = requirement.getExcludedVariables();
+            int count = 0;
+            int position = 0;
+            for (int variable : requirement.getVariables()) {
+                if (excludedVariables.length > 0 && Arrays.binarySearch(excludedVariables, variable) >= 0) {
+                    continue;
+                }
+                int value = variable < values.length ? values[variable] : 0;
+                if (value != 0) {
+                    positions[count] = position;
+                    signs[count] = value < 0 ? 1 : 0;
+                    count++;
+                }
+                position++;
+            }
+            return enumerate(count, 0, 0, 0, 0);
+        }
+
+        private boolean enumerate(int count, int depth, int start, long rank, int signPattern) {
+            if (depth == t) {
+                return mark((rank << t) | signPattern);
+            }
+            boolean contributes = false;
+            for (int i = start; i <= count - (t - depth); i++) {
+                contributes |= enumerate(
+                        count,
+                        depth + 1,
+                        i + 1,
+                        rank + binomials[depth + 1][positions[i]],
+                        signPattern | (signs[i] << depth));
+            }
+            return contributes;
+        }
+
+        private boolean mark(long interaction) {
+            if (counting) {
+                long offset = interaction * Integer.BYTES;
+                ByteBuffer page = getPage(offset);
+                int index = (int) (offset & (PAGE_SIZE - 1));
+                int count = page.getInt(index);
+                if (count >= requirement.getMinimumCount()) {
+                    return false;
+                }
+                page.putInt(index, ++count);
+                if (count == requirement.getMinimumCount()) {
+                    covered++;
+                }
+                return true;
+            }
+            long offset = interaction >>> 3;
+            ByteBuffer page = getPage(offset);
+            int index = (int) (offset & (PAGE_SIZE - 1));
+            byte bits = page.get(index);
+            int mask = 1 << (interaction & 7);
+            if ((bits & mask) != 0) {
+                return false;
+            }
+            page.put(index, (byte) (bits | mask));
+            covered++;
+            return true;
+        }
+
+        private ByteBuffer getPage(long offset) {
+            int page = (int) (offset >>> PAGE_SHIFT);
+            if (pages[page] == null) {
+                long remaining = getRequiredBytes(requirement) - ((long) page << PAGE_SHIFT);
+                pages[page] = ByteBuffer.allocateDirect((int) Math.min(PAGE_SIZE, remaining));
+            }
+            return pages[page];
+        }
+    }
+}
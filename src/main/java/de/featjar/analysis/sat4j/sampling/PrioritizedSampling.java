@@ -37,6 +37,6 @@ public class PrioritizedSampling extends ASamplingAddition {
 
     @Override
     public Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel) {
-        return new PrioritizedSamplingCommand().computeSample(featureModel, priorityMap, t, iterations);
+        return configure(new PrioritizedSamplingCommand()).computeSample(featureModel, priorityMap, t, iterations);
     }
 }
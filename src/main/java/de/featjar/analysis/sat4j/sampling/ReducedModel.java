@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * A clause list without its core and dead variables, with one representative per atomic set, and without variables
+ * that no specification references.
+ * Core and dead variables are removed by unit propagation. Every other variable of an atomic set is replaced by the
+ * first variable of its set, which has the same value in every configuration, or the opposite value for negated
+ * literals of the set. Unreferenced variables are eliminated by resolution as long as this does not increase the
+ * number of clauses; variables that would increase it are kept. All steps preserve the projection of the solution
+ * space onto the remaining variables, so every configuration of the reduced model can be expanded into a valid
+ * configuration of the original model with {@link #expand(BooleanAssignment)}.
+ */
+public class ReducedModel {
+
+    private static class Elimination {
+        private final int variable;
+        private final List<int[]> clauses;
+
+        private Elimination(int variable, List<int[]> clauses) {
+            this.variable = variable;
+            this.clauses = clauses;
+        }
+    }
+
+    private final VariableMap variableMap;
+    private final VariableMap reducedVariableMap;
+    private final BooleanAssignmentList clauseList;
+    private final int[] fixedLiterals;
+    private final int[] equivalentLiterals;
+    private final int[] reducedLiterals;
+    private final List<Elimination> eliminations;
+
+    private ReducedModel(
+            VariableMap variableMap,
+            VariableMap reducedVariableMap,
+            BooleanAssignmentList clauseList,
+            int[] fixedLiterals,
+            int[] equivalentLiterals,
+            int[] reducedLiterals,
+            List<Elimination> eliminations) {
+        this.variableMap = variableMap;
+        this.reducedVariableMap = reducedVariableMap;
+        this.clauseList = clauseList;
+        this.fixedLiterals = fixedLiterals;
+        this.equivalentLiterals = equivalentLiterals;
+        this.reducedLiterals = reducedLiterals;
+        this.eliminations = eliminations;
+    }
+
+    /**
+     * Reduces the given clause list.
+     * @param clauseList the clause list of the feature model
+     * @param coreAndDeadLiterals the literals that hold in every configuration
+     * @param referencedVariables the variables that must be kept, e.g.,
+     *     {@link CombinationSpecificationOptimizer#getReferencedVariables()}
+     */
+    public static ReducedModel compute(
+            BooleanAssignmentList clauseList, BooleanAssignment coreAndDeadLiterals, int[] referencedVariables) {
+        return compute(
+                clauseList,
+                coreAndDeadLiterals,
+                new BooleanAssignmentList(clauseList.getVariableMap()),
+                referencedVariables);
+    }
+
+    /**
+     * Reduces the given clause list and collapses the given atomic sets.
+     * @param clauseList the clause list of the feature model
+     * @param coreAndDeadLiterals the literals that hold in every configuration
+     * @param atomicSets sets of literals that have the same value in every configuration
+     * @param referencedVariables the variables that must be kept, e.g.,
+     *     {@link CombinationSpecificationOptimizer#getReferencedVariables()}
+     */
+    public static ReducedModel compute(
+            BooleanAssignmentList clauseList,
+            BooleanAssignment coreAndDeadLiterals,
+            BooleanAssignmentList atomicSets,
+            int[] referencedVariables) {
+        VariableMap variableMap = clauseList.getVariableMap();
+        int variableCount = variableMap.size();
+        int[] fixedLiterals = new int[variableCount + 1];
+        for (int literal : coreAndDeadLiterals.get()) {
+            if (literal != 0 && Math.abs(literal) <= variableCount) {
+                fixedLiterals[Math.abs(literal)] = literal;
+            }
+        }
+
+        int[] equivalentLiterals = new int[variableCount + 1];
+        for (BooleanAssignment atomicSet : atomicSets.getAll()) {
+            int representative = 0;
+            for (int literal : atomicSet.get()) {
+                int variable = Math.abs(literal);
+                if (literal == 0
+                        || variable > variableCount
+                        || fixedLiterals[variable] != 0
+                        || equivalentLiterals[variable] != 0) {
+                    continue;
+                }
+                if (representative == 0) {
+                    representative = literal;
+                } else {
+                    equivalentLiterals[variable] = literal > 0 ? representative : -representative;
+                }
+            }
+        }
+
+        List<int[]> clauses = new ArrayList<>(clauseList.size());
+        clauses:
+        for (BooleanAssignment clause : clauseList.getAll()) {
+            int[] literals = clause.get();
+            int[] remaining = new int[literals.length];
+            int size = 0;
+            literals:
+            for (int literal : literals) {
+                int fixed = fixedLiterals[Math.abs(literal)];
+                if (fixed == literal) {
+                    continue clauses;
+                }
+                if (fixed != 0) {
+                    continue;
+                }
+                int substitute = substitute(literal, equivalentLiterals);
+                for (int i = 0; i < size; i++) {
+                    if (remaining[i] == -substitute) {
+                        // both literals of a representative, the clause is always satisfied
+                        continue clauses;
+                    }
+                    if (remaining[i] == substitute) {
+                        continue literals;
+                    }
+                }
+                remaining[size++] = substitute;
+            }
+            clauses.add(Arrays.copyOf(remaining, size));
+        }
+
+        boolean[] referenced = new boolean[variableCount + 1];
+        for (int variable : referencedVariables) {
+            if (variable > 0 && variable <= variableCount) {
+                referenced[Math.abs(substitute(variable, equivalentLiterals))] = true;
+            }
+        }
+        boolean[] candidates = new boolean[variableCount + 1];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            candidates[variable] =
+                    !referenced[variable] && fixedLiterals[variable] == 0 && equivalentLiterals[variable] == 0;
+        }
+        List<Elimination> eliminations = eliminate(clauses, candidates, variableCount);
+
+        boolean[] eliminated = new boolean[variableCount + 1];
+        for (Elimination elimination : eliminations) {
+            eliminated[elimination.variable] = true;
+        }
+        VariableMap reducedVariableMap = new VariableMap();
+        int[] reducedLiterals = new int[variableCount + 1];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            if (fixedLiterals[variable] == 0 && equivalentLiterals[variable] == 0 && !eliminated[variable]) {
+                reducedLiterals[variable] =
+                        reducedVariableMap.add(variableMap.get(variable).orElseThrow());
+            }
+        }
+        BooleanAssignmentList reducedClauseList = new BooleanAssignmentList(reducedVariableMap);
+        for (int[] clause : clauses) {
+            if (clause != null) {
+                reducedClauseList.add(new BooleanAssignment(IntStream.of(clause)
+                        .map(literal -> Integer.signum(literal) * reducedLiterals[Math.abs(literal)])
+                        .toArray()));
+            }
+        }
+        return new ReducedModel(
+                variableMap,
+                reducedVariableMap,
+                reducedClauseList,
+                fixedLiterals,
+                equivalentLiterals,
+                reducedLiterals,
+                eliminations);
+    }
+
+    /**
+     * Replaces a literal of a collapsed variable by the corresponding literal of its representative.
+     */
+    private static int substitute(int literal, int[] equivalentLiterals) {
+        int equivalentLiteral = equivalentLiterals[Math.abs(literal)];
+        return equivalentLiteral == 0 ? literal : Integer.signum(literal) * equivalentLiteral;
+    }
+
+    /**
+     * Eliminates unreferenced variables by resolution, starting with the variables that occur least.
+     * Eliminated clauses are set to {@code null} in the given list and resolvents are appended.
+     */
+    private static List<Elimination> eliminate(List<int[]> clauses, boolean[] candidateVariables, int variableCount) {
+        List<List<Integer>> occurrences = new ArrayList<>(variableCount + 1);
+        for (int variable = 0; variable <= variableCount; variable++) {
+            occurrences.add(new ArrayList<>());
+        }
+        for (int i = 0; i < clauses.size(); i++) {
+            for (int literal : clauses.get(i)) {
+                occurrences.get(Math.abs(literal)).add(i);
+            }
+        }
+        int[] candidates = IntStream.rangeClosed(1, variableCount)
+                .filter(variable -> candidateVariables[variable])
+                .boxed()
+                .sorted(Comparator.comparingInt(variable -> occurrences.get(variable).size()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<Elimination> eliminations = new ArrayList<>();
+        for (int variable : candidates) {
+            List<int[]> positive = new ArrayList<>();
+            List<int[]> negative = new ArrayList<>();
+            Set<Integer> clauseIndices = new LinkedHashSet<>();
+            for (int index : occurrences.get(variable)) {
+                int[] clause = clauses.get(index);
+                if (clause != null && clauseIndices.add(index)) {
+                    (contains(clause, variable) ? positive : negative).add(clause);
+                }
+            }
+            int limit = positive.size() + negative.size();
+            List<int[]> resolvents = new ArrayList<>();
+            resolution:
+            for (int[] positiveClause : positive) {
+                for (int[] negativeClause : negative) {
+                    int[] resolvent = resolve(positiveClause, negativeClause, variable);
+                    if (resolvent != null) {
+                        resolvents.add(resolvent);
+                        if (resolvents.size() > limit) {
+                            break resolution;
+                        }
+                    }
+                }
+            }
+            if (resolvents.size() > limit) {
+                continue;
+            }
+            List<int[]> removedClauses = new ArrayList<>(limit);
+            for (int index : clauseIndices) {
+                removedClauses.add(clauses.get(index));
+                clauses.set(index, null);
+            }
+            for (int[] resolvent : resolvents) {
+                for (int literal : resolvent) {
+                    occurrences.get(Math.abs(literal)).add(clauses.size());
+                }
+                clauses.add(resolvent);
+            }
+            eliminations.add(new Elimination(variable, removedClauses));
+        }
+        return eliminations;
+    }
+
+    private static boolean contains(int[] clause, int literal) {
+        for (int other : clause) {
+            if (other == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the resolvent of both clauses on the given variable, or {@code null} if it is a tautology.
+     */
+    private static int[] resolve(int[] positiveClause, int[] negativeClause, int variable) {
+        int[] resolvent = new int[positiveClause.length + negativeClause.length];
+        int size = 0;
+        for (int literal : positiveClause) {
+            if (literal != variable) {
+                resolvent[size++] = literal;
+            }
+        }
+        int positiveSize = size;
+        literals:
+        for (int literal : negativeClause) {
+            if (literal == -variable) {
+                continue;
+            }
+            for (int i = 0; i < positiveSize; i++) {
+                if (resolvent[i] == -literal) {
+                    return null;
+                }
+                if (resolvent[i] == literal) {
+                    continue literals;
+                }
+            }
+            resolvent[size++] = literal;
+        }
+        return Arrays.copyOf(resolvent, size);
+    }
+
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    public VariableMap getReducedVariableMap() {
+        return reducedVariableMap;
+    }
+
+    /**
+     * Returns the clause list over the variables of {@link #getReducedVariableMap()}.
+     */
+    public BooleanAssignmentList getClauseList() {
+        return clauseList;
+    }
+
+    /**
+     * Returns the core or dead literal of the given variable of the original model, or 0 if it is not fixed.
+     */
+    public int getFixedLiteral(int variable) {
+        return fixedLiterals[variable];
+    }
+
+    public int getFixedVariableCount() {
+        return (int) IntStream.of(fixedLiterals).filter(literal -> literal != 0).count();
+    }
+
+    public int getCollapsedVariableCount() {
+        return (int) IntStream.of(equivalentLiterals).filter(literal -> literal != 0).count();
+    }
+
+    public int getEliminatedVariableCount() {
+        return eliminations.size();
+    }
+
+    /**
+     * Translates a literal of the original model into the reduced model.
+     * Literals of collapsed variables are translated into literals of their representative.
+     * @return the reduced literal, or 0 if the variable was removed
+     */
+    public int reduce(int literal) {
+        int substitute = substitute(literal, equivalentLiterals);
+        return Integer.signum(substitute) * reducedLiterals[Math.abs(substitute)];
+    }
+
+    /**
+     * Expands a configuration of the reduced model into a configuration of the original model.
+     * Fixed variables get their core or dead value. Eliminated variables are assigned in reverse order of their
+     * elimination, such that all clauses removed with them are satisfied. Collapsed variables get the value of their
+     * representative.
+     */
+    public BooleanAssignment expand(BooleanAssignment reducedConfiguration) {
+        int[] reducedValues = new int[reducedVariableMap.size() + 1];
+        for (int literal : reducedConfiguration.get()) {
+            if (literal != 0 && Math.abs(literal) < reducedValues.length) {
+                reducedValues[Math.abs(literal)] = literal;
+            }
+        }
+        int[] values = new int[fixedLiterals.length];
+        for (int variable = 1; variable < values.length; variable++) {
+            int reducedLiteral = reducedLiterals[variable];
+            if (fixedLiterals[variable] != 0) {
+                values[variable] = fixedLiterals[variable];
+            } else if (reducedLiteral != 0 && reducedValues[Math.abs(reducedLiteral)] != 0) {
+                boolean selected = (reducedValues[Math.abs(reducedLiteral)] > 0) == (reducedLiteral > 0);
+                values[variable] = selected ? variable : -variable;
+            }
+        }
+        for (int i = eliminations.size() - 1; i >= 0; i--) {
+            Elimination elimination = eliminations.get(i);
+            int variable = elimination.variable;
+            values[variable] = -variable;
+            for (int[] clause : elimination.clauses) {
+                if (contains(clause, variable) && !isSatisfied(clause, values)) {
+                    values[variable] = variable;
+                    break;
+                }
+            }
+        }
+        for (int variable = 1; variable < values.length; variable++) {
+            int equivalentLiteral = equivalentLiterals[variable];
+            if (equivalentLiteral != 0 && values[Math.abs(equivalentLiteral)] != 0) {
+                values[variable] = values[Math.abs(equivalentLiteral)] == equivalentLiteral ? variable : -variable;
+            }
+        }
+        return new BooleanAssignment(IntStream.of(values).filter(literal -> literal != 0).toArray());
+    }
+
+    private static boolean isSatisfied(int[] clause, int[] values) {
+        for (int literal : clause) {
+            if (values[Math.abs(literal)] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expands all configurations of a sample of the reduced model.
+     */
+    public BooleanAssignmentList expand(BooleanAssignmentList reducedSample) {
+        BooleanAssignmentList sample = new BooleanAssignmentList(variableMap);
+        for (BooleanAssignment configuration : reducedSample.getAll()) {
+            sample.add(expand(configuration));
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Indexes a sample by literal.
+ * For every literal, a bitset contains the indices of all configurations that contain the literal, so the
+ * configurations containing an interaction can be found by and-ing the bitsets of its literals.
+ */
+public class SampleIndex {
+
+    private final BitSet[] positive;
+    private final BitSet[] negative;
+    private final BitSet all;
+    private final int size;
+
+    public SampleIndex(BooleanAssignmentList sample) {
+        this(sample.getAll(), sample.getVariableMap().size());
+    }
+
+    public SampleIndex(List<? extends BooleanAssignment> configurations, int variableCount) {
+        size = configurations.size();
+        positive = new BitSet[variableCount + 1];
+        negative = new BitSet[variableCount + 1];
+        for (int i = 0; i <= variableCount; i++) {
+            positive[i] = new BitSet(size);
+            negative[i] = new BitSet(size);
+        }
+        for (int i = 0; i < size; i++) {
+            for (int literal : configurations.get(i).get()) {
+                if (literal > 0 && literal <= variableCount) {
+                    positive[literal].set(i);
+                } else if (literal < 0 && -literal <= variableCount) {
+                    negative[-literal].set(i);
+                }
+            }
+        }
+        all = new BitSet(size);
+        all.set(0, size);
+    }
+
+    /**
+     * Returns the number of indexed configurations.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getVariableCount() {
+        return positive.length - 1;
+    }
+
+    /**
+     * Returns the configurations containing the given literal. The returned bitset must not be modified.
+     */
+    public BitSet get(int literal) {
+        int variable = Math.abs(literal);
+        if (literal == 0 || variable >= positive.length) {
+            return new BitSet();
+        }
+        return literal > 0 ? positive[variable] : negative[variable];
+    }
+
+    /**
+     * Returns a new bitset of all configurations containing all of the given literals.
+     */
+    public BitSet getAll(int... literals) {
+        BitSet configurations = (BitSet) all.clone();
+        for (int literal : literals) {
+            configurations.and(get(literal));
+            if (configurations.isEmpty()) {
+                break;
+            }
+        }
+        return configurations;
+    }
+}
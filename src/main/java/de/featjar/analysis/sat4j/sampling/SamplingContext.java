@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.computation.ComputeAtomicSetsSAT4J;
+import de.featjar.analysis.sat4j.computation.ComputeCoreSAT4J;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Everything that sampling runs on one feature model can share.
+ * A context holds the clause list of a model and computes the solver-based analyses of the model at most once: the
+ * core and dead literals, the atomic sets, and the {@link ReducedModel}s derived from them.
+ * Contexts are shared per feature model content and per clause list, so consecutive and concurrent samplings of the
+ * same model reuse the transformation and the analyses. The contexts of the {@value #MAX_FEATURE_MODEL_CONTEXTS} most
+ * recently used model contents are kept, so a model that is changed gets a new context. The context of a clause list
+ * lives as long as a caller holds it, so code that samples clause lists directly should keep the context while it
+ * samples the same list.
+ */
+public class SamplingContext {
+
+    public static final int MAX_FEATURE_MODEL_CONTEXTS = 16;
+
+    private static final Map<String, SamplingContext> featureModelContexts = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SamplingContext> eldest) {
+            return size() > MAX_FEATURE_MODEL_CONTEXTS;
+        }
+    };
+    // a context references its clause list, so the values must not keep the keys alive
+    private static final Map<BooleanAssignmentList, WeakReference<SamplingContext>> clauseListContexts =
+            new WeakHashMap<>();
+
+    private final BooleanAssignmentList clauseList;
+    private Result<BooleanAssignment> coreAndDeadLiterals;
+    private Result<BooleanAssignmentList> atomicSets;
+    private final Map<String, ReducedModel> reducedModels = new HashMap<>();
+
+    private SamplingContext(BooleanAssignmentList clauseList) {
+        this.clauseList = clauseList;
+    }
+
+    /**
+     * Returns the context of the given clause list.
+     */
+    public static SamplingContext of(BooleanAssignmentList clauseList) {
+        synchronized (clauseListContexts) {
+            WeakReference<SamplingContext> reference = clauseListContexts.get(clauseList);
+            SamplingContext context = reference == null ? null : reference.get();
+            if (context == null) {
+                context = new SamplingContext(clauseList);
+                clauseListContexts.put(clauseList, new WeakReference<>(context));
+            }
+            return context;
+        }
+    }
+
+    /**
+     * Returns the context of the feature model with the given content. The transformation is only called if there is
+     * no context for the content yet.
+     * @param modelContent the content of the feature model, e.g., its printed formula
+     * @param transformation computes the clause list of the feature model
+     */
+    public static Result<SamplingContext> of(
+            String modelContent, Supplier<Result<BooleanAssignmentList>> transformation) {
+        synchronized (featureModelContexts) {
+            SamplingContext context = featureModelContexts.get(modelContent);
+            if (context != null) {
+                return Result.of(context);
+            }
+        }
+        // the transformation runs outside of the lock, so other models are not blocked
+        Result<BooleanAssignmentList> clauseList = transformation.get();
+        if (clauseList.isEmpty()) {
+            return Result.empty(clauseList.getProblems());
+        }
+        synchronized (featureModelContexts) {
+            return Result.of(featureModelContexts.computeIfAbsent(modelContent, content -> of(clauseList.get())));
+        }
+    }
+
+    public BooleanAssignmentList getClauseList() {
+        return clauseList;
+    }
+
+    public synchronized Result<BooleanAssignment> getCoreAndDeadLiterals() {
+        if (coreAndDeadLiterals == null) {
+            coreAndDeadLiterals = Computations.of(clauseList).map(ComputeCoreSAT4J::new).computeResult();
+        }
+        return coreAndDeadLiterals;
+    }
+
+    public synchronized Result<BooleanAssignmentList> getAtomicSets() {
+        if (atomicSets == null) {
+            atomicSets = Computations.of(clauseList).map(ComputeAtomicSetsSAT4J::new).computeResult();
+        }
+        return atomicSets;
+    }
+
+    /**
+     * Returns the reduced model for the given settings, see {@link ReducedModel#compute}.
+     * @param removeCoreAndDead whether core and dead variables are removed and unreferenced variables are sliced
+     * @param collapseAtomicSets whether atomic sets are collapsed
+     * @param referencedVariables the variables that must be kept when slicing
+     * @return the reduced model, or an empty result if an analysis failed
+     */
+    public Result<ReducedModel> getReducedModel(
+            boolean removeCoreAndDead, boolean collapseAtomicSets, int[] referencedVariables) {
+        BooleanAssignment fixedLiterals = new BooleanAssignment();
+        int[] keptVariables = clauseList.getVariableMap().getVariables().get();
+        if (removeCoreAndDead) {
+            Result<BooleanAssignment> core = getCoreAndDeadLiterals();
+            if (core.isEmpty()) {
+                return Result.empty(core.getProblems());
+            }
+            fixedLiterals = core.get();
+            keptVariables = referencedVariables;
+        }
+        BooleanAssignmentList sets = new BooleanAssignmentList(clauseList.getVariableMap());
+        if (collapseAtomicSets) {
+            Result<BooleanAssignmentList> atomicSetResult = getAtomicSets();
+            if (atomicSetResult.isEmpty()) {
+                return Result.empty(atomicSetResult.getProblems());
+            }
+            sets = atomicSetResult.get();
+        }
+        String key = removeCoreAndDead + ";" + collapseAtomicSets + ";" + Arrays.toString(keptVariables);
+        synchronized (reducedModels) {
+            ReducedModel model = reducedModels.get(key);
+            if (model == null) {
+                model = ReducedModel.compute(clauseList, fixedLiterals, sets, keptVariables);
+                reducedModels.put(key, model);
+            }
+            return Result.of(model);
+        }
+    }
+}
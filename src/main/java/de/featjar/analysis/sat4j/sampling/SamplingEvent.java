@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+/**
+ * Progress of a running sampling, see {@link ISamplingListener}.
+ */
+public class SamplingEvent {
+
+    public enum Phase {
+        /**
+         * The feature model is transformed and analyzed.
+         */
+        PREPARING,
+        /**
+         * A round of configurations was generated.
+         */
+        SAMPLING,
+        /**
+         * All specifications are covered and cardinalities are completed.
+         */
+        COMPLETING,
+        /**
+         * Sampling stopped at the time limit or the target coverage, which the event carries.
+         */
+        STOPPED,
+        /**
+         * The sample is complete.
+         */
+        FINISHED
+    }
+
+    private final Phase phase;
+    private final int configurationCount;
+    private final double coverage;
+
+    public SamplingEvent(Phase phase, int configurationCount, double coverage) {
+        this.phase = phase;
+        this.configurationCount = configurationCount;
+        this.coverage = coverage;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of configurations generated so far.
+     */
+    public int getConfigurationCount() {
+        return configurationCount;
+    }
+
+    /**
+     * Returns the coverage between 0 and 1 of the configurations generated so far, or {@link Double#NaN} if it was
+     * not measured in this phase.
+     */
+    public double getCoverage() {
+        return coverage;
+    }
+
+    @Override
+    public String toString() {
+        return phase + ": " + configurationCount + " configurations"
+                + (Double.isNaN(coverage) ? "" : String.format(", %.2f%% coverage", 100 * coverage));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.analysis.sat4j.io.BooleanAssignmentListBinaryFormat;
+import de.featjar.analysis.sat4j.io.BooleanAssignmentValueMapBinaryFormat;
+import de.featjar.analysis.sat4j.io.VariableIndex;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Self-contained input of a sharded sampling run.
+ * The directory holds the clause list, the sampling parameters, and the combination specifications of each shard in
+ * separate files, which the coordinator writes with {@link CombinationSpecificationOptimizer#split(int)}. A worker
+ * only needs the directory and only reads the specifications of its own shard.
+ * Workers write their sample into the same directory. As all files are plain files, the directory can be copied to
+ * another machine and the samples can be copied back.
+ */
+public class ShardDirectory {
+
+    private static final String FEATURE_MODEL_FILE = "feature-model.bin";
+    private static final String VARIABLE_GROUP_MAP_FILE = "variable-group-map.bin";
+    private static final String PRIORITY_MAP_FILE = "priority-map.bin";
+    private static final String CLUSTER_INTERACTION_MAP_FILE = "cluster-interaction-map.bin";
+    private static final String PARAMETERS_FILE = "shard.properties";
+
+    private final Path path;
+    private final int shards;
+    private final int t;
+    private final int iterations;
+    private final long randomSeed;
+
+    private ShardDirectory(Path path, int shards, int t, int iterations, long randomSeed) {
+        this.path = path;
+        this.shards = shards;
+        this.t = t;
+        this.iterations = iterations;
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * Writes the input of a sharded sampling run into the given directory.
+     * The optimizer must use the variable map of the feature model.
+     */
+    public static ShardDirectory create(
+            Path path,
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            int shards,
+            int iterations,
+            long randomSeed)
+            throws IOException {
+        Files.createDirectories(path);
+        try (OutputStream out = Files.newOutputStream(path.resolve(FEATURE_MODEL_FILE))) {
+            BooleanAssignmentListBinaryFormat.write(featureModel, out);
+        }
+        List<CombinationSpecificationOptimizer> shardOptimizers = optimizer.split(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            CombinationSpecificationOptimizer shardOptimizer = shardOptimizers.get(shard);
+            Path shardPath = getShardPath(path, shard);
+            Files.createDirectories(shardPath);
+            BooleanAssignmentValueMapBinaryFormat.write(
+                    shardOptimizer.getVariableGroupMap(), shardPath.resolve(VARIABLE_GROUP_MAP_FILE));
+            BooleanAssignmentValueMapBinaryFormat.write(
+                    shardOptimizer.getPriorityClusterMap(), shardPath.resolve(PRIORITY_MAP_FILE));
+            BooleanAssignmentValueMapBinaryFormat.write(
+                    shardOptimizer.getClusterInteractionMap(), shardPath.resolve(CLUSTER_INTERACTION_MAP_FILE));
+        }
+
+        Properties parameters = new Properties();
+        parameters.setProperty("shards", Integer.toString(shards));
+        parameters.setProperty("t", Integer.toString(optimizer.getGlobalT()));
+        parameters.setProperty("iterations", Integer.toString(iterations));
+        parameters.setProperty("seed", Long.toString(randomSeed));
+        try (Writer writer = Files.newBufferedWriter(path.resolve(PARAMETERS_FILE), StandardCharsets.UTF_8)) {
+            parameters.store(writer, "sharded sampling");
+        }
+        return new ShardDirectory(path, shards, optimizer.getGlobalT(), iterations, randomSeed);
+    }
+
+    /**
+     * Opens a directory that was written by {@link #create}.
+     */
+    public static ShardDirectory open(Path path) throws IOException {
+        Properties parameters = new Properties();
+        try (Reader reader = Files.newBufferedReader(path.resolve(PARAMETERS_FILE), StandardCharsets.UTF_8)) {
+            parameters.load(reader);
+        }
+        try {
+            return new ShardDirectory(
+                    path,
+                    Integer.parseInt(parameters.getProperty("shards")),
+                    Integer.parseInt(parameters.getProperty("t")),
+                    Integer.parseInt(parameters.getProperty("iterations")),
+                    Long.parseLong(parameters.getProperty("seed")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid parameters in " + path.resolve(PARAMETERS_FILE), e);
+        }
+    }
+
+    private static Path getShardPath(Path path, int shard) {
+        return path.resolve("shard-" + shard);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the global t of the sampling run, which only the first shard covers.
+     */
+    public int getT() {
+        return t;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public BooleanAssignmentList readFeatureModel() throws IOException {
+        try (InputStream in = Files.newInputStream(path.resolve(FEATURE_MODEL_FILE))) {
+            return BooleanAssignmentListBinaryFormat.read(in);
+        }
+    }
+
+    /**
+     * Reads the combination specifications of the given shard for the given feature model, which must be read by
+     * {@link #readFeatureModel()}. The files of the other shards are not read.
+     */
+    public CombinationSpecificationOptimizer readShard(int shard, BooleanAssignmentList featureModel)
+            throws IOException {
+        VariableIndex index = new VariableIndex(featureModel.getVariableMap());
+        Path shardPath = getShardPath(path, shard);
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        if (shard == 0) {
+            optimizer.setGlobalT(t);
+        }
+        BooleanAssignmentValueMap variableGroups = readMap(shardPath.resolve(VARIABLE_GROUP_MAP_FILE), index);
+        for (BooleanAssignment group : variableGroups.getAssignments()) {
+            optimizer.addVariableGroup(variableGroups.getValue(group), group.getAbsoluteValues(), "shard " + shard);
+        }
+        for (BooleanAssignment cluster : readMap(shardPath.resolve(PRIORITY_MAP_FILE), index).getAssignments()) {
+            optimizer.addPriorityCluster(cluster);
+        }
+        BooleanAssignmentValueMap clusterInteractions =
+                readMap(shardPath.resolve(CLUSTER_INTERACTION_MAP_FILE), index);
+        for (BooleanAssignment cluster : clusterInteractions.getAssignments()) {
+            optimizer.addClusterInteraction(cluster, clusterInteractions.getValue(cluster));
+        }
+        return optimizer;
+    }
+
+    private static BooleanAssignmentValueMap readMap(Path mapPath, VariableIndex index) throws IOException {
+        // the maps were written with the variable map of the feature model, so no name can be unknown
+        return BooleanAssignmentValueMapBinaryFormat.read(mapPath, index, new HashSet<>());
+    }
+
+    public Path getSamplePath(int shard) {
+        return path.resolve("sample-" + shard + ".bin");
+    }
+
+    public Path getLogPath(int shard) {
+        return path.resolve("shard-" + shard + ".log");
+    }
+
+    /**
+     * Writes the sample of a shard. The file is moved into place when it is complete, so a sample file is either
+     * missing or complete.
+     */
+    public void writeSample(int shard, BooleanAssignmentList sample) throws IOException {
+        Path samplePath = getSamplePath(shard);
+        Path temporaryFile = Files.createTempFile(path, "sample-" + shard, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+                BooleanAssignmentListBinaryFormat.write(sample, out);
+            }
+            Files.move(temporaryFile, samplePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    public BooleanAssignmentList readSample(int shard) throws IOException {
+        try (InputStream in = Files.newInputStream(getSamplePath(shard))) {
+            return BooleanAssignmentListBinaryFormat.read(in);
+        }
+    }
+}
@@ -35,6 +35,6 @@ public class WeightedSampling extends ASamplingAddition {
 
     @Override
     public Result<BooleanAssignmentList> computeSample(BooleanAssignmentList featureModel) {
-        return new WeightedSamplingCommand().computeSample(featureModel, weightMap, iterations);
+        return configure(new WeightedSamplingCommand()).computeSample(featureModel, weightMap, iterations);
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.sampling.TestFeatureModels;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ASamplingAdditionCommandTest {
+
+    private static BooleanAssignmentList createFeatureModel() {
+        return TestFeatureModels.createFeatureModel(3, new BooleanAssignment(-1, 2), new BooleanAssignment(2, 3));
+    }
+
+    @Test
+    public void testIsValid() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+
+        Assertions.assertTrue(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(1, 2, -3)));
+        Assertions.assertTrue(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(-1, -2, 3)));
+        Assertions.assertFalse(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(1, -2, 3)));
+        Assertions.assertFalse(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(-1, -2, -3)));
+    }
+
+    @Test
+    public void testUnassignedVariablesDoNotSatisfyClauses() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+
+        Assertions.assertTrue(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(2)));
+        Assertions.assertFalse(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(1)));
+        // variables that are not part of the feature model are ignored
+        Assertions.assertTrue(ASamplingAdditionCommand.isValid(featureModel, new BooleanAssignment(2, 4)));
+    }
+
+    @Test
+    public void testCompletesPartialConfigurationsOfInitialSample() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+        CombinedSamplingCommand command = new CombinedSamplingCommand();
+        command.setInitialSample(new BooleanAssignmentList(
+                featureModel.getVariableMap(), new BooleanAssignment(2), new BooleanAssignment(1)));
+
+        BooleanAssignmentList initialSample = command.prepareInitialSample(featureModel);
+        Assertions.assertEquals(2, initialSample.size());
+        for (BooleanAssignment configuration : initialSample.getAll()) {
+            Assertions.assertEquals(3, configuration.get().length);
+            Assertions.assertTrue(ASamplingAdditionCommand.isValid(featureModel, configuration));
+        }
+    }
+}
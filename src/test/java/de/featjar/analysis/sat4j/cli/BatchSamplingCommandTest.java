@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import de.featjar.analysis.sat4j.cli.BatchSamplingCommand.Job;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchSamplingCommandTest {
+
+    @TempDir
+    Path directory;
+
+    private Path writeFile(String fileName) throws IOException {
+        return Files.writeString(directory.resolve(fileName), "", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testListsModelsOfDirectory() throws IOException {
+        Path a = SamplingAdditionTest.writeFeatureModel(directory, "a.xml");
+        Path b = SamplingAdditionTest.writeFeatureModel(directory, "b.xml");
+        Path aPriorityMap = writeFile("a.priority-map");
+        Path aWeightMap = writeFile("a.weight-map.txt");
+        Path bCardinalityMap = writeFile("b.cardinality-map.xml");
+        writeFile("notes.txt");
+
+        List<Job> jobs = BatchSamplingCommand.listJobs(directory, 3);
+
+        Assertions.assertEquals(2, jobs.size());
+        Assertions.assertEquals("a", jobs.get(0).name);
+        Assertions.assertEquals(a, jobs.get(0).featureModel);
+        Assertions.assertEquals(Map.of("priority-map", aPriorityMap, "weight-map", aWeightMap), jobs.get(0).maps);
+        Assertions.assertEquals(3, jobs.get(0).t);
+        Assertions.assertEquals("b", jobs.get(1).name);
+        Assertions.assertEquals(b, jobs.get(1).featureModel);
+        Assertions.assertEquals(Map.of("cardinality-map", bCardinalityMap), jobs.get(1).maps);
+    }
+
+    @Test
+    public void testReadsManifest() throws IOException {
+        Path model = SamplingAdditionTest.writeFeatureModel(directory, "model.xml");
+        Path priorityMap = writeFile("priorities.txt");
+        Path manifest = Files.writeString(
+                directory.resolve("jobs.txt"),
+                "# comment\n"
+                        + "model.xml\n"
+                        + "\n"
+                        + "model.xml t=3 name=prioritized priority-map=priorities.txt\n",
+                StandardCharsets.UTF_8);
+
+        List<Job> jobs = BatchSamplingCommand.readManifest(manifest, 2);
+
+        Assertions.assertEquals(2, jobs.size());
+        Assertions.assertEquals("model", jobs.get(0).name);
+        Assertions.assertEquals(model.toAbsolutePath(), jobs.get(0).featureModel.toAbsolutePath());
+        Assertions.assertEquals(2, jobs.get(0).t);
+        Assertions.assertTrue(jobs.get(0).maps.isEmpty());
+        Assertions.assertEquals("prioritized", jobs.get(1).name);
+        Assertions.assertEquals(3, jobs.get(1).t);
+        Assertions.assertEquals(
+                priorityMap.toAbsolutePath(), jobs.get(1).maps.get("priority-map").toAbsolutePath());
+    }
+
+    @Test
+    public void testRejectsInvalidManifest() throws IOException {
+        SamplingAdditionTest.writeFeatureModel(directory, "model.xml");
+        Path unknownKey = Files.writeString(directory.resolve("unknown.txt"), "model.xml s=2\n");
+        Path duplicateName = Files.writeString(directory.resolve("duplicate.txt"), "model.xml\nmodel.xml\n");
+
+        Assertions.assertThrows(IOException.class, () -> BatchSamplingCommand.readManifest(unknownKey, 2));
+        Assertions.assertThrows(IOException.class, () -> BatchSamplingCommand.readManifest(duplicateName, 2));
+    }
+}
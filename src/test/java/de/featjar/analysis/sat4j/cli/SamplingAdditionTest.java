@@ -18,7 +18,11 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static de.featjar.Common.loadFormula;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -44,6 +48,27 @@ public class SamplingAdditionTest {
                 .compute();
     }
 
+    /**
+     * Writes a small feature model with the features A, B, C, and D, where exactly one of C and D is selected.
+     */
+    public static Path writeFeatureModel(Path directory, String fileName) throws IOException {
+        return Files.writeString(
+                directory.resolve(fileName),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+                        + "<featureModel>\n"
+                        + "\t<struct>\n"
+                        + "\t\t<and abstract=\"true\" mandatory=\"true\" name=\"Root\">\n"
+                        + "\t\t\t<feature name=\"A\"/>\n"
+                        + "\t\t\t<alt abstract=\"true\" mandatory=\"true\" name=\"B\">\n"
+                        + "\t\t\t\t<feature name=\"C\"/>\n"
+                        + "\t\t\t\t<feature name=\"D\"/>\n"
+                        + "\t\t\t</alt>\n"
+                        + "\t\t</and>\n"
+                        + "\t</struct>\n"
+                        + "\t<constraints/>\n"
+                        + "</featureModel>\n",
+                StandardCharsets.UTF_8);
+    }
 
     @Test
     public void testPrioritizedSampling() {
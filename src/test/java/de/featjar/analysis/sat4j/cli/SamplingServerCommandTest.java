@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.analysis.sat4j.io.ConfigurationListFormat;
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SamplingServerCommandTest {
+
+    @TempDir
+    Path directory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SamplingServerCommand command;
+    private InetSocketAddress address;
+
+    @BeforeAll
+    public static void begin() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @AfterAll
+    public static void end() {
+        FeatJAR.deinitialize();
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        command = new SamplingServerCommand();
+        address = command.start(0, 4, 600, 2);
+    }
+
+    @AfterEach
+    public void stopServer() {
+        command.stop();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + address.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> register(String id) throws IOException, InterruptedException {
+        Path model = SamplingAdditionTest.writeFeatureModel(directory, "model.xml");
+        return send(
+                "POST",
+                "/models?model=" + id + "&path=" + URLEncoder.encode(model.toString(), StandardCharsets.UTF_8),
+                "");
+    }
+
+    @Test
+    public void testRegisterModel() throws IOException, InterruptedException {
+        HttpResponse<String> response = register("m");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("registered m"));
+
+        response = send("POST", "/models?model=m", "");
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    public void testSample() throws IOException, InterruptedException {
+        register("m");
+        HttpResponse<String> response = send("POST", "/sample?model=m&t=2&seed=1", "[priority-map]\nA,C=1\n");
+        assertEquals(200, response.statusCode());
+        BooleanAssignmentList sample = ConfigurationListFormat.parse(response.body());
+        assertFalse(sample.getAll().isEmpty());
+        int c = sample.getVariableMap().get("C").get();
+        int d = sample.getVariableMap().get("D").get();
+        sample.getAll()
+                .forEach(configuration -> assertEquals(
+                        1,
+                        IntStream.of(configuration.get())
+                                .filter(literal -> literal == c || literal == d)
+                                .count()));
+
+        assertEquals(400, send("POST", "/sample?model=unknown", "").statusCode());
+    }
+
+    @Test
+    public void testShutdownRequiresPost() throws Exception {
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(() -> {
+            try {
+                command.awaitShutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        HttpResponse<String> response = send("GET", "/shutdown", "");
+        assertEquals(405, response.statusCode());
+        assertEquals("POST", response.headers().firstValue("Allow").orElse(null));
+        assertEquals(405, send("PUT", "/sample?model=m", "").statusCode());
+        Thread.sleep(100);
+        assertFalse(shutdown.isDone());
+
+        assertEquals(200, send("POST", "/shutdown", "").statusCode());
+        shutdown.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BooleanAssignmentListBinaryFormatTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        BooleanAssignmentList list = new BooleanAssignmentList(
+                variableMap, new BooleanAssignment(1, -2), new BooleanAssignment(-1, 2, -3), new BooleanAssignment());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BooleanAssignmentListBinaryFormat.write(list, out);
+        BooleanAssignmentList read =
+                BooleanAssignmentListBinaryFormat.read(new ByteArrayInputStream(out.toByteArray()));
+
+        Assertions.assertEquals(3, read.getVariableMap().size());
+        Assertions.assertEquals("feature2", read.getVariableMap().get(2).orElseThrow());
+        Assertions.assertEquals(list.size(), read.size());
+        for (int i = 0; i < list.size(); i++) {
+            Assertions.assertArrayEquals(
+                    list.getAll().get(i).get(), read.getAll().get(i).get());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.io.input.StringInputMapper;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BooleanAssignmentValueMapBinaryFormatTest {
+
+    @Test
+    public void testRoundTrip(@TempDir Path directory) throws IOException {
+        String text = "feature1,-feature2,feature3=1\n" + "-feature1,feature4=2\n" + "feature5=4";
+        BooleanAssignmentValueMap map = new BooleanAssignmentValueMapFormat()
+                .parse(new StringInputMapper(text, StandardCharsets.UTF_8, ".txt"))
+                .get();
+
+        Path binaryFile = directory.resolve("map.bin");
+        BooleanAssignmentValueMapBinaryFormat.write(map, binaryFile);
+        Path textFile = directory.resolve("map.txt");
+        Files.write(textFile, text.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertTrue(BooleanAssignmentValueMapBinaryFormat.isBinary(binaryFile));
+        Assertions.assertFalse(BooleanAssignmentValueMapBinaryFormat.isBinary(textFile));
+
+        BooleanAssignmentValueMap read = BooleanAssignmentValueMapBinaryFormat.read(binaryFile);
+        Assertions.assertEquals(map.size(), read.size());
+        Assertions.assertEquals(map.getVariableMap().size(), read.getVariableMap().size());
+        Assertions.assertEquals(
+                new BooleanAssignmentValueMapFormat().serialize(map).get(),
+                new BooleanAssignmentValueMapFormat().serialize(read).get());
+    }
+}
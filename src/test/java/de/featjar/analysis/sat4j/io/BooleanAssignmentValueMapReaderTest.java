@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BooleanAssignmentValueMapReaderTest {
+
+    private static VariableIndex createIndex() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        return new VariableIndex(variableMap);
+    }
+
+    @Test
+    public void testResolvesNamesAgainstIndex() throws IOException {
+        VariableIndex index = createIndex();
+        Set<String> unknownNames = new LinkedHashSet<>();
+        BooleanAssignmentValueMap map = BooleanAssignmentValueMapReader.parse(
+                "feature1,-feature3=2\n+feature2=1\nfeature1,unknown1=3\n-unknown2=4\n", index, unknownNames);
+
+        Assertions.assertSame(index.getVariableMap(), map.getVariableMap());
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(2, map.getValue(new BooleanAssignment(1, -3)));
+        Assertions.assertEquals(1, map.getValue(new BooleanAssignment(2)));
+        Assertions.assertEquals(List.of("unknown1", "unknown2"), List.copyOf(unknownNames));
+    }
+
+    @Test
+    public void testResolvesBinaryMapAgainstIndex(@TempDir Path directory) throws IOException {
+        VariableMap fileVariables = new VariableMap();
+        fileVariables.add("feature3");
+        fileVariables.add("unknown");
+        fileVariables.add("feature1");
+        BooleanAssignmentValueMap fileMap = new BooleanAssignmentValueMap(fileVariables);
+        fileMap.add(new BooleanAssignment(-1, 3), 5);
+        fileMap.add(new BooleanAssignment(2), 6);
+        Path file = directory.resolve("map.bin");
+        BooleanAssignmentValueMapBinaryFormat.write(fileMap, file);
+
+        VariableIndex index = createIndex();
+        Set<String> unknownNames = new LinkedHashSet<>();
+        BooleanAssignmentValueMap map = BooleanAssignmentValueMapReader.read(file, index, unknownNames);
+
+        Assertions.assertSame(index.getVariableMap(), map.getVariableMap());
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals(5, map.getValue(new BooleanAssignment(-3, 1)));
+        Assertions.assertEquals(Set.of("unknown"), unknownNames);
+    }
+}
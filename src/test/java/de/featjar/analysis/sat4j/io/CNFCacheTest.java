@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CNFCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private static BooleanAssignmentList createClauseList() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        return new BooleanAssignmentList(variableMap, new BooleanAssignment(-1, 2), new BooleanAssignment(1, 2));
+    }
+
+    private static Supplier<Result<BooleanAssignmentList>> countingComputation(AtomicInteger computations) {
+        return () -> {
+            computations.incrementAndGet();
+            return Result.of(createClauseList());
+        };
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testComputesOnMissAndReadsOnHit() {
+        CNFCache cache = new CNFCache(directory);
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.get("model", countingComputation(computations));
+        BooleanAssignmentList cachedClauseList = cache.get("model", countingComputation(computations)).get();
+        Assertions.assertEquals(1, computations.get());
+        Assertions.assertEquals("feature2", cachedClauseList.getVariableMap().get(2).orElseThrow());
+        Assertions.assertArrayEquals(createClauseList().getAll().get(0).get(), cachedClauseList.getAll().get(0).get());
+
+        cache.get("changed model", countingComputation(computations));
+        Assertions.assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void testStoresEntriesWithoutTemporaryFiles() throws IOException {
+        CNFCache cache = new CNFCache(directory);
+
+        cache.get("model", countingComputation(new AtomicInteger()));
+
+        List<String> files = listFiles();
+        Assertions.assertEquals(1, files.size());
+        Assertions.assertTrue(files.get(0).endsWith(".cnf"));
+    }
+
+    @Test
+    public void testDoesNotStoreFailedComputations() throws IOException {
+        CNFCache cache = new CNFCache(directory);
+
+        Assertions.assertTrue(cache.get("model", () -> Result.empty()).isEmpty());
+        Assertions.assertFalse(Files.exists(directory) && !listFiles().isEmpty());
+    }
+
+    @Test
+    public void testEvictsEntriesBeyondMaximumSize() throws IOException {
+        CNFCache cache = new CNFCache(directory, 0, Duration.ofDays(1));
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.get("model", countingComputation(computations));
+        Assertions.assertTrue(listFiles().isEmpty());
+        cache.get("model", countingComputation(computations));
+        Assertions.assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void testEvictsEntriesBeyondMaximumAge() throws IOException {
+        new CNFCache(directory).get("model", countingComputation(new AtomicInteger()));
+        Assertions.assertEquals(1, listFiles().size());
+
+        new CNFCache(directory, 1L << 30, Duration.ofMillis(-1)).evict();
+        Assertions.assertTrue(listFiles().isEmpty());
+    }
+}
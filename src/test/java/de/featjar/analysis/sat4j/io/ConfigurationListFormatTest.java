@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConfigurationListFormatTest {
+
+    @TempDir
+    Path directory;
+
+    private static BooleanAssignmentList createSample() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        return new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(1, -2, 3),
+                new BooleanAssignment(-1, 2),
+                new BooleanAssignment(-1, -2, -3));
+    }
+
+    @Test
+    public void testSerialize() {
+        Assertions.assertEquals(
+                "+feature1,-feature2,+feature3\n-feature1,+feature2\n-feature1,-feature2,-feature3\n",
+                ConfigurationListFormat.serialize(createSample()));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        BooleanAssignmentList sample = createSample();
+        Path path = directory.resolve("sample.csv");
+
+        ConfigurationListFormat.write(sample, path);
+        BooleanAssignmentList parsed = ConfigurationListFormat.load(path).get();
+
+        Assertions.assertEquals(sample.size(), parsed.size());
+        Assertions.assertEquals(ConfigurationListFormat.serialize(sample), ConfigurationListFormat.serialize(parsed));
+    }
+
+    @Test
+    public void testParseUnsignedNamesAsSelected() {
+        BooleanAssignmentList parsed = ConfigurationListFormat.parse("a, -b\n\n+c,a\n");
+
+        VariableMap variableMap = parsed.getVariableMap();
+        int a = variableMap.get("a").get();
+        int b = variableMap.get("b").get();
+        int c = variableMap.get("c").get();
+        Assertions.assertEquals(
+                List.of(new BooleanAssignment(a, -b), new BooleanAssignment(c, a)), List.copyOf(parsed.getAll()));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.io;
+
+import de.featjar.base.io.input.StringInputMapper;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import de.featjar.formula.io.textual.BooleanAssignmentValueMapFormat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SampleCacheTest {
+
+    private static BooleanAssignmentValueMap parseMap(String text) {
+        return new BooleanAssignmentValueMapFormat()
+                .parse(new StringInputMapper(text, StandardCharsets.UTF_8, ".txt"))
+                .get();
+    }
+
+    private static BooleanAssignmentList createSample() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        return new BooleanAssignmentList(
+                variableMap, new BooleanAssignment(1, 2), new BooleanAssignment(-1, 2), new BooleanAssignment(1, -2));
+    }
+
+    @Test
+    public void testKeyNormalizesMaps() {
+        BooleanAssignmentValueMap map = parseMap("feature1,-feature2=1\nfeature3=2");
+        BooleanAssignmentValueMap reordered = parseMap("feature3=2\n-feature2,feature1=1");
+        BooleanAssignmentValueMap changed = parseMap("feature1,-feature2=1\nfeature3=3");
+
+        String hash = new SampleCache.Key("test").add("map", map).getHash();
+        Assertions.assertEquals(hash, new SampleCache.Key("test").add("map", reordered).getHash());
+        Assertions.assertNotEquals(hash, new SampleCache.Key("test").add("map", changed).getHash());
+        Assertions.assertNotEquals(
+                hash, new SampleCache.Key("test").add("map", map).add("t", 2).getHash());
+    }
+
+    @Test
+    public void testStoresAndEvicts(@TempDir Path directory) {
+        SampleCache cache = new SampleCache(directory);
+        SampleCache.Key key = new SampleCache.Key("test").add("t", 2);
+        Assertions.assertTrue(cache.load(key).isEmpty());
+
+        BooleanAssignmentList sample = createSample();
+        cache.store(key, sample);
+        BooleanAssignmentList cachedSample = cache.load(key).get();
+        Assertions.assertEquals("feature2", cachedSample.getVariableMap().get(2).orElseThrow());
+        Assertions.assertEquals(sample.size(), cachedSample.size());
+        for (int i = 0; i < sample.size(); i++) {
+            Assertions.assertArrayEquals(sample.getAll().get(i).get(), cachedSample.getAll().get(i).get());
+        }
+
+        SampleCache smallCache = new SampleCache(directory, 0);
+        smallCache.store(new SampleCache.Key("test").add("t", 3), sample);
+        Assertions.assertTrue(smallCache.load(key).isEmpty());
+    }
+}
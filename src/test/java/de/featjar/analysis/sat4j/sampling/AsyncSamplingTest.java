@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class AsyncSamplingTest {
+
+    @BeforeAll
+    public static void begin() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @AfterAll
+    public static void end() {
+        FeatJAR.deinitialize();
+    }
+
+    @Test
+    public void testPublishesPhases() throws Exception {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(3, new BooleanAssignment(-1, 2));
+        PrioritizedSampling sampling =
+                new PrioritizedSampling(2, new BooleanAssignmentValueMap(featureModel.getVariableMap()));
+        List<SamplingEvent.Phase> phases = Collections.synchronizedList(new ArrayList<>());
+        sampling.setSamplingListener(event -> phases.add(event.getPhase()));
+
+        BooleanAssignmentList sample =
+                sampling.computeSampleAsync(featureModel).get(1, TimeUnit.MINUTES);
+
+        Assertions.assertTrue(sample.size() > 0);
+        Assertions.assertEquals(SamplingEvent.Phase.PREPARING, phases.get(0));
+        Assertions.assertTrue(phases.contains(SamplingEvent.Phase.SAMPLING));
+        Assertions.assertEquals(SamplingEvent.Phase.FINISHED, phases.get(phases.size() - 1));
+    }
+
+    @Test
+    public void testCancelledBeforeStart() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(3, new BooleanAssignment(-1, 2));
+        PrioritizedSampling sampling =
+                new PrioritizedSampling(2, new BooleanAssignmentValueMap(featureModel.getVariableMap()));
+        List<Runnable> tasks = new ArrayList<>();
+
+        CompletableFuture<BooleanAssignmentList> future = sampling.computeSampleAsync(featureModel, tasks::add);
+        future.cancel(true);
+        tasks.forEach(Runnable::run);
+
+        Assertions.assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testAsyncSampleEqualsSyncSampleInRounds() throws Exception {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(3, new BooleanAssignment(-1, 2));
+        PrioritizedSampling sampling =
+                new PrioritizedSampling(2, new BooleanAssignmentValueMap(featureModel.getVariableMap()));
+        sampling.setRandomSeed(1L);
+        // a listener makes the synchronous sampling run in rounds, like every cancellable sampling
+        sampling.setSamplingListener(event -> {});
+
+        BooleanAssignmentList syncSample = sampling.computeSample(featureModel).get();
+        BooleanAssignmentList asyncSample =
+                sampling.computeSampleAsync(featureModel).get(1, TimeUnit.MINUTES);
+
+        Assertions.assertEquals(List.copyOf(syncSample.getAll()), List.copyOf(asyncSample.getAll()));
+    }
+
+    @Test
+    public void testCancelledWhileSampling() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(3, new BooleanAssignment(-1, 2));
+        PrioritizedSampling sampling =
+                new PrioritizedSampling(2, new BooleanAssignmentValueMap(featureModel.getVariableMap()));
+        sampling.setBatchSize(1);
+        AtomicReference<CompletableFuture<BooleanAssignmentList>> future = new AtomicReference<>();
+        List<SamplingEvent.Phase> phases = Collections.synchronizedList(new ArrayList<>());
+        sampling.setSamplingListener(event -> {
+            phases.add(event.getPhase());
+            if (event.getPhase() == SamplingEvent.Phase.SAMPLING) {
+                future.get().cancel(true);
+            }
+        });
+        List<Runnable> tasks = new ArrayList<>();
+
+        future.set(sampling.computeSampleAsync(featureModel, tasks::add));
+        // runs the sampling on this thread, so it has stopped once run returns
+        tasks.forEach(Runnable::run);
+
+        Assertions.assertTrue(future.get().isCancelled());
+        Assertions.assertEquals(1, Collections.frequency(phases, SamplingEvent.Phase.SAMPLING));
+        Assertions.assertFalse(phases.contains(SamplingEvent.Phase.FINISHED));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ClusterInteractionCombinationSpecificationTest {
+
+    @BeforeAll
+    public static void begin() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @AfterAll
+    public static void end() {
+        FeatJAR.deinitialize();
+    }
+
+    private static ClusterInteractionCombinationSpecification createSpecification(int size) {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= size; i++) {
+            variableMap.add("feature" + i);
+        }
+        return new ClusterInteractionCombinationSpecification(variableMap);
+    }
+
+    private static Set<List<Integer>> interactions(ClusterInteractionCombinationSpecification specification) {
+        return specification
+                .stream()
+                .map(interaction -> Arrays.stream(interaction).sorted().boxed().collect(Collectors.toList()))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testCombinesClusterWithVariablesOutsideOfCluster() {
+        ClusterInteractionCombinationSpecification specification = createSpecification(4);
+        specification.addCluster(new BooleanAssignment(1), 1);
+
+        Set<List<Integer>> interactions = interactions(specification);
+        Assertions.assertEquals(6, interactions.size());
+        Assertions.assertEquals(6, specification.loopCount());
+        Assertions.assertTrue(interactions.contains(List.of(-4, 1)));
+        Assertions.assertTrue(interactions.stream().allMatch(interaction -> interaction.contains(1)));
+        Assertions.assertTrue(interactions.stream().noneMatch(interaction -> interaction.contains(-1)));
+    }
+
+    @Test
+    public void testEnumeratesAllSignsOfEachCombination() {
+        ClusterInteractionCombinationSpecification specification = createSpecification(4);
+        specification.addCluster(new BooleanAssignment(1, -2), 2);
+        specification.addCluster(new BooleanAssignment(3), 2);
+
+        Set<List<Integer>> interactions = interactions(specification);
+        Assertions.assertEquals(4 + 3 * 4, interactions.size());
+        Assertions.assertEquals(interactions.size(), specification.loopCount());
+        Assertions.assertEquals(4, specification.maxT());
+        Assertions.assertTrue(interactions.contains(List.of(-4, -3, -2, 1)));
+    }
+
+    @Test
+    public void testShufflingKeepsInteractions() {
+        ClusterInteractionCombinationSpecification specification = createSpecification(6);
+        specification.addCluster(new BooleanAssignment(2, 5), 2);
+        Set<List<Integer>> interactions = interactions(specification);
+
+        specification.shuffle(new Random(1));
+        Assertions.assertEquals(interactions, interactions(specification));
+    }
+
+    @Test
+    public void testHasNoInteractionsIfTooFewVariablesRemain() {
+        ClusterInteractionCombinationSpecification specification = createSpecification(3);
+        specification.addCluster(new BooleanAssignment(1, 2), 2);
+
+        Assertions.assertEquals(0, specification.stream().count());
+        Assertions.assertEquals(0, specification.loopCount());
+    }
+}
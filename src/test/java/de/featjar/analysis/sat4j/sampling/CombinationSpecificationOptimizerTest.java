@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class CombinationSpecificationOptimizerTest {
+
+    @BeforeAll
+    public static void begin() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @AfterAll
+    public static void end() {
+        FeatJAR.deinitialize();
+    }
+
+    private static VariableMap createVariableMap(int size) {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= size; i++) {
+            variableMap.add("feature" + i);
+        }
+        return variableMap;
+    }
+
+    @Test
+    public void testRemovesDuplicateAndSubsumedVariableGroups() {
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(createVariableMap(6));
+        optimizer.setGlobalT(2);
+        optimizer.addVariableGroup(3, new int[] {1, 2, 3, 4}, "weight map");
+        optimizer.addVariableGroup(3, new int[] {4, 3, 2, 1}, "weight map");
+        optimizer.addVariableGroup(3, new int[] {1, 2}, "weight map");
+        optimizer.addVariableGroup(2, new int[] {5, 6}, "weight map");
+
+        Assertions.assertEquals(2, optimizer.getCombinationSpecifications().size());
+        Assertions.assertEquals(3, optimizer.getRemovedEntries().size());
+    }
+
+    @Test
+    public void testMergesOneWiseGroups() {
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(createVariableMap(6));
+        optimizer.addVariableGroup(1, new int[] {1, 2}, "weight map");
+        optimizer.addVariableGroup(1, new int[] {3}, "weight map");
+        optimizer.addVariableGroup(1, new int[] {2, 4}, "weight map");
+
+        Assertions.assertEquals(1, optimizer.getCombinationSpecifications().size());
+    }
+
+    @Test
+    public void testRemovesClustersCoveredByGlobalT() {
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(createVariableMap(6));
+        optimizer.setGlobalT(2);
+        optimizer.addPriorityCluster(new BooleanAssignment(1, -2));
+        optimizer.addPriorityCluster(new BooleanAssignment(1, -2, 3));
+        optimizer.addPriorityCluster(new BooleanAssignment(3, -2, 1));
+        optimizer.addCardinality(new BooleanAssignment(4), 1);
+        optimizer.addCardinality(new BooleanAssignment(5), 2);
+        optimizer.addClusterInteraction(new BooleanAssignment(6), 2);
+        optimizer.addClusterInteraction(new BooleanAssignment(-6), 3);
+
+        // global, one priority specification, one cluster interaction
+        Assertions.assertEquals(3, optimizer.getCombinationSpecifications().size());
+        Assertions.assertEquals(4, optimizer.getRemovedEntries().size());
+        Assertions.assertEquals(1, optimizer.getCardinalityRequirements().size());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ComputeCardinalityCompletionTest {
+
+    private static VariableMap createVariableMap() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        return variableMap;
+    }
+
+    @Test
+    public void testAddsDistinctConfigurations() {
+        VariableMap variableMap = createVariableMap();
+        BooleanAssignmentList clauses = new BooleanAssignmentList(variableMap, new BooleanAssignment(-1, 2));
+        BooleanAssignmentList sample = new BooleanAssignmentList(variableMap, new BooleanAssignment(1, 2, 3));
+        CoverageRequirement twice = new CoverageRequirement("twice", new int[] {1}, 0, new int[0], 2);
+
+        BooleanAssignmentList completion = ComputeCardinalityCompletion.complete(clauses, sample, List.of(twice));
+
+        Assertions.assertEquals(1, completion.size());
+        Assertions.assertArrayEquals(
+                new int[] {1, 2, -3}, completion.getAll().get(0).get());
+    }
+
+    @Test
+    public void testStopsWhenNoFurtherConfigurationExists() {
+        VariableMap variableMap = createVariableMap();
+        BooleanAssignmentList clauses = new BooleanAssignmentList(variableMap, new BooleanAssignment(-1, 2));
+        BooleanAssignmentList sample = new BooleanAssignmentList(variableMap);
+        CoverageRequirement often = new CoverageRequirement("often", new int[] {1}, 0, new int[0], 5);
+
+        BooleanAssignmentList completion = ComputeCardinalityCompletion.complete(clauses, sample, List.of(often));
+
+        Assertions.assertEquals(2, completion.size());
+        Assertions.assertEquals(2, new HashSet<>(completion.getAll()).size());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import de.featjar.formula.assignment.BooleanAssignmentValueMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ComputeIndexedRankedSampleTest {
+
+    private static BooleanAssignmentList rank(
+            BooleanAssignmentList sample, BooleanAssignmentValueMap priorityMap, int threads) {
+        return Computations.of(sample)
+                .map(c -> new ComputeIndexedRankedSample(c, priorityMap))
+                .set(ComputeIndexedRankedSample.THREADS, threads)
+                .compute();
+    }
+
+    @Test
+    public void testRanksBySummedPriority() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        // scores 6, 5, 3, 0
+        List<BooleanAssignment> expected = List.of(
+                new BooleanAssignment(1, 2, 3),
+                new BooleanAssignment(-1, -2, 3),
+                new BooleanAssignment(1, -2, -3),
+                new BooleanAssignment(-1, 2, -3));
+        List<BooleanAssignment> configurations = new ArrayList<>(expected);
+        Collections.shuffle(configurations, new Random(1));
+        BooleanAssignmentList sample =
+                new BooleanAssignmentList(variableMap, configurations.toArray(new BooleanAssignment[0]));
+        BooleanAssignmentValueMap priorityMap = new BooleanAssignmentValueMap(variableMap);
+        priorityMap.add(new BooleanAssignment(-2, 3), 5);
+        priorityMap.add(new BooleanAssignment(1), 3);
+        priorityMap.add(new BooleanAssignment(2, 3), 3);
+
+        BooleanAssignmentList ranked = rank(sample, priorityMap, 2);
+
+        Assertions.assertNotEquals(expected, List.copyOf(sample.getAll()));
+        Assertions.assertEquals(expected, List.copyOf(ranked.getAll()));
+    }
+
+    @Test
+    public void testParallelRankingEqualsSequentialRanking() {
+        int variableCount = 45;
+        Random random = new Random(0);
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= variableCount; i++) {
+            variableMap.add("feature" + i);
+        }
+        BooleanAssignmentList sample = new BooleanAssignmentList(variableMap);
+        for (int i = 0; i < 64; i++) {
+            int[] configuration = new int[variableCount];
+            for (int j = 0; j < variableCount; j++) {
+                configuration[j] = random.nextBoolean() ? j + 1 : -(j + 1);
+            }
+            sample.add(new BooleanAssignment(configuration));
+        }
+        // more than three chunks of 4096 clusters, so that the clusters are scored on separate threads
+        BooleanAssignmentValueMap priorityMap = new BooleanAssignmentValueMap(variableMap);
+        for (int a = 1; a <= variableCount; a++) {
+            for (int b = a + 1; b <= variableCount; b++) {
+                for (int c = b + 1; c <= variableCount && priorityMap.size() < 3 * 4096 + 100; c++) {
+                    priorityMap.add(
+                            new BooleanAssignment(
+                                    random.nextBoolean() ? a : -a,
+                                    random.nextBoolean() ? b : -b,
+                                    random.nextBoolean() ? c : -c),
+                            random.nextInt(100));
+                }
+            }
+        }
+
+        BooleanAssignmentList sequential = rank(sample, priorityMap, 1);
+        BooleanAssignmentList parallel = rank(sample, priorityMap, 4);
+
+        Assertions.assertEquals(List.copyOf(sequential.getAll()), List.copyOf(parallel.getAll()));
+        long previousScore = Long.MAX_VALUE;
+        for (BooleanAssignment configuration : sequential.getAll()) {
+            boolean[] selected = new boolean[2 * variableCount + 1];
+            for (int literal : configuration.get()) {
+                selected[literal + variableCount] = true;
+            }
+            long score = 0;
+            for (Map.Entry<BooleanAssignment, Integer> cluster : priorityMap) {
+                if (IntStream.of(cluster.getKey().get()).allMatch(literal -> selected[literal + variableCount])) {
+                    score += cluster.getValue();
+                }
+            }
+            Assertions.assertTrue(score <= previousScore);
+            previousScore = score;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ComputeMinimizedSampleTest {
+
+    private static BooleanAssignmentList createSample() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        return new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(1, 2, 3),
+                new BooleanAssignment(1, -2, 3),
+                new BooleanAssignment(-1, -2, -3),
+                new BooleanAssignment(-1, 2, -3));
+    }
+
+    private static BooleanAssignmentList minimize(
+            BooleanAssignmentList sample, CombinationSpecificationOptimizer optimizer, int threads) {
+        return Computations.of(sample)
+                .map(c -> new ComputeMinimizedSample(c, optimizer))
+                .set(ComputeMinimizedSample.THREADS, threads)
+                .compute();
+    }
+
+    @Test
+    public void testRemovesRedundantConfigurations() {
+        BooleanAssignmentList sample = createSample();
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(sample.getVariableMap());
+        optimizer.setGlobalT(1);
+
+        for (int threads : new int[] {1, 2}) {
+            BooleanAssignmentList minimized = minimize(sample, optimizer, threads);
+            Assertions.assertEquals(
+                    List.of(sample.getAll().get(0), sample.getAll().get(2)), List.copyOf(minimized.getAll()));
+        }
+    }
+
+    @Test
+    public void testKeepsCardinality() {
+        BooleanAssignmentList sample = createSample();
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(sample.getVariableMap());
+        optimizer.setGlobalT(1);
+        optimizer.addCardinality(new BooleanAssignment(1), 2);
+
+        BooleanAssignmentList minimized = minimize(sample, optimizer, 1);
+        Assertions.assertEquals(
+                List.of(sample.getAll().get(0), sample.getAll().get(1), sample.getAll().get(2)),
+                List.copyOf(minimized.getAll()));
+    }
+
+    @Test
+    public void testFiltersInOrderWithLimitedMemory() {
+        BooleanAssignmentList sample = createSample();
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(sample.getVariableMap());
+        optimizer.setGlobalT(1);
+
+        BooleanAssignmentList minimized = Computations.of(sample)
+                .map(c -> new ComputeMinimizedSample(c, optimizer))
+                .set(ComputeMinimizedSample.MAX_MEMORY, 1L)
+                .compute();
+        Assertions.assertEquals(
+                List.of(sample.getAll().get(0), sample.getAll().get(1), sample.getAll().get(2)),
+                List.copyOf(minimized.getAll()));
+    }
+
+    @Test
+    public void testUnionRemovesDuplicates() {
+        BooleanAssignmentList sample = createSample();
+        BooleanAssignmentList other =
+                new BooleanAssignmentList(sample.getVariableMap(), new BooleanAssignment(1, 2, 3));
+        BooleanAssignmentList union = ComputeMinimizedSample.union(sample.getVariableMap(), List.of(sample, other));
+        Assertions.assertEquals(4, union.size());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.Computations;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ComputeParallelSampleTest {
+
+    @BeforeAll
+    public static void begin() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @AfterAll
+    public static void end() {
+        FeatJAR.deinitialize();
+    }
+
+    private static BooleanAssignmentList sample(
+            BooleanAssignmentList featureModel, CombinationSpecificationOptimizer optimizer, int threads) {
+        return Computations.of(featureModel)
+                .map(c -> new ComputeParallelSample(c, optimizer))
+                .set(ComputeParallelSample.ITERATIONS, 4)
+                .set(ComputeParallelSample.THREADS, threads)
+                .set(ComputeParallelSample.RANDOM_SEED, 7L)
+                .compute();
+    }
+
+    @Test
+    public void testSampleDoesNotDependOnThreads() {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= 8; i++) {
+            variableMap.add("feature" + i);
+        }
+        BooleanAssignmentList featureModel =
+                new BooleanAssignmentList(variableMap, new BooleanAssignment(-1, 2), new BooleanAssignment(3, 4));
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(variableMap);
+        optimizer.setGlobalT(2);
+
+        List<BooleanAssignment> expected = List.copyOf(sample(featureModel, optimizer, 1).getAll());
+        for (int threads : new int[] {2, 3, 4, 8}) {
+            Assertions.assertEquals(expected, List.copyOf(sample(featureModel, optimizer, threads).getAll()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ComputeShardedSampleTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private static CombinationSpecificationOptimizer createOptimizer(BooleanAssignmentList featureModel) {
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.setGlobalT(1);
+        optimizer.addPriorityCluster(new BooleanAssignment(1, 3, 4));
+        optimizer.addVariableGroup(3, new int[] {2, 3, 4}, "weight map");
+        optimizer.addCardinality(new BooleanAssignment(2, 3), 2);
+        return optimizer;
+    }
+
+    private static BooleanAssignmentList sample(
+            BooleanAssignmentList featureModel,
+            CombinationSpecificationOptimizer optimizer,
+            ShardDirectory directory,
+            IShardRunner runner) {
+        return Computations.of(featureModel)
+                .map(c -> new ComputeShardedSample(c, optimizer, directory))
+                .set(ComputeShardedSample.SHARD_RUNNER, runner)
+                .compute();
+    }
+
+    @Test
+    public void testShardsOnlyContainTheirSpecifications() throws IOException {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(4, new BooleanAssignment(-1, 2));
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        ShardDirectory directory = ShardDirectory.create(temporaryDirectory, featureModel, optimizer, 2, 1, 0L);
+
+        ShardDirectory openedDirectory = ShardDirectory.open(temporaryDirectory);
+        Assertions.assertEquals(2, openedDirectory.getShards());
+        // the global specification and the priority cluster belong to the first shard, the group and the
+        // cardinality cluster, which YASA covers once, to the second shard
+        CombinationSpecificationOptimizer firstShard = openedDirectory.readShard(0, featureModel);
+        Assertions.assertEquals(1, firstShard.getGlobalT());
+        Assertions.assertEquals(2, firstShard.getCombinationSpecifications().size());
+        CombinationSpecificationOptimizer secondShard = openedDirectory.readShard(1, featureModel);
+        Assertions.assertEquals(0, secondShard.getGlobalT());
+        Assertions.assertEquals(2, secondShard.getCombinationSpecifications().size());
+        Assertions.assertEquals(0, secondShard.getCardinalityRequirements().size());
+    }
+
+    @Test
+    public void testMergedSampleCoversAllShards() throws IOException {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(4, new BooleanAssignment(-1, 2));
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        ShardDirectory directory = ShardDirectory.create(temporaryDirectory, featureModel, optimizer, 2, 1, 0L);
+
+        BooleanAssignmentList sample = sample(featureModel, optimizer, directory, ComputeShardedSample.IN_PROCESS);
+
+        Assertions.assertEquals(
+                1.0, CoverageReport.compute(optimizer.getCoverageRequirements(), sample).getCoverage());
+    }
+
+    @Test
+    public void testCoversInteractionsOfFailedShards() throws IOException {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(4, new BooleanAssignment(-1, 2));
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        ShardDirectory directory = ShardDirectory.create(temporaryDirectory, featureModel, optimizer, 2, 1, 0L);
+
+        BooleanAssignmentList sample = sample(featureModel, optimizer, directory, (shardDirectory, shard) -> {
+            if (shard == 1) {
+                throw new IOException("worker lost");
+            }
+            ComputeShardedSample.IN_PROCESS.run(shardDirectory, shard);
+        });
+
+        Assertions.assertEquals(
+                1.0, CoverageReport.compute(optimizer.getCoverageRequirements(), sample).getCoverage());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ComputeStreamedSampleTest {
+
+    private static CombinationSpecificationOptimizer createOptimizer(BooleanAssignmentList featureModel) {
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.setGlobalT(2);
+        return optimizer;
+    }
+
+    private static IComputation<BooleanAssignmentList> sample(
+            BooleanAssignmentList featureModel, CombinationSpecificationOptimizer optimizer, ISampleSink sink) {
+        return Computations.of(featureModel)
+                .map(c -> new ComputeStreamedSample(c, optimizer, sink))
+                .set(ComputeStreamedSample.BATCH_SIZE, 1);
+    }
+
+    @Test
+    public void testDeliversBatchesToSink() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6);
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        List<BooleanAssignmentList> batches = new ArrayList<>();
+
+        BooleanAssignmentList sample = sample(featureModel, optimizer, batches::add)
+                .set(ComputeStreamedSample.BATCH_SIZE, 2)
+                .compute();
+
+        Assertions.assertTrue(batches.size() > 1);
+        List<BooleanAssignment> emitted = new ArrayList<>();
+        for (BooleanAssignmentList batch : batches) {
+            Assertions.assertTrue(batch.size() > 0 && batch.size() <= 2);
+            emitted.addAll(batch.getAll());
+        }
+        // every configuration of the final sample is emitted exactly once
+        Assertions.assertEquals(sample.size(), emitted.size());
+        Assertions.assertEquals(new HashSet<>(sample.getAll()), new HashSet<>(emitted));
+        Assertions.assertEquals(1.0, CoverageReport.compute(optimizer.getCoverageRequirements(), sample).getCoverage());
+    }
+
+    @Test
+    public void testEmitsInitialSampleFirst() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6);
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        BooleanAssignmentList initialSample = new BooleanAssignmentList(
+                featureModel.getVariableMap(), new BooleanAssignment(1, 2, 3, 4, 5, 6));
+        List<BooleanAssignmentList> batches = new ArrayList<>();
+
+        BooleanAssignmentList sample = sample(featureModel, optimizer, batches::add)
+                .set(ComputeStreamedSample.INITIAL_SAMPLE, initialSample)
+                .compute();
+
+        Assertions.assertEquals(List.copyOf(initialSample.getAll()), List.copyOf(batches.get(0).getAll()));
+        Assertions.assertTrue(sample.getAll().contains(initialSample.getAll().get(0)));
+    }
+
+    @Test
+    public void testStopsAtTargetCoverage() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6);
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        BooleanAssignmentList fullSample = sample(featureModel, optimizer, batch -> {}).compute();
+
+        BooleanAssignmentList sample = sample(featureModel, optimizer, batch -> {})
+                .set(ComputeStreamedSample.TARGET_COVERAGE, 0.5)
+                .compute();
+
+        double coverage = CoverageReport.compute(optimizer.getCoverageRequirements(), sample).getCoverage();
+        Assertions.assertTrue(coverage >= 0.5);
+        Assertions.assertTrue(sample.size() < fullSample.size());
+    }
+
+    @Test
+    public void testStopsAtTimeLimitBetweenRounds() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6);
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        BooleanAssignmentList fullSample = sample(featureModel, optimizer, batch -> {}).compute();
+
+        List<BooleanAssignmentList> batches = new ArrayList<>();
+        BooleanAssignmentList sample = sample(featureModel, optimizer, batches::add)
+                .set(ComputeStreamedSample.TIME_LIMIT, 1L)
+                .compute();
+
+        Assertions.assertTrue(sample.size() < fullSample.size());
+        // every finished round is part of the result and no round is emitted after the time limit
+        Assertions.assertEquals(sample.size(), batches.stream().mapToInt(BooleanAssignmentList::size).sum());
+    }
+
+    @Test
+    public void testCancelledBetweenRounds() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6);
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        List<BooleanAssignmentList> batches = new ArrayList<>();
+
+        Result<BooleanAssignmentList> sample = sample(featureModel, optimizer, batches::add)
+                .set(ComputeStreamedSample.CANCELLATION, () -> !batches.isEmpty())
+                .computeResult();
+
+        Assertions.assertTrue(sample.isEmpty());
+        Assertions.assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testReachesFullCoverageOfFeasibleInteractions() {
+        BooleanAssignmentList featureModel = TestFeatureModels.createFeatureModel(6, new BooleanAssignment(-1, -2));
+        CombinationSpecificationOptimizer optimizer = createOptimizer(featureModel);
+        List<SamplingEvent> events = new ArrayList<>();
+
+        sample(featureModel, optimizer, batch -> {})
+                .set(ComputeStreamedSample.TARGET_COVERAGE, 1.0)
+                .set(ComputeStreamedSample.LISTENER, events::add)
+                .compute();
+
+        // the interaction (1, 2) is infeasible and does not count towards the coverage
+        SamplingEvent lastEvent = events.get(events.size() - 1);
+        Assertions.assertEquals(SamplingEvent.Phase.STOPPED, lastEvent.getPhase());
+        Assertions.assertEquals(1.0, lastEvent.getCoverage());
+    }
+}
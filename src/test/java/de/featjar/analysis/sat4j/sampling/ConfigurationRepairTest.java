@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationRepairTest {
+
+    private static BooleanAssignmentList createClauseList() {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= 5; i++) {
+            variableMap.add("feature" + i);
+        }
+        // feature1 requires feature2, feature2 excludes feature3, feature4 or feature5
+        return new BooleanAssignmentList(
+                variableMap, new BooleanAssignment(-1, 2), new BooleanAssignment(-2, -3), new BooleanAssignment(4, 5));
+    }
+
+    @Test
+    public void testRepairsWithFewChanges() {
+        ConfigurationRepair repair = new ConfigurationRepair(createClauseList(), 1);
+        BooleanAssignment configuration = new BooleanAssignment(1, -2, 3, 4);
+
+        Result<BooleanAssignment> repaired = repair.repair(configuration);
+        Assertions.assertArrayEquals(new int[] {-1, -2, 3, 4, -5}, repaired.get().get());
+        Assertions.assertEquals(1, repair.countChanges(configuration, repaired.get()));
+    }
+
+    @Test
+    public void testAssignsNewVariables() {
+        ConfigurationRepair repair = new ConfigurationRepair(createClauseList(), 1);
+        BooleanAssignment configuration = new BooleanAssignment(1, 2, -3);
+
+        Result<BooleanAssignment> repaired = repair.repair(configuration);
+        Assertions.assertEquals(0, repair.countChanges(configuration, repaired.get()));
+        Assertions.assertEquals(5, repaired.get().get().length);
+    }
+
+    @Test
+    public void testFallsBackToSolver() {
+        BooleanAssignmentList clauseList = createClauseList();
+        ConfigurationRepair repair = new ConfigurationRepair(clauseList, 0, 1);
+        BooleanAssignment configuration = new BooleanAssignment(1, -2, 3, 4);
+
+        Result<BooleanAssignment> repaired = repair.repair(configuration);
+        Assertions.assertEquals(5, repaired.get().get().length);
+        for (BooleanAssignment clause : clauseList.getAll()) {
+            Assertions.assertTrue(IntStream.of(clause.get())
+                    .anyMatch(literal -> IntStream.of(repaired.get().get()).anyMatch(value -> value == literal)));
+        }
+        // feature4 is not involved in any conflict, so the solver keeps its preferred phase
+        Assertions.assertTrue(IntStream.of(repaired.get().get()).anyMatch(value -> value == 4));
+    }
+
+    @Test
+    public void testSolverKeepsSatisfiableConfigurations() {
+        ConfigurationRepair repair = new ConfigurationRepair(createClauseList(), 0, 1);
+        BooleanAssignment configuration = new BooleanAssignment(1, -3);
+
+        Result<BooleanAssignment> repaired = repair.repair(configuration);
+        Assertions.assertEquals(0, repair.countChanges(configuration, repaired.get()));
+    }
+
+    @Test
+    public void testCompletesWithoutChanges() {
+        ConfigurationRepair repair = new ConfigurationRepair(createClauseList(), 1);
+
+        Result<BooleanAssignment> completed = repair.complete(new BooleanAssignment(1, -4));
+        Assertions.assertArrayEquals(new int[] {1, 2, -3, -4, 5}, completed.get().get());
+        Assertions.assertTrue(repair.complete(new BooleanAssignment(1, -2)).isEmpty());
+    }
+
+    @Test
+    public void testFailsForContradictions() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        BooleanAssignmentList clauseList =
+                new BooleanAssignmentList(variableMap, new BooleanAssignment(1), new BooleanAssignment(-1));
+
+        Assertions.assertTrue(new ConfigurationRepair(clauseList, 100, 1).repair(new BooleanAssignment(1)).isEmpty());
+    }
+}
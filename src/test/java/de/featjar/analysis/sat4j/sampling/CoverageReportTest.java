@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CoverageReportTest {
+
+    private static BooleanAssignmentList createSample() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        return new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(1, 2, 3),
+                new BooleanAssignment(-1, -2, 3),
+                new BooleanAssignment(1, -2, -3));
+    }
+
+    @Test
+    public void testTWiseCoverage() {
+        CoverageRequirement oneWise = new CoverageRequirement("1-wise", new int[0], 1, new int[] {1, 2, 3}, 1);
+        CoverageRequirement twoWise = new CoverageRequirement("2-wise", new int[0], 2, new int[] {1, 2, 3}, 1);
+        CoverageReport report = CoverageReport.compute(List.of(oneWise, twoWise), createSample());
+
+        CoverageReport.Entry oneWiseEntry = report.getEntries().get(0);
+        Assertions.assertEquals(6, oneWiseEntry.getEnumerated());
+        Assertions.assertEquals(6, oneWiseEntry.getCovered());
+        Assertions.assertEquals(3, oneWiseEntry.getFirstCoveringConfigurations());
+
+        CoverageReport.Entry twoWiseEntry = report.getEntries().get(1);
+        Assertions.assertEquals(12, twoWiseEntry.getEnumerated());
+        Assertions.assertEquals(twoWise.getInteractionCount(), twoWiseEntry.getEnumerated());
+        Assertions.assertEquals(9, twoWiseEntry.getCovered());
+    }
+
+    @Test
+    public void testCardinalityCoverage() {
+        CoverageRequirement twice = new CoverageRequirement("twice", new int[] {3}, 0, new int[0], 2);
+        CoverageRequirement thrice = new CoverageRequirement("thrice", new int[] {1}, 0, new int[0], 3);
+        CoverageReport report = CoverageReport.compute(List.of(twice, thrice), createSample());
+
+        Assertions.assertEquals(1, report.getEntries().get(0).getCovered());
+        Assertions.assertEquals(0, report.getEntries().get(1).getCovered());
+    }
+
+    @Test
+    public void testClusterInteractionCoverage() {
+        // -2 with each literal of the shared universe except variable 2
+        CoverageRequirement clusterInteraction =
+                new CoverageRequirement("cluster", new int[] {-2}, 1, new int[] {1, 2, 3}, new int[] {2}, 1);
+        CoverageReport report = CoverageReport.compute(List.of(clusterInteraction), createSample());
+
+        Assertions.assertEquals(4, clusterInteraction.getInteractionCount());
+        Assertions.assertEquals(4, report.getEntries().get(0).getEnumerated());
+        Assertions.assertEquals(4, report.getEntries().get(0).getCovered());
+    }
+
+    @Test
+    public void testParallelCoverageMatchesSequential() {
+        List<CoverageRequirement> requirements = List.of(
+                new CoverageRequirement("2-wise", new int[0], 2, new int[] {1, 2, 3}, 1),
+                new CoverageRequirement("3-wise", new int[0], 3, new int[] {1, 2, 3}, 1),
+                new CoverageRequirement("twice", new int[] {3}, 0, new int[0], 2));
+        CoverageReport sequential = CoverageReport.compute(requirements, createSample());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        CoverageReport parallel;
+        try {
+            parallel = CoverageReport.compute(requirements, createSample(), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < requirements.size(); i++) {
+            CoverageReport.Entry expected = sequential.getEntries().get(i);
+            CoverageReport.Entry actual = parallel.getEntries().get(i);
+            Assertions.assertEquals(expected.getEnumerated(), actual.getEnumerated());
+            Assertions.assertEquals(expected.getCovered(), actual.getCovered());
+            Assertions.assertEquals(expected.getFirstCoveringConfigurations(), actual.getFirstCoveringConfigurations());
+        }
+    }
+
+    @Test
+    public void testSeparatesInfeasibleFromUncoveredInteractions() {
+        BooleanAssignmentList sample = createSample();
+        // feature2 implies feature3, so (2, -3) is infeasible, while (-1, 2) and (-1, -3) are only uncovered
+        BooleanAssignmentList booleanClauseList =
+                new BooleanAssignmentList(sample.getVariableMap(), new BooleanAssignment(-2, 3));
+        List<CoverageRequirement> requirements =
+                List.of(new CoverageRequirement("2-wise", new int[0], 2, new int[] {1, 2, 3}, 1));
+        CoverageReport sequential = CoverageReport.compute(requirements, sample, booleanClauseList);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        CoverageReport parallel;
+        try {
+            parallel = CoverageReport.compute(requirements, sample, booleanClauseList, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (CoverageReport report : List.of(sequential, parallel)) {
+            CoverageReport.Entry entry = report.getEntries().get(0);
+            Assertions.assertEquals(9, entry.getCovered());
+            Assertions.assertEquals(1, entry.getInfeasible());
+            Assertions.assertEquals(2, entry.getUncovered());
+            Assertions.assertEquals(9.0 / 11, report.getCoverage());
+        }
+    }
+}
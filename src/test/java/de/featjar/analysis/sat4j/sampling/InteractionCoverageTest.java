@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InteractionCoverageTest {
+
+    private static BooleanAssignmentList createSample() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        variableMap.add("feature3");
+        variableMap.add("feature4");
+        return new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(1, 2, 3, 4),
+                new BooleanAssignment(-1, -2, 3, -4),
+                new BooleanAssignment(1, -2, -3, 4),
+                new BooleanAssignment(1, 2, -3));
+    }
+
+    @Test
+    public void testMatchesCoverageReport() {
+        int[] variables = {1, 2, 3, 4};
+        List<CoverageRequirement> requirements = List.of(
+                new CoverageRequirement("3-wise", new int[0], 3, variables, 1),
+                new CoverageRequirement("cluster", new int[] {-2}, 2, variables, new int[] {2}, 1),
+                new CoverageRequirement("twice", new int[] {1}, 0, new int[0], 2));
+        BooleanAssignmentList sample = createSample();
+        InteractionCoverage coverage = new InteractionCoverage(requirements, 4);
+
+        BooleanAssignmentList prefix = new BooleanAssignmentList(sample.getVariableMap());
+        for (BooleanAssignment configuration : sample.getAll()) {
+            coverage.add(configuration);
+            prefix.add(configuration);
+            CoverageReport report = CoverageReport.compute(requirements, prefix);
+            long covered = report.getEntries().stream()
+                    .mapToLong(CoverageReport.Entry::getCovered)
+                    .sum();
+            Assertions.assertEquals(covered, coverage.getCoveredCount());
+            Assertions.assertEquals(report.getCoverage(), coverage.getCoverage(), 1e-9);
+        }
+        Assertions.assertEquals(4, coverage.getConfigurationCount());
+    }
+
+    @Test
+    public void testDefaultLimitIsBounded() {
+        int[] variables = IntStream.rangeClosed(1, 100_000).toArray();
+        List<CoverageRequirement> requirements =
+                List.of(new CoverageRequirement("3-wise", new int[0], 3, variables, 1));
+
+        Assertions.assertTrue(InteractionCoverage.getDefaultMaxMemory() > 0);
+        Assertions.assertFalse(InteractionCoverage.fits(requirements, 0));
+        Assertions.assertTrue(InteractionCoverage.fits(requirements, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testReportsContributingConfigurations() {
+        List<CoverageRequirement> requirements =
+                List.of(new CoverageRequirement("1-wise", new int[0], 1, new int[] {1, 2}, 1));
+        InteractionCoverage coverage = new InteractionCoverage(requirements, 2);
+
+        Assertions.assertTrue(coverage.add(new BooleanAssignment(1, 2)));
+        Assertions.assertFalse(coverage.add(new BooleanAssignment(1, 2)));
+        Assertions.assertTrue(coverage.add(new BooleanAssignment(1, -2)));
+        Assertions.assertEquals(0.75, coverage.getCoverage(), 1e-9);
+        Assertions.assertEquals(1, InteractionCoverage.getRequiredBytes(requirements));
+    }
+}
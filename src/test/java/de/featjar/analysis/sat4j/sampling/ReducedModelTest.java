@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ReducedModelTest {
+
+    private static BooleanAssignmentList createFeatureModel() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("root");
+        variableMap.add("mandatory");
+        variableMap.add("optional1");
+        variableMap.add("optional2");
+        return new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(1),
+                new BooleanAssignment(-1, 2),
+                new BooleanAssignment(3, 4),
+                new BooleanAssignment(-3, -4, 2));
+    }
+
+    @Test
+    public void testRemovesCoreAndUnreferencedVariables() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+        ReducedModel model = ReducedModel.compute(featureModel, new BooleanAssignment(1, 2), new int[] {3});
+
+        Assertions.assertEquals(2, model.getFixedVariableCount());
+        Assertions.assertEquals(1, model.getEliminatedVariableCount());
+        Assertions.assertEquals(1, model.getReducedVariableMap().size());
+        Assertions.assertEquals(0, model.getClauseList().size());
+        Assertions.assertEquals(1, model.reduce(3));
+        Assertions.assertEquals(0, model.reduce(4));
+    }
+
+    @Test
+    public void testExpandsToValidConfigurations() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+        ReducedModel model = ReducedModel.compute(featureModel, new BooleanAssignment(1, 2), new int[] {3});
+
+        Assertions.assertArrayEquals(
+                new int[] {1, 2, -3, 4}, model.expand(new BooleanAssignment(-1)).get());
+        Assertions.assertArrayEquals(
+                new int[] {1, 2, 3, -4}, model.expand(new BooleanAssignment(1)).get());
+    }
+
+    @Test
+    public void testReducesSpecifications() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.addPriorityCluster(new BooleanAssignment(2, 3));
+        optimizer.addPriorityCluster(new BooleanAssignment(-2, 3));
+        optimizer.addCardinality(new BooleanAssignment(1, 2), 2);
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, optimizer.getReferencedVariables());
+
+        ReducedModel model = ReducedModel.compute(
+                featureModel, new BooleanAssignment(1, 2), optimizer.getReferencedVariables());
+        CombinationSpecificationOptimizer reduced = optimizer.reduce(model);
+
+        Assertions.assertEquals(2, reduced.getCoverageRequirements().size());
+        Assertions.assertEquals(1, reduced.getRemovedEntries().size());
+    }
+
+    @Test
+    public void testKeepsCoreCardinalitiesAsCountOnlyRequirements() {
+        BooleanAssignmentList featureModel = createFeatureModel();
+        CombinationSpecificationOptimizer optimizer =
+                new CombinationSpecificationOptimizer(featureModel.getVariableMap());
+        optimizer.addCardinality(new BooleanAssignment(1, 2), 3);
+        optimizer.addCardinality(new BooleanAssignment(3), 1);
+
+        ReducedModel model = ReducedModel.compute(
+                featureModel, new BooleanAssignment(1, 2), optimizer.getReferencedVariables());
+        CombinationSpecificationOptimizer reduced = optimizer.reduce(model);
+
+        Assertions.assertEquals(0, reduced.getRemovedEntries().size());
+        Assertions.assertEquals(1, reduced.getCardinalityRequirements().size());
+        CoverageRequirement requirement = reduced.getCardinalityRequirements().get(0);
+        Assertions.assertEquals(0, requirement.getFixedLiterals().length);
+        Assertions.assertEquals(3, requirement.getMinimumCount());
+
+        BooleanAssignmentList sample = ComputeCardinalityCompletion.complete(
+                model.getClauseList(),
+                new BooleanAssignmentList(model.getReducedVariableMap()),
+                reduced.getCardinalityRequirements());
+        // the reduced model only has two configurations
+        Assertions.assertEquals(2, sample.size());
+    }
+
+    @Test
+    public void testCollapsesAtomicSets() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+        variableMap.add("notC");
+        BooleanAssignmentList featureModel = new BooleanAssignmentList(
+                variableMap,
+                new BooleanAssignment(-1, 2),
+                new BooleanAssignment(1, -2),
+                new BooleanAssignment(3, 4),
+                new BooleanAssignment(-3, -4));
+        BooleanAssignmentList atomicSets =
+                new BooleanAssignmentList(variableMap, new BooleanAssignment(1, 2), new BooleanAssignment(3, -4));
+
+        ReducedModel model = ReducedModel.compute(
+                featureModel, new BooleanAssignment(), atomicSets, variableMap.getVariables().get());
+
+        Assertions.assertEquals(2, model.getCollapsedVariableCount());
+        Assertions.assertEquals(2, model.getReducedVariableMap().size());
+        Assertions.assertEquals(0, model.getClauseList().size());
+        Assertions.assertEquals(1, model.reduce(2));
+        Assertions.assertEquals(-2, model.reduce(4));
+        Assertions.assertArrayEquals(
+                new int[] {1, 2, -3, 4}, model.expand(new BooleanAssignment(1, -2)).get());
+
+        CombinationSpecificationOptimizer optimizer = new CombinationSpecificationOptimizer(variableMap);
+        optimizer.addPriorityCluster(new BooleanAssignment(1, 2, 3));
+        optimizer.addPriorityCluster(new BooleanAssignment(-1, 2));
+        CombinationSpecificationOptimizer reduced = optimizer.reduce(model);
+        Assertions.assertEquals(1, reduced.getCoverageRequirements().size());
+        Assertions.assertArrayEquals(
+                new int[] {1, 2}, reduced.getCoverageRequirements().get(0).getFixedLiterals());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula-sampling.
+ *
+ * formula-sampling is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula-sampling is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula-sampling. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/chris-rau/formula-sampling> for further information.
+ */
+package de.featjar.analysis.sat4j.sampling;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import de.featjar.formula.assignment.BooleanAssignmentList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SamplingContextTest {
+
+    @Test
+    public void testSharesContextAndReducedModels() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        variableMap.add("feature2");
+        BooleanAssignmentList clauseList = new BooleanAssignmentList(variableMap, new BooleanAssignment(-1, 2));
+
+        SamplingContext context = SamplingContext.of(clauseList);
+        Assertions.assertSame(context, SamplingContext.of(clauseList));
+        Assertions.assertSame(clauseList, context.getClauseList());
+
+        ReducedModel model = context.getReducedModel(false, false, new int[0]).get();
+        Assertions.assertSame(model, context.getReducedModel(false, false, new int[0]).get());
+        Assertions.assertEquals(2, model.getReducedVariableMap().size());
+    }
+
+    @Test
+    public void testSharesContextPerModelContent() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("feature1");
+        AtomicInteger transformations = new AtomicInteger();
+        Supplier<Result<BooleanAssignmentList>> transformation = () -> {
+            transformations.incrementAndGet();
+            return Result.of(new BooleanAssignmentList(variableMap, new BooleanAssignment(1)));
+        };
+
+        SamplingContext context = SamplingContext.of("feature1", transformation).get();
+        Assertions.assertSame(context, SamplingContext.of("feature1", transformation).get());
+        Assertions.assertEquals(1, transformations.get());
+
+        // a changed model has a different content and gets a new context
+        Assertions.assertNotSame(context, SamplingContext.of("-feature1", transformation).get());
+        Assertions.assertEquals(2, transformations.get());
+    }
+}